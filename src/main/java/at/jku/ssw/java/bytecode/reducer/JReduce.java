@@ -1,17 +1,31 @@
 package at.jku.ssw.java.bytecode.reducer;
 
+import at.jku.ssw.java.bytecode.reducer.context.AdaptiveTimeout;
+import at.jku.ssw.java.bytecode.reducer.context.BytecodeCache;
+import at.jku.ssw.java.bytecode.reducer.context.Context;
 import at.jku.ssw.java.bytecode.reducer.io.cli.CLIParser;
 import at.jku.ssw.java.bytecode.reducer.context.ContextFactory;
+import at.jku.ssw.java.bytecode.reducer.context.OutcomeCache;
+import at.jku.ssw.java.bytecode.reducer.context.Oracle;
+import at.jku.ssw.java.bytecode.reducer.context.Scheduler;
+import at.jku.ssw.java.bytecode.reducer.context.VerifyingOracle;
+import at.jku.ssw.java.bytecode.reducer.context.WorkspacePool;
 import at.jku.ssw.java.bytecode.reducer.errors.DuplicateClassException;
-import at.jku.ssw.java.bytecode.reducer.io.NamingStrategy;
-import at.jku.ssw.java.bytecode.reducer.io.TempDir;
-import at.jku.ssw.java.bytecode.reducer.utils.functional.Catch;
+import at.jku.ssw.java.bytecode.reducer.runtypes.CacheReducer;
+import at.jku.ssw.java.bytecode.reducer.runtypes.Reducer;
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
 import org.apache.commons.cli.ParseException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 public class JReduce {
     private static final Logger logger = LogManager.getLogger();
@@ -41,73 +55,71 @@ public class JReduce {
             // retrieve the running order
             final var stages = context.executionOrder();
 
-            // initialize the test suite
-            final var testSuite = contextFactory.getTestSuite();
-
             // init the cache
             final var cache = contextFactory.initCache();
 
-            // instantiate the temporary directory at the given location
-            TempDir.at(context.tempDir).use(tempDir ->
-
-                    // iterate all stages
-                    stages.forEach(Catch.consumer(module -> {
-                        final var reducer = module.getDeclaredConstructor().newInstance();
-
-                        logger.info("Initializing reducer " + module.getSimpleName());
-
-                        TempDir.at(NamingStrategy.ForInstance(reducer), tempDir).use(reducerDir ->
-                                cache.classes().forEach(Catch.consumer(fileName -> {
-                                    logger.info("Reducing file " + fileName);
-
-                                    // write all other files to the temporary directory
-                                    cache.write(reducerDir);
-
-                                    var bytecode = cache.bytecode(fileName);
-
-                                    /*
-                                    This call applies the given reduction
-                                    until the result is minimal.
-                                    The result then is the last valid bytecode.
-                                    */
-                                    bytecode = reducer.apply(bytecode, result -> {
-                                        /*
-                                        this method is called for every
-                                        intermediate result attempt,
-                                        where "result" holds a potentially
-                                        conflicting bytecode
-                                        */
-
-                                        var path = reducerDir.resolve(fileName);
-
-                                        try {
-                                            Files.write(path, result);
-                                        } catch (IOException e) {
-                                            logger.fatal(e);
-                                        }
-
-                                        // check bytecode validity
-                                        var isValid = testSuite.test(reducerDir);
-
-                                        if (isValid) {
-                                            /*
-                                            if the tests ran correctly, update
-                                            the cached bytecode and write the
-                                            intermediate result to the output
-                                            directory
-                                            */
-                                            cache.update(fileName, result)
-                                                    .write(context.outDir);
-                                        }
-
-                                        return isValid;
-                                    });
-
-                                    // place the (now valid) bytecode
-                                    // in the cache
-                                    cache.update(fileName, bytecode);
-                                })), context.keepTemp);
-                    })), context.keepTemp);
+            // initialize the oracle (test suite or in-process runs)
+            final var baseOracle = contextFactory.getOracle(cache);
+
+            // concurrent tests are run on a shared executor
+            final var executor = context.jobs > 1
+                    ? Executors.newFixedThreadPool(context.jobs)
+                    : null;
+
+            // provision the test directories once for the whole run
+            // (in-process oracles do not require any)
+            final var workspaces = WorkspacePool.provision(
+                    context.tempDir,
+                    baseOracle.requiresTestDirectory() ? context.jobs : 0,
+                    cache,
+                    baseOracle
+            );
+
+            // derive the timeout from the runtime of the original classes
+            final Oracle timedOracle = context.timeoutFactor > 0
+                    ? AdaptiveTimeout.calibrate(baseOracle, context.timeoutFactor, context.timeout, workspaces, cache)
+                    : baseOracle;
+
+            // reject candidates that fail the bytecode verification
+            // without running the tests (if enabled)
+            final var verifier = context.verify
+                    ? VerifyingOracle.of(timedOracle, cache)
+                    : null;
+
+            final Oracle oracle = verifier != null ? verifier : timedOracle;
+
+            // memoize the test outcomes of already evaluated configurations
+            // (keyed on the digest of the whole oracle chain, which
+            // includes the adapted timeout)
+            final var outcomes = new OutcomeCache(oracle);
+
+            try {
+                // apply the modules until none of them makes progress
+                new Scheduler(stages.collect(Collectors.toList())).run(cache, (reducer, fileName) -> {
+                    if (reducer instanceof CacheReducer)
+                        reduceClasses((CacheReducer) reducer, cache, oracle, outcomes, context, workspaces, executor);
+                    else if (executor == null)
+                        reduce(reducer, fileName, cache, oracle, outcomes, context, workspaces);
+                    else
+                        reduceConcurrently(reducer, fileName, cache, oracle, outcomes, context, workspaces, executor);
+                });
+
+                logger.info(
+                        "Test outcome cache: {} hits, {} misses - saved {} test runs",
+                        outcomes.hits(),
+                        outcomes.misses(),
+                        outcomes.hits()
+                );
+
+                if (verifier != null)
+                    logger.info("Verification rejected {} candidates without running the tests", verifier.rejected());
+            } finally {
+                if (executor != null)
+                    executor.shutdownNow();
+
+                oracle.close();
+                workspaces.close(context.keepTemp);
+            }
 
         } catch (ParseException e) {
             logger.fatal(e);
@@ -117,6 +129,215 @@ public class JReduce {
         } catch (DuplicateClassException e) {
             logger.fatal(e);
             System.exit(INVALID_CLASS_FILES);
+        } catch (ReflectiveOperationException e) {
+            logger.fatal("Could not instantiate the modules", e);
+        } catch (Exception e) {
+            logger.fatal("Reduction failed", e);
+        }
+    }
+
+    /**
+     * Applies the given reducer to the given class and tests
+     * each candidate in turn.
+     *
+     * @param reducer    The reducer to apply
+     * @param fileName   The file whose class is reduced
+     * @param cache      The bytecode cache containing the current classes
+     * @param oracle     The oracle that decides whether candidates are interesting
+     * @param outcomes   The cache of already evaluated configurations
+     * @param context    The current context
+     * @param workspaces The directories where the tests are run
+     * @throws Exception if the reduction fails
+     */
+    private static void reduce(Reducer reducer,
+                               String fileName,
+                               BytecodeCache cache,
+                               Oracle oracle,
+                               OutcomeCache outcomes,
+                               Context context,
+                               WorkspacePool workspaces) throws Exception {
+
+        var bytecode = cache.bytecode(fileName);
+
+        /*
+        This call applies the given reduction
+        until the result is minimal.
+        The result then is the last valid bytecode.
+        */
+        bytecode = reducer.apply(bytecode, result -> {
+            /*
+            this method is called for every
+            intermediate result attempt,
+            where "result" holds a potentially
+            conflicting bytecode
+            (that is not modified afterwards and therefore
+            is shared without copying it)
+            */
+            var candidate = Bytecode.wrap(result);
+            var classes   = cache.with(fileName, candidate);
+
+            // check bytecode validity (unless this class
+            // configuration was already tested)
+            var isValid = outcomes.test(BytecodeCache.digest(classes), () ->
+                    test(cache, oracle, workspaces, classes));
+
+            if (isValid) {
+                /*
+                if the tests ran correctly, update
+                the cached bytecode and write the
+                intermediate result to the output
+                directory
+                */
+                cache.update(fileName, candidate)
+                        .write(context.outDir);
+            }
+
+            return isValid;
+        });
+
+        // place the (now valid) bytecode
+        // in the cache
+        cache.update(fileName, Bytecode.wrap(bytecode));
+    }
+
+    /**
+     * Applies the given reducer to the given class and tests up to
+     * {@link Context#jobs} candidates at once.
+     * Every concurrent test is run in its own workspace.
+     *
+     * @param reducer    The reducer to apply
+     * @param fileName   The file whose class is reduced
+     * @param cache      The bytecode cache containing the current classes
+     * @param oracle     The oracle that decides whether candidates are interesting
+     * @param outcomes   The cache of already evaluated configurations
+     * @param context    The current context
+     * @param workspaces The directories where the tests are run
+     * @param executor   The executor that runs the tests
+     * @throws Exception if the reduction fails
+     */
+    private static void reduceConcurrently(Reducer reducer,
+                                           String fileName,
+                                           BytecodeCache cache,
+                                           Oracle oracle,
+                                           OutcomeCache outcomes,
+                                           Context context,
+                                           WorkspacePool workspaces,
+                                           ExecutorService executor) throws Exception {
+
+        // the size of the class in the output directory
+        var written = new AtomicInteger(cache.code(fileName).length());
+
+        var bytecode = reducer.apply(cache.bytecode(fileName), result -> {
+            var candidate = Bytecode.wrap(result);
+            var classes   = cache.with(fileName, candidate);
+
+            var isValid = outcomes.test(BytecodeCache.digest(classes), () ->
+                    test(cache, oracle, workspaces, classes));
+
+            // which interesting candidate of a batch is accepted is only
+            // decided once the batch is complete, therefore every interesting
+            // candidate that is smaller than the written one is written
+            // (such that an interrupted run keeps the progress on this class)
+            if (isValid) {
+                synchronized (written) {
+                    if (candidate.length() < written.get()) {
+                        written.set(candidate.length());
+                        cache.write(context.outDir, classes);
+                    }
+                }
+            }
+
+            return isValid;
+        }, executor, context.jobs);
+
+        // the cache is only updated after the reduction, as the
+        // candidates of concurrent tests are based on the original class
+        cache.update(fileName, Bytecode.wrap(bytecode))
+                .write(context.outDir);
+    }
+
+    /**
+     * Applies the given reducer to all classes at once and places
+     * the reduced configuration in the cache (where class files
+     * that are not required are removed).
+     *
+     * @param reducer    The reducer to apply
+     * @param cache      The bytecode cache containing the current classes
+     * @param oracle     The oracle that decides whether candidates are interesting
+     * @param outcomes   The cache of already evaluated configurations
+     * @param context    The current context
+     * @param workspaces The directories where the tests are run
+     * @param executor   The executor that runs the tests
+     *                   ({@code null} if the tests are run sequentially)
+     * @throws Exception if the reduction fails
+     */
+    private static void reduceClasses(CacheReducer reducer,
+                                      BytecodeCache cache,
+                                      Oracle oracle,
+                                      OutcomeCache outcomes,
+                                      Context context,
+                                      WorkspacePool workspaces,
+                                      ExecutorService executor) throws Exception {
+
+        var reduced = reducer.reduce(
+                cache.snapshot(),
+                cache.references(),
+                classes -> outcomes.test(BytecodeCache.digest(classes), () ->
+                        test(cache, oracle, workspaces, classes)),
+                executor,
+                context.jobs
+        );
+
+        for (var fileName : Set.copyOf(cache.classes()))
+            if (!reduced.containsKey(fileName))
+                cache.remove(fileName);
+
+        reduced.forEach((fileName, bytecode) -> {
+            if (!bytecode.equals(cache.code(fileName)))
+                cache.update(fileName, bytecode);
+        });
+
+        cache.write(context.outDir);
+    }
+
+    /**
+     * Tests the given class configuration in a leased workspace
+     * (if the oracle requires one).
+     * The configuration is a snapshot (see {@link BytecodeCache#with(String, Bytecode)}),
+     * such that the tested classes and the hash of the outcome match,
+     * even if the cache is updated while the test is still running
+     * (e.g. because it was cancelled).
+     *
+     * @param cache      The bytecode cache containing the current classes
+     * @param oracle     The oracle that decides whether candidates are interesting
+     * @param workspaces The directories where the tests are run
+     * @param classes    Maps the file names to the bytecodes of all classes
+     *                   (including the candidate)
+     * @return {@code true} if the candidate is interesting
+     */
+    private static boolean test(BytecodeCache cache,
+                                Oracle oracle,
+                                WorkspacePool workspaces,
+                                Map<String, Bytecode> classes) {
+
+        if (!oracle.requiresTestDirectory())
+            return oracle.test(null, classes);
+
+        Path workspace = null;
+
+        try {
+            workspace = workspaces.lease();
+
+            cache.write(workspace, classes);
+
+            return oracle.test(workspace, classes);
+        } catch (InterruptedException e) {
+            // test was cancelled - the result is irrelevant
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            if (workspace != null)
+                workspaces.release(workspace);
         }
     }
 
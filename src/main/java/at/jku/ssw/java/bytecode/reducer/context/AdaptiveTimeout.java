@@ -0,0 +1,263 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import at.jku.ssw.java.bytecode.reducer.utils.HashUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Oracle that derives the timeout of another oracle from the runtime
+ * of the interesting test runs.
+ * The timeout is first calibrated by timing the tests on the original
+ * classes and is then set to a multiple of the 99th percentile of the
+ * most recent interesting runs. As the program shrinks, the timeout is
+ * tightened, but it is never relaxed again.
+ * <p>
+ * The timeout is only adapted in powers of two and is part of the
+ * oracle's digest, such that cached outcomes are not reused once
+ * the timeout was tightened.
+ * Only the runtimes of runs that did not overlap with other runs
+ * are recorded, as concurrent runs (see {@code --jobs}) slow each
+ * other down.
+ */
+public class AdaptiveTimeout implements Oracle {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The number of timed runs on the original classes.
+     */
+    public static final int BASELINE_RUNS = 5;
+
+    /**
+     * The number of recent interesting runs that the timeout is derived from.
+     */
+    private static final int WINDOW = 20;
+
+    /**
+     * The lower bound for the timeout in milliseconds.
+     */
+    private static final long MIN_TIMEOUT = 100;
+
+    /**
+     * The oracle whose timeout is adapted.
+     */
+    private final Oracle oracle;
+
+    /**
+     * The multiple of the observed runtime that is used as timeout.
+     */
+    private final double factor;
+
+    /**
+     * The runtimes of the most recent interesting runs in milliseconds.
+     */
+    private final Deque<Long> runtimes = new ArrayDeque<>(WINDOW);
+
+    /**
+     * The number of runs that are currently in progress.
+     */
+    private final AtomicInteger running = new AtomicInteger();
+
+    /**
+     * The number of runs that were started.
+     */
+    private final AtomicLong started = new AtomicLong();
+
+    /**
+     * The current timeout in milliseconds.
+     */
+    private long timeout;
+
+    private AdaptiveTimeout(Oracle oracle, double factor, long timeout) {
+        this.oracle = oracle;
+        this.factor = factor;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Times the given oracle on the original classes and wraps it
+     * such that its timeout is adapted to the observed runtimes.
+     * If the original classes are not interesting, the configured
+     * timeout is kept.
+     *
+     * @param oracle     The oracle whose timeout is adapted
+     * @param factor     The multiple of the observed runtime that is
+     *                   used as timeout
+     * @param timeout    The configured timeout in milliseconds
+     *                   (also the upper bound for the adapted timeout)
+     * @param workspaces The directories where the tests are run
+     * @param cache      The cache containing the original classes
+     * @return the wrapped oracle
+     */
+    public static AdaptiveTimeout calibrate(Oracle oracle,
+                                            double factor,
+                                            long timeout,
+                                            WorkspacePool workspaces,
+                                            BytecodeCache cache) {
+
+        var adaptive = new AdaptiveTimeout(oracle, factor, timeout);
+        var classes  = cache.snapshot();
+
+        // the first run is not timed, as it includes warm-up costs
+        // (e.g. the startup of worker JVMs)
+        for (int i = 0; i <= BASELINE_RUNS; i++) {
+            Path workspace = null;
+
+            try {
+                if (oracle.requiresTestDirectory()) {
+                    workspace = workspaces.lease();
+                    cache.write(workspace, classes);
+                }
+
+                var isValid = i == 0
+                        ? oracle.test(workspace, classes)
+                        : adaptive.test(workspace, classes);
+
+                if (!isValid) {
+                    logger.warn("The original classes are not interesting - keeping the timeout of {} ms", timeout);
+                    return adaptive;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return adaptive;
+            } finally {
+                if (workspace != null)
+                    workspaces.release(workspace);
+            }
+        }
+
+        logger.info("Calibrated the timeout to {} ms", adaptive.timeout());
+
+        return adaptive;
+    }
+
+    /**
+     * Runs the test and records its runtime if the configuration
+     * is interesting and no other run was in progress in the meantime.
+     *
+     * @see Oracle#test(Path, Map)
+     */
+    @Override
+    public boolean test(Path testDir, Map<String, Bytecode> classes) {
+        var alone = running.incrementAndGet() == 1;
+        var run   = started.incrementAndGet();
+        var start = System.nanoTime();
+
+        try {
+            var isValid = oracle.test(testDir, classes);
+            var time    = System.nanoTime() - start;
+
+            // other runs that started in the meantime are still running
+            // or have already finished
+            if (isValid && alone && started.get() == run)
+                record(TimeUnit.NANOSECONDS.toMillis(time));
+
+            return isValid;
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the current timeout.
+     *
+     * @return the timeout in milliseconds
+     */
+    public synchronized long timeout() {
+        return timeout;
+    }
+
+    /**
+     * Records the runtime of an interesting run and tightens the timeout
+     * once enough runs were observed.
+     *
+     * @param runtime The runtime in milliseconds
+     */
+    private synchronized void record(long runtime) {
+        if (runtimes.size() == WINDOW)
+            runtimes.removeFirst();
+
+        runtimes.addLast(runtime);
+
+        if (runtimes.size() < BASELINE_RUNS)
+            return;
+
+        var sorted = runtimes.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+
+        // nearest-rank percentile
+        var p99     = sorted[(int) Math.ceil(0.99 * sorted.length) - 1];
+        var adapted = ceilPowerOfTwo(Math.max(MIN_TIMEOUT, (long) Math.ceil(factor * p99)));
+
+        if (adapted < timeout) {
+            logger.debug("Tightening the timeout from {} ms to {} ms", timeout, adapted);
+            timeout = adapted;
+            oracle.setTimeout(adapted);
+        }
+    }
+
+    /**
+     * Rounds the given timeout up to the next power of two, such that
+     * the timeout only changes in a few steps.
+     *
+     * @param timeout The timeout in milliseconds
+     * @return the rounded timeout in milliseconds
+     */
+    private static long ceilPowerOfTwo(long timeout) {
+        return Long.highestOneBit(timeout) == timeout
+                ? timeout
+                : Long.highestOneBit(timeout) << 1;
+    }
+
+    /**
+     * Sets the upper bound for the adapted timeout.
+     *
+     * @param timeout The timeout in milliseconds
+     */
+    @Override
+    public synchronized void setTimeout(long timeout) {
+        this.timeout = timeout;
+        oracle.setTimeout(timeout);
+    }
+
+    /**
+     * Returns the hash of the oracle and the current timeout, as
+     * tightening the timeout may change the outcome of a configuration.
+     *
+     * @return the hash value
+     */
+    @Override
+    public byte[] digest() {
+        return HashUtils.hash(
+                oracle.digest(),
+                ByteBuffer.allocate(Long.BYTES).putLong(timeout()).array()
+        );
+    }
+
+    @Override
+    public boolean requiresTestDirectory() {
+        return oracle.requiresTestDirectory();
+    }
+
+    @Override
+    public void provision(Path testDir) throws IOException {
+        oracle.provision(testDir);
+    }
+
+    @Override
+    public void close() {
+        oracle.close();
+    }
+}
@@ -1,16 +1,28 @@
 package at.jku.ssw.java.bytecode.reducer.context;
 
 import at.jku.ssw.java.bytecode.reducer.errors.DuplicateClassException;
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import at.jku.ssw.java.bytecode.reducer.utils.HashUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Caches the analyzed classes and their corresponding current bytecode.
+ * The bytecodes are immutable {@link Bytecode} handles that are shared
+ * with the snapshots and written without copying.
+ * <p>
+ * The configuration itself is replaced (copy-on-write) on every update,
+ * such that tests that are still running (e.g. after they were cancelled)
+ * always read a consistent configuration.
  */
 public class BytecodeCache {
 
@@ -18,8 +30,21 @@ public class BytecodeCache {
 
     /**
      * Maps the file names to their current bytecode.
+     * The map is unmodifiable and replaced on every update.
      */
-    private final Map<String, byte[]> bytecodes;
+    private volatile Map<String, Bytecode> bytecodes;
+
+    /**
+     * Maps the directories that the cache was written to onto the
+     * bytecodes that each of their files currently holds.
+     * Only the changed files are written on subsequent writes.
+     */
+    private final Map<Path, Map<String, Bytecode>> synced;
+
+    /**
+     * The references between the cached classes.
+     */
+    private final ReferenceIndex references;
 
     /**
      * Initialize a cache that stores the bytecodes of the given class files.
@@ -31,7 +56,7 @@ public class BytecodeCache {
     BytecodeCache(Collection<Path> files)
             throws IOException, DuplicateClassException {
 
-        final var bytecodes = new HashMap<String, byte[]>();
+        final var bytecodes = new HashMap<String, Bytecode>();
 
         for (var file : files) {
             var className = file.getFileName().toString();
@@ -39,10 +64,14 @@ public class BytecodeCache {
             if (bytecodes.containsKey(className))
                 throw new DuplicateClassException(className);
 
-            bytecodes.put(className, Files.readAllBytes(file));
+            bytecodes.put(className, Bytecode.wrap(Files.readAllBytes(file)));
         }
 
-        this.bytecodes = bytecodes;
+        this.bytecodes = Collections.unmodifiableMap(bytecodes);
+        this.synced = new ConcurrentHashMap<>();
+        this.references = new ReferenceIndex();
+
+        bytecodes.forEach(references::update);
     }
 
     /**
@@ -52,44 +81,251 @@ public class BytecodeCache {
      * @param newBytecode The new bytecode
      * @return the updated cache instance
      */
-    public final BytecodeCache update(String className, byte[] newBytecode) {
-        bytecodes.put(className, newBytecode);
+    public final synchronized BytecodeCache update(String className, Bytecode newBytecode) {
+        var classes = new HashMap<>(bytecodes);
+        classes.put(className, newBytecode);
+
+        bytecodes = Collections.unmodifiableMap(classes);
+
+        references.update(className, newBytecode);
+
+        return this;
+    }
+
+    /**
+     * Removes the given file from the cache. The file is deleted from
+     * the directories that the cache is written to on their next write.
+     *
+     * @param className The file that is removed
+     * @return the updated cache instance
+     */
+    public final synchronized BytecodeCache remove(String className) {
+        var classes = new HashMap<>(bytecodes);
+        classes.remove(className);
+
+        bytecodes = Collections.unmodifiableMap(classes);
+
+        references.remove(className);
 
         return this;
     }
 
     /**
      * Writes the current bytecode to a corresponding file in the
-     * given directory.
+     * given directory. Files that already hold the current bytecode
+     * (because they were written by this cache before) are skipped
+     * and files of removed classes are deleted.
      *
      * @param dest The target directory
      * @return the current cache instance
      */
     public final BytecodeCache write(Path dest) {
-        bytecodes.forEach((file, bytecode) -> {
-            var path = dest.resolve(file);
+        return write(dest, bytecodes);
+    }
+
+    /**
+     * Writes the given class configuration (e.g. a snapshot that contains
+     * a candidate) to the given directory. Only the files that differ
+     * from the previous write to the directory are written or deleted.
+     * The cache itself is not modified, but subsequent writes to the
+     * directory restore the cached bytecodes.
+     *
+     * @param dest    The target directory
+     * @param classes Maps the file names to the bytecodes of all classes
+     * @return the current cache instance
+     */
+    public final BytecodeCache write(Path dest, Map<String, Bytecode> classes) {
+        var state = synced.computeIfAbsent(dest, d -> new HashMap<>());
 
-            try {
-                Files.write(path, bytecode);
-            } catch (IOException e) {
-                logger.fatal(e);
+        synchronized (state) {
+            var written = 0;
+
+            // the directory is created on the first write (as the
+            // program oracles, unlike test scripts, do not create it)
+            if (state.isEmpty())
+                createDirectory(dest);
+
+            for (var file : new ArrayList<>(state.keySet()))
+                if (!classes.containsKey(file))
+                    delete(dest, file, state);
+
+            for (var entry : classes.entrySet()) {
+                if (entry.getValue().equals(state.get(entry.getKey())))
+                    continue;
+
+                write(dest, entry.getKey(), entry.getValue(), state);
+                written++;
             }
-        });
+
+            logger.debug("Wrote {} of {} classes to {}", written, classes.size(), dest);
+        }
 
         return this;
     }
 
     /**
-     * Retrieves the bytecode of the given file.
+     * Forgets which bytecodes were written to the given directory
+     * (e.g. because it is deleted), such that the next write
+     * writes all files.
+     *
+     * @param dest The target directory
+     */
+    public final void discard(Path dest) {
+        synced.remove(dest);
+    }
+
+    /**
+     * Writes the given bytecode to the file in the given directory
+     * and records it.
+     *
+     * @param dest     The target directory
+     * @param file     The file name
+     * @param bytecode The bytecode to write
+     * @param state    The bytecodes of the files in the directory
+     */
+    private static void write(Path dest,
+                              String file,
+                              Bytecode bytecode,
+                              Map<String, Bytecode> state) {
+        try (var channel = FileChannel.open(
+                dest.resolve(file),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+
+            var buffer = bytecode.buffer();
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+
+            state.put(file, bytecode);
+        } catch (IOException e) {
+            // the file's content is unknown
+            state.remove(file);
+            logger.fatal(e);
+        }
+    }
+
+    /**
+     * Creates the given directory (and its parents) if it does not exist.
+     *
+     * @param dest The target directory
+     */
+    private static void createDirectory(Path dest) {
+        try {
+            Files.createDirectories(dest);
+        } catch (IOException e) {
+            logger.fatal(e);
+        }
+    }
+
+    /**
+     * Deletes the file in the given directory and forgets its bytecode.
+     *
+     * @param dest  The target directory
+     * @param file  The file name
+     * @param state The bytecodes of the files in the directory
+     */
+    private static void delete(Path dest, String file, Map<String, Bytecode> state) {
+        try {
+            Files.deleteIfExists(dest.resolve(file));
+            state.remove(file);
+        } catch (IOException e) {
+            logger.fatal(e);
+        }
+    }
+
+    /**
+     * Retrieves a copy of the bytecode of the given file.
      *
      * @param className The file who's bytecode is cached
-     * @return the bytecode of the corresponding file or null if the file
-     * was not cached
+     * @return the bytecode of the corresponding file
      */
     public final byte[] bytecode(String className) {
-        var bytecode = bytecodes.get(className);
+        return bytecodes.get(className).toArray();
+    }
+
+    /**
+     * Retrieves the bytecode of the given file without copying it.
+     *
+     * @param className The file who's bytecode is cached
+     * @return the bytecode handle of the corresponding file or {@code null}
+     * if the file was not cached
+     */
+    public final Bytecode code(String className) {
+        return bytecodes.get(className);
+    }
+
+    /**
+     * Returns a snapshot of the class configuration that results from
+     * replacing the bytecode of the given file with the given candidate.
+     *
+     * @param className The file whose bytecode is replaced
+     * @param candidate The candidate bytecode
+     * @return an unmodifiable map of file names to bytecodes
+     */
+    public final Map<String, Bytecode> with(String className, Bytecode candidate) {
+        var classes = new HashMap<>(bytecodes);
+
+        classes.put(className, candidate);
+
+        return Collections.unmodifiableMap(classes);
+    }
+
+    /**
+     * Returns a snapshot of the current class configuration.
+     *
+     * @return an unmodifiable map of file names to bytecodes
+     */
+    public final Map<String, Bytecode> snapshot() {
+        return bytecodes;
+    }
+
+    /**
+     * Computes the hash of the current class configuration.
+     *
+     * @return the hash of the names and contents of all cached classes
+     */
+    public final byte[] digest() {
+        return digest(bytecodes);
+    }
+
+    /**
+     * Computes the hash of the given class configuration
+     * (e.g. a snapshot that is tested).
+     *
+     * @param classes Maps the file names to the bytecodes of all classes
+     * @return the hash of the names and contents of the classes
+     */
+    public static byte[] digest(Map<String, Bytecode> classes) {
+        var digest = HashUtils.digest();
+
+        classes.keySet()
+                .stream()
+                .sorted()
+                .forEach(c -> {
+                    digest.update(c.getBytes(StandardCharsets.UTF_8));
+                    digest.update(classes.get(c).hash());
+                });
+
+        return digest.digest();
+    }
+
+    /**
+     * Returns the index of the references between the current classes.
+     *
+     * @return the reference index (that is kept up to date by the cache)
+     */
+    public final ReferenceIndex references() {
+        return references;
+    }
 
-        return Arrays.copyOf(bytecode, bytecode.length);
+    /**
+     * Returns the total size of the current bytecodes.
+     *
+     * @return the sum of the bytecode lengths in bytes
+     */
+    public final long size() {
+        return bytecodes.values().stream().mapToLong(Bytecode::length).sum();
     }
 
     /**
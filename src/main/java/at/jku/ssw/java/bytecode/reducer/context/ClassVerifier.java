@@ -0,0 +1,242 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.analysis.Analyzer;
+import org.objectweb.asm.tree.analysis.AnalyzerException;
+import org.objectweb.asm.tree.analysis.SimpleVerifier;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.objectweb.asm.Opcodes.ASM6;
+
+/**
+ * Verifies the methods of a class against the hierarchy of a class
+ * configuration (and the platform classes) without loading any class.
+ * The verification is lenient: types that are neither part of the
+ * configuration nor platform classes are assumed to be assignable,
+ * such that only candidates that certainly fail the verification
+ * are reported.
+ */
+final class ClassVerifier {
+
+    /**
+     * The headers of the platform classes that were already resolved.
+     */
+    private static final Map<String, Optional<Header>> platform = new ConcurrentHashMap<>();
+
+    /**
+     * Maps the internal names of the classes in the configuration
+     * to their headers.
+     */
+    private final Map<String, Header> headers;
+
+    private ClassVerifier(Map<String, Header> headers) {
+        this.headers = headers;
+    }
+
+    /**
+     * Creates a verifier for the given class configuration.
+     *
+     * @param classes The bytecodes of all classes
+     * @return the verifier
+     */
+    static ClassVerifier of(Collection<Bytecode> classes) {
+        var headers = new HashMap<String, Header>();
+
+        for (var bytecode : classes) {
+            try {
+                var reader = new ClassReader(bytecode.toArray());
+                headers.put(reader.getClassName(), new Header(
+                        reader.getSuperName(),
+                        reader.getInterfaces(),
+                        (reader.getAccess() & Opcodes.ACC_INTERFACE) != 0
+                ));
+            } catch (RuntimeException e) {
+                // malformed classes are reported when they are verified
+            }
+        }
+
+        return new ClassVerifier(headers);
+    }
+
+    /**
+     * Verifies all methods of the given class.
+     *
+     * @param bytecode The bytecode of the class
+     * @return the reason why the class fails the verification
+     * or nothing if no error was found
+     */
+    Optional<String> verify(Bytecode bytecode) {
+        var node = new ClassNode();
+
+        try {
+            new ClassReader(bytecode.toArray())
+                    .accept(node, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        } catch (RuntimeException e) {
+            return Optional.of("Malformed class: " + e);
+        }
+
+        var type = Type.getObjectType(node.name);
+        var superType = node.superName == null ? null : Type.getObjectType(node.superName);
+        var interfaces = node.interfaces.stream()
+                .map(Type::getObjectType)
+                .collect(Collectors.toList());
+        var isInterface = (node.access & Opcodes.ACC_INTERFACE) != 0;
+
+        for (var method : node.methods) {
+            var analyzer = new Analyzer<>(
+                    new HierarchyVerifier(type, superType, interfaces, isInterface)
+            );
+
+            try {
+                analyzer.analyze(node.name, method);
+            } catch (AnalyzerException e) {
+                return Optional.of(node.name + "." + method.name + method.desc + ": " + e.getMessage());
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Looks up the header of the class with the given internal name.
+     *
+     * @param name The internal name of the class
+     * @return the header or {@code null} if the class is unknown
+     */
+    private Header lookup(String name) {
+        var header = headers.get(name);
+
+        if (header != null)
+            return header;
+
+        return platform.computeIfAbsent(name, Header::platform).orElse(null);
+    }
+
+    /**
+     * The parts of a class that determine its place in the hierarchy.
+     */
+    private static final class Header {
+        final String superName;
+        final String[] interfaces;
+        final boolean isInterface;
+
+        Header(String superName, String[] interfaces, boolean isInterface) {
+            this.superName = superName;
+            this.interfaces = interfaces;
+            this.isInterface = isInterface;
+        }
+
+        /**
+         * Resolves the header of the given platform class
+         * (without initializing it).
+         */
+        static Optional<Header> platform(String name) {
+            try {
+                var clazz = Class.forName(
+                        name.replace('/', '.'),
+                        false,
+                        ClassLoader.getPlatformClassLoader()
+                );
+
+                return Optional.of(new Header(
+                        clazz.getSuperclass() == null ? null : Type.getInternalName(clazz.getSuperclass()),
+                        Arrays.stream(clazz.getInterfaces())
+                                .map(Type::getInternalName)
+                                .toArray(String[]::new),
+                        clazz.isInterface()
+                ));
+            } catch (ClassNotFoundException | LinkageError e) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * Verifier that resolves the types via the headers of the
+     * configuration instead of loading the classes.
+     */
+    private final class HierarchyVerifier extends SimpleVerifier {
+
+        HierarchyVerifier(Type type, Type superType, List<Type> interfaces, boolean isInterface) {
+            super(ASM6, type, superType, interfaces, isInterface);
+        }
+
+        @Override
+        protected boolean isInterface(Type type) {
+            var header = lookup(type.getInternalName());
+
+            return header != null && header.isInterface;
+        }
+
+        @Override
+        protected Type getSuperClass(Type type) {
+            var header = lookup(type.getInternalName());
+
+            return header == null || header.superName == null
+                    ? null
+                    : Type.getObjectType(header.superName);
+        }
+
+        @Override
+        protected boolean isAssignableFrom(Type type, Type other) {
+            if (type.equals(other))
+                return true;
+
+            if (type.getSort() == Type.ARRAY) {
+                if (other.getSort() != Type.ARRAY)
+                    return false;
+
+                var element = type.getElementType();
+                var otherElement = other.getElementType();
+
+                // primitive arrays are only assignable to identical types
+                if (type.getDimensions() == other.getDimensions()
+                        && (element.getSort() != Type.OBJECT || otherElement.getSort() != Type.OBJECT))
+                    return false;
+
+                // compare the component types
+                return isAssignableFrom(
+                        Type.getType(type.getDescriptor().substring(1)),
+                        Type.getType(other.getDescriptor().substring(1))
+                );
+            }
+
+            if (type.getSort() != Type.OBJECT || other.getSort() != Type.OBJECT && other.getSort() != Type.ARRAY)
+                return false;
+
+            // the verifier treats interfaces like java.lang.Object
+            if (type.getInternalName().equals("java/lang/Object") || isInterface(type))
+                return true;
+
+            if (other.getSort() == Type.ARRAY)
+                return false;
+
+            for (var name = other.getInternalName(); name != null; ) {
+                if (name.equals(type.getInternalName()))
+                    return true;
+
+                var header = lookup(name);
+
+                // the hierarchy of unknown types cannot be checked
+                if (header == null)
+                    return true;
+
+                name = header.superName;
+            }
+
+            return false;
+        }
+    }
+}
@@ -28,6 +28,28 @@ public class Context {
      */
     public final boolean keepTemp;
 
+    /**
+     * The number of candidates that are tested concurrently.
+     */
+    public final int jobs;
+
+    /**
+     * The timeout for interestingness test runs in milliseconds.
+     */
+    public final long timeout;
+
+    /**
+     * The multiple of the observed test runtime that is used as timeout
+     * ({@code 0} if the timeout is not adapted).
+     */
+    public final double timeoutFactor;
+
+    /**
+     * Flag that indicates that candidates are verified in-process
+     * before they are tested.
+     */
+    public final boolean verify;
+
     /**
      * The available transformation modules in this run.
      */
@@ -36,11 +58,19 @@ public class Context {
     Context(Path outDir,
             Path tempDir,
             List<Class<? extends Reducer>> modules,
-            boolean keepTemp) {
+            boolean keepTemp,
+            int jobs,
+            long timeout,
+            double timeoutFactor,
+            boolean verify) {
 
         this.outDir = outDir;
         this.tempDir = tempDir;
         this.keepTemp = keepTemp;
+        this.jobs = jobs;
+        this.timeout = timeout;
+        this.timeoutFactor = timeoutFactor;
+        this.verify = verify;
         this.modules = modules;
     }
 
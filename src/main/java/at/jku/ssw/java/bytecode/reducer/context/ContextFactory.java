@@ -1,15 +1,22 @@
 package at.jku.ssw.java.bytecode.reducer.context;
 
 import at.jku.ssw.java.bytecode.reducer.errors.DuplicateClassException;
+import at.jku.ssw.java.bytecode.reducer.io.InProcessRunner;
+import at.jku.ssw.java.bytecode.reducer.io.OutputMatcher;
+import at.jku.ssw.java.bytecode.reducer.io.TempDir;
+import at.jku.ssw.java.bytecode.reducer.io.WorkerPool;
 import at.jku.ssw.java.bytecode.reducer.utils.FileUtils;
 import at.jku.ssw.java.bytecode.reducer.utils.OSUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.Arrays;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -39,6 +46,11 @@ public class ContextFactory {
      */
     public static final long DEFAULT_TIMEOUT = 10;
 
+    /**
+     * The default number of concurrently tested candidates.
+     */
+    public static final int DEFAULT_JOBS = 1;
+
     // endregion
     //-------------------------------------------------------------------------
     // region Properties
@@ -92,15 +104,76 @@ public class ContextFactory {
     private final PathMatcher classMatcher;
 
     /**
-     * Timeout for interestingness test runs.
+     * Timeout for interestingness test runs in milliseconds.
      */
-    private final long timeout;
+    private long timeout;
+
+    /**
+     * The multiple of the observed test runtime that is used as timeout
+     * ({@code 0} if the timeout is not adapted).
+     */
+    private double timeoutFactor = 0;
 
     /**
      * Possible filters for individual reducers.
      */
     private final String[] filters;
 
+    /**
+     * Number of candidates that are tested concurrently.
+     */
+    private int jobs = DEFAULT_JOBS;
+
+    /**
+     * The binary name of the main class that is run in-process
+     * instead of the interestingness tests
+     * ({@code null} if the test scripts are used).
+     */
+    private String mainClass;
+
+    /**
+     * Regular expression that the output of in-process runs has to contain.
+     */
+    private String outputPattern;
+
+    /**
+     * Relative or absolute path to a file holding the exact output
+     * that in-process runs have to produce.
+     */
+    private String expectedOutput;
+
+    /**
+     * Regular expression that must not occur in the output of test runs.
+     */
+    private String forbiddenPattern;
+
+    /**
+     * Run the main class in worker JVMs instead of the reducer's JVM.
+     */
+    private boolean fork = false;
+
+    /**
+     * The number of runs after which a worker JVM is replaced.
+     */
+    private int forkRuns = WorkerPool.DEFAULT_RUNS;
+
+    /**
+     * Place the temporary directory on a memory-backed file system
+     * (if one is available).
+     */
+    private boolean memoryTemp = false;
+
+    /**
+     * Run the interestingness tests of a candidate concurrently.
+     */
+    private boolean concurrentTests = false;
+
+    /**
+     * Verify candidates in-process and reject those that fail
+     * the verification without running the tests.
+     */
+    private boolean verify = false;
+
     // endregion
     //-------------------------------------------------------------------------
     // region Initialization
@@ -120,7 +193,7 @@ public class ContextFactory {
         this.outDir = outDir == null ? DEFAULT_OUT : outDir;
         this.tempDir = tempDir == null ? DEFAULT_TEMP : tempDir;
         this.keepTemp = keepTemp;
-        this.timeout = timeout == -1 ? DEFAULT_TIMEOUT : timeout;
+        this.timeout = TimeUnit.SECONDS.toMillis(timeout == -1 ? DEFAULT_TIMEOUT : timeout);
         this.filters = filters;
 
         String scriptPattern = OSUtils.isWindows() ? "glob:*.bat" : "glob:*.sh";
@@ -128,6 +201,160 @@ public class ContextFactory {
         classMatcher = FileSystems.getDefault().getPathMatcher("glob:*.class");
     }
 
+    /**
+     * Sets the timeout for interestingness test runs with
+     * millisecond resolution.
+     *
+     * @param timeout The timeout in milliseconds ({@code -1} keeps the
+     *                timeout that was passed to the constructor)
+     * @return this factory instance
+     */
+    public ContextFactory withTimeoutMillis(long timeout) {
+        if (timeout != -1)
+            this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Enables adaptive timeouts. The tests are timed on the original
+     * classes and the timeout is set to the given multiple of the
+     * observed runtime (and tightened as the program shrinks).
+     *
+     * @param timeoutFactor The multiple of the observed runtime
+     *                      ({@code 0} disables adaptive timeouts)
+     * @return this factory instance
+     */
+    public ContextFactory withAdaptiveTimeout(double timeoutFactor) {
+        this.timeoutFactor = timeoutFactor;
+        return this;
+    }
+
+    /**
+     * Sets the number of candidates that are tested concurrently
+     * (each in an isolated test directory).
+     *
+     * @param jobs The number of concurrent tests ({@code -1} selects
+     *             the default)
+     * @return this factory instance
+     */
+    public ContextFactory withJobs(int jobs) {
+        this.jobs = jobs == -1 ? DEFAULT_JOBS : jobs;
+        return this;
+    }
+
+    /**
+     * Sets the main class that is run in-process to decide whether
+     * a candidate is interesting (instead of running the test scripts).
+     *
+     * @param mainClass The binary name of the main class
+     *                  ({@code null} to use the test scripts)
+     * @return this factory instance
+     */
+    public ContextFactory withMainClass(String mainClass) {
+        this.mainClass = mainClass;
+        return this;
+    }
+
+    /**
+     * Sets the regular expression that the output of in-process runs
+     * has to contain.
+     *
+     * @param outputPattern The regular expression
+     * @return this factory instance
+     */
+    public ContextFactory withOutputPattern(String outputPattern) {
+        this.outputPattern = outputPattern;
+        return this;
+    }
+
+    /**
+     * Sets the file that holds the exact output that in-process runs
+     * have to produce.
+     *
+     * @param expectedOutput Relative or absolute path to the file
+     * @return this factory instance
+     */
+    public ContextFactory withExpectedOutput(String expectedOutput) {
+        this.expectedOutput = expectedOutput;
+        return this;
+    }
+
+    /**
+     * Sets the regular expression that must not occur in the output
+     * of test runs.
+     *
+     * @param forbiddenPattern The regular expression
+     * @return this factory instance
+     */
+    public ContextFactory withForbiddenPattern(String forbiddenPattern) {
+        this.forbiddenPattern = forbiddenPattern;
+        return this;
+    }
+
+    /**
+     * Sets whether the main class is run in separate worker JVMs
+     * (which are reused for multiple runs) instead of the reducer's JVM.
+     *
+     * @param fork {@code true} to use worker JVMs
+     * @return this factory instance
+     */
+    public ContextFactory withFork(boolean fork) {
+        this.fork = fork;
+        return this;
+    }
+
+    /**
+     * Sets the number of runs after which a worker JVM is replaced.
+     *
+     * @param forkRuns The number of runs ({@code -1} selects the default)
+     * @return this factory instance
+     */
+    public ContextFactory withForkRuns(int forkRuns) {
+        this.forkRuns = forkRuns == -1 ? WorkerPool.DEFAULT_RUNS : forkRuns;
+        return this;
+    }
+
+    /**
+     * Sets whether the temporary directory is placed on a memory-backed
+     * file system (e.g. {@code /dev/shm}) if one is available.
+     *
+     * @param memoryTemp {@code true} to use a memory-backed file system
+     * @return this factory instance
+     */
+    public ContextFactory withMemoryTemp(boolean memoryTemp) {
+        this.memoryTemp = memoryTemp;
+        return this;
+    }
+
+    /**
+     * Sets whether the interestingness tests of a candidate are run
+     * concurrently (the remaining tests are cancelled as soon as one fails)
+     * instead of one after another.
+     * Concurrent tests are run in separate working directories that each
+     * hold a copy of the classes, such that they can write files with
+     * the same names (e.g. their output) without interfering.
+     *
+     * @param concurrentTests {@code true} to run the tests concurrently
+     * @return this factory instance
+     */
+    public ContextFactory withConcurrentTests(boolean concurrentTests) {
+        this.concurrentTests = concurrentTests;
+        return this;
+    }
+
+    /**
+     * Sets whether candidates are verified in-process before they are
+     * tested, such that candidates that obviously fail the bytecode
+     * verification are rejected without running the tests.
+     *
+     * @param verify {@code true} to verify the candidates
+     * @return this factory instance
+     */
+    public ContextFactory withVerification(boolean verify) {
+        this.verify = verify;
+        return this;
+    }
+
     // endregion
     //-------------------------------------------------------------------------
     // region Overridden methods
@@ -142,6 +369,17 @@ public class ContextFactory {
 
         if (keepTemp != that.keepTemp) return false;
         if (timeout != that.timeout) return false;
+        if (Double.compare(timeoutFactor, that.timeoutFactor) != 0) return false;
+        if (jobs != that.jobs) return false;
+        if (!Objects.equals(mainClass, that.mainClass)) return false;
+        if (!Objects.equals(outputPattern, that.outputPattern)) return false;
+        if (!Objects.equals(expectedOutput, that.expectedOutput)) return false;
+        if (!Objects.equals(forbiddenPattern, that.forbiddenPattern)) return false;
+        if (fork != that.fork) return false;
+        if (forkRuns != that.forkRuns) return false;
+        if (memoryTemp != that.memoryTemp) return false;
+        if (concurrentTests != that.concurrentTests) return false;
+        if (verify != that.verify) return false;
         if (!Arrays.equals(classFiles, that.classFiles)) return false;
         if (!Arrays.equals(iTests, that.iTests)) return false;
         if (!workingDir.equals(that.workingDir)) return false;
@@ -159,7 +397,18 @@ public class ContextFactory {
         result = 31 * result + tempDir.hashCode();
         result = 31 * result + (keepTemp ? 1 : 0);
         result = 31 * result + (int) (timeout ^ (timeout >>> 32));
+        result = 31 * result + Double.hashCode(timeoutFactor);
         result = 31 * result + Arrays.hashCode(filters);
+        result = 31 * result + jobs;
+        result = 31 * result + Objects.hashCode(mainClass);
+        result = 31 * result + Objects.hashCode(outputPattern);
+        result = 31 * result + Objects.hashCode(expectedOutput);
+        result = 31 * result + Objects.hashCode(forbiddenPattern);
+        result = 31 * result + (fork ? 1 : 0);
+        result = 31 * result + forkRuns;
+        result = 31 * result + (memoryTemp ? 1 : 0);
+        result = 31 * result + (concurrentTests ? 1 : 0);
+        result = 31 * result + (verify ? 1 : 0);
         return result;
     }
 
@@ -172,6 +421,18 @@ public class ContextFactory {
                 ", outDir='" + outDir + '\'' +
                 ", tempDir='" + tempDir + '\'' +
                 ", filters='" + Arrays.toString(filters) + '\'' +
+                ", timeout=" + timeout +
+                ", timeoutFactor=" + timeoutFactor +
+                ", jobs=" + jobs +
+                ", mainClass='" + mainClass + '\'' +
+                ", outputPattern='" + outputPattern + '\'' +
+                ", expectedOutput='" + expectedOutput + '\'' +
+                ", forbiddenPattern='" + forbiddenPattern + '\'' +
+                ", fork=" + fork +
+                ", forkRuns=" + forkRuns +
+                ", memoryTemp=" + memoryTemp +
+                ", concurrentTests=" + concurrentTests +
+                ", verify=" + verify +
                 '}';
     }
 
@@ -191,6 +452,9 @@ public class ContextFactory {
         Path outDir     = workingDir.resolve(this.outDir).toAbsolutePath();
         Path tempDir    = workingDir.resolve(this.tempDir).toAbsolutePath();
 
+        if (memoryTemp)
+            tempDir = TempDir.inMemory(tempDir);
+
         var noFilters = this.filters.length == 0;
 
         var modules = ModuleRegistry.allModules().stream()
@@ -198,7 +462,7 @@ public class ContextFactory {
                         .anyMatch(f -> f.equalsIgnoreCase(m.getSimpleName())))
                 .collect(Collectors.toList());
 
-        return new Context(outDir, tempDir, modules, keepTemp);
+        return new Context(outDir, tempDir, modules, keepTemp, jobs, timeout, timeoutFactor, verify);
     }
 
     public BytecodeCache initCache()
@@ -213,14 +477,63 @@ public class ContextFactory {
         return new BytecodeCache(classFiles);
     }
 
-    public TestSuite getTestSuite() throws IOException {
+    public TestSuite getTestSuite(BytecodeCache cache) throws IOException {
         Set<Path> iTests = validate(
                 Paths.get(this.workingDir).toAbsolutePath(),
                 this.iTests,
                 scriptMatcher
         );
 
-        return new TestSuite(iTests, timeout);
+        return new TestSuite(iTests, timeout, concurrentTests, getOutputMatcher(), cache);
+    }
+
+    /**
+     * Returns the matcher for the output of test runs.
+     *
+     * @return the matcher or {@code null} if neither an output pattern
+     * nor an expected output is given
+     * @throws IOException if the file that holds the expected output
+     *                     cannot be read
+     */
+    private OutputMatcher getOutputMatcher() throws IOException {
+        OutputMatcher matcher;
+        if (expectedOutput != null) {
+            var file = Paths.get(workingDir).toAbsolutePath().resolve(expectedOutput);
+            matcher = OutputMatcher.expecting(
+                    new String(Files.readAllBytes(file), StandardCharsets.UTF_8)
+            );
+        } else if (outputPattern != null) {
+            matcher = OutputMatcher.matching(outputPattern);
+        } else {
+            return null;
+        }
+
+        return matcher.forbidding(forbiddenPattern);
+    }
+
+    /**
+     * Returns the oracle that decides whether candidates are interesting.
+     * If a main class is given, the program is run either in-process
+     * or in worker JVMs. Otherwise the suite of interestingness test
+     * scripts is used (whose output is checked if a pattern is given).
+     *
+     * @param cache The cache that holds the classes (which the test scripts
+     *              write to their directories)
+     * @return the oracle
+     * @throws IOException if the test scripts or the file that holds
+     *                     the expected output cannot be read
+     */
+    public Oracle getOracle(BytecodeCache cache) throws IOException {
+        if (mainClass == null)
+            return getTestSuite(cache);
+
+        var matcher = getOutputMatcher();
+
+        var runner = fork
+                ? new WorkerPool(timeout, forkRuns)
+                : new InProcessRunner(timeout);
+
+        return new ProgramOracle(mainClass, matcher, runner);
     }
 
     // endregion
@@ -1,5 +1,7 @@
 package at.jku.ssw.java.bytecode.reducer.context;
 
+import at.jku.ssw.java.bytecode.reducer.modules.classes.RemoveClasses;
+import at.jku.ssw.java.bytecode.reducer.modules.classes.RemoveUnreferencedMembers;
 import at.jku.ssw.java.bytecode.reducer.modules.cleanup.RemoveNOPs;
 import at.jku.ssw.java.bytecode.reducer.modules.cleanup.ShrinkConstantPool;
 import at.jku.ssw.java.bytecode.reducer.modules.fields.*;
@@ -22,11 +24,15 @@ public final class ModuleRegistry {
 
     /**
      * Returns a collection of all registered modules.
+     * Each module is only listed once, as the {@link Scheduler} reapplies
+     * the modules until no module makes any progress.
      *
      * @return a list containing all reducer classes
      */
     public static List<Class<? extends Reducer>> allModules() {
         return List.of(
+                RemoveClasses.class,
+                RemoveUnreferencedMembers.class,
                 RemoveUnusedFields.class,
                 RemoveUnusedMethods.class,
                 RemoveWriteOnlyFields.class,
@@ -41,17 +47,10 @@ public final class ModuleRegistry {
                 RemoveFieldSelfAssignments.class,
                 RemoveLocalSelfAssignments.class,
                 RemoveVoidMethodCalls.class,
-                RemoveNOPs.class,
                 ReplaceMethodCalls.class,
-                RemoveUnusedMethods.class,
-                RemoveNOPs.class,
                 RemoveConstantAssignments.class,
-                RemoveNOPs.class,
                 RemoveNeutralInstructions.class,
-                RemoveNOPs.class,
                 RemoveInstructionSequences.class,
-                RemoveUnusedFields.class,
-                RemoveUnusedMethods.class,
                 RemoveNOPs.class,
                 ShrinkConstantPool.class
         );
@@ -0,0 +1,72 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Decides whether a configuration of classes is interesting.
+ * Implementations must be thread-safe, as multiple candidates may be
+ * tested concurrently.
+ */
+public interface Oracle {
+
+    /**
+     * Tests the given class configuration.
+     *
+     * @param testDir The directory that contains the class files
+     *                (only up to date if {@link #requiresTestDirectory()}
+     *                is {@code true})
+     * @param classes Maps the file names to the bytecodes of all classes
+     *                (including the candidate)
+     * @return {@code true} if the configuration is interesting,
+     * {@code false} otherwise
+     */
+    boolean test(Path testDir, Map<String, Bytecode> classes);
+
+    /**
+     * Returns a hash that identifies the oracle's behaviour
+     * (e.g. the test scripts or the expected output).
+     *
+     * @return the hash value
+     */
+    byte[] digest();
+
+    /**
+     * Determines whether the class files have to be written to the
+     * test directory before calling {@link #test(Path, Map)}.
+     *
+     * @return {@code true} if the oracle reads the class files from
+     * the test directory, {@code false} if it only uses the given bytecodes
+     */
+    default boolean requiresTestDirectory() {
+        return true;
+    }
+
+    /**
+     * Sets the timeout for subsequent tests.
+     *
+     * @param timeout The timeout in milliseconds
+     */
+    void setTimeout(long timeout);
+
+    /**
+     * Prepares a new test directory (e.g. by placing the files that
+     * are required to run the tests), before it is used for the
+     * first time.
+     *
+     * @param testDir The test directory
+     * @throws IOException if the directory cannot be prepared
+     */
+    default void provision(Path testDir) throws IOException {
+    }
+
+    /**
+     * Releases all resources (e.g. worker processes) that are held
+     * by this oracle.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,102 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.utils.HashUtils;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Memoizes the outcomes of interestingness tests.
+ * Each outcome is identified by the hash of the tested class configuration
+ * (all classes, including the candidate) and the hash of the oracle,
+ * such that a configuration that was already evaluated is never
+ * tested again.
+ * The oracle's hash is determined for each test, as it may change
+ * during the reduction (e.g. if the timeout is adapted).
+ */
+public class OutcomeCache {
+
+    /**
+     * The oracle whose outcomes are cached.
+     */
+    private final Oracle oracle;
+
+    /**
+     * Maps the hashes of the tested configurations to their outcomes.
+     */
+    private final Map<ByteBuffer, Boolean> outcomes;
+
+    /**
+     * The number of tests that were answered by the cache.
+     */
+    private final AtomicLong hits;
+
+    /**
+     * The number of tests that actually had to be run.
+     */
+    private final AtomicLong misses;
+
+    /**
+     * Initialize an empty cache for the given oracle.
+     *
+     * @param oracle The oracle whose outcomes are cached
+     */
+    public OutcomeCache(Oracle oracle) {
+        this.oracle = oracle;
+        this.outcomes = new ConcurrentHashMap<>();
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+    }
+
+    /**
+     * Returns the cached outcome of the given configuration or
+     * runs the given test and caches its outcome.
+     *
+     * @param configuration The hash of the class configuration under test
+     * @param test          The actual test that is only run if the
+     *                      configuration was not evaluated before
+     * @return the (possibly cached) outcome of the test
+     */
+    public boolean test(byte[] configuration, BooleanSupplier test) {
+        var key = ByteBuffer.wrap(HashUtils.hash(oracle.digest(), configuration));
+
+        var outcome = outcomes.get(key);
+
+        if (outcome != null) {
+            hits.incrementAndGet();
+            return outcome;
+        }
+
+        misses.incrementAndGet();
+
+        outcome = test.getAsBoolean();
+
+        // a cancelled test does not have a valid outcome
+        if (!Thread.currentThread().isInterrupted())
+            outcomes.put(key, outcome);
+
+        return outcome;
+    }
+
+    /**
+     * Returns the number of tests that were answered by the cache
+     * (and therefore did not spawn any processes).
+     *
+     * @return the number of cache hits
+     */
+    public long hits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of tests that were actually run.
+     *
+     * @return the number of cache misses
+     */
+    public long misses() {
+        return misses.get();
+    }
+}
@@ -0,0 +1,97 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.io.ClassRunner;
+import at.jku.ssw.java.bytecode.reducer.io.OutputMatcher;
+import at.jku.ssw.java.bytecode.reducer.io.ScriptRunner;
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import at.jku.ssw.java.bytecode.reducer.utils.HashUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Oracle that runs the main class of a candidate configuration
+ * (instead of spawning test scripts) and checks the program's output.
+ * Depending on the {@link ClassRunner}, the program is either run
+ * within the reducer's JVM or in a separate worker JVM.
+ * A configuration is interesting if the program terminates within the
+ * timeout and its output is accepted by the {@link OutputMatcher}.
+ */
+public class ProgramOracle implements Oracle {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The binary name of the class whose main method is run.
+     */
+    private final String mainClass;
+
+    /**
+     * Checks the output of each run.
+     */
+    private final OutputMatcher matcher;
+
+    /**
+     * Runs the program.
+     */
+    private final ClassRunner runner;
+
+    ProgramOracle(String mainClass, OutputMatcher matcher, ClassRunner runner) {
+        this.mainClass = mainClass;
+        this.matcher = matcher;
+        this.runner = runner;
+    }
+
+    @Override
+    public boolean test(Path testDir, Map<String, Bytecode> classes) {
+        try {
+            var result = runner.run(mainClass, classes);
+
+            if (result.exitCode == ScriptRunner.EXIT_TIMEOUT) {
+                logger.info("Test run of '{}' timed out", mainClass);
+                return false;
+            }
+
+            var isValid = matcher.test(result.output);
+
+            logger.info(
+                    "Test run of '{}' {} (exit code {})",
+                    mainClass,
+                    isValid ? "succeeded" : "failed",
+                    result.exitCode
+            );
+
+            return isValid;
+        } catch (InterruptedException e) {
+            // test was cancelled - the result is irrelevant
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public byte[] digest() {
+        return HashUtils.hash(
+                mainClass.getBytes(StandardCharsets.UTF_8),
+                matcher.toString().getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    @Override
+    public void setTimeout(long timeout) {
+        runner.setTimeout(timeout);
+    }
+
+    @Override
+    public boolean requiresTestDirectory() {
+        return false;
+    }
+
+    @Override
+    public void close() {
+        runner.close();
+    }
+}
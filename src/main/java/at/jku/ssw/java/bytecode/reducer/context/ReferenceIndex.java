@@ -0,0 +1,485 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Index of the references between the classes of a {@link BytecodeCache}.
+ * For every class, the referenced methods and fields (by owner, name and
+ * descriptor) and the referenced classes (including the types
+ * in descriptors) are recorded.
+ * A member of a class is referenced by another class if that class
+ * refers to a member with the same name and descriptor whose owner
+ * is the same class, a superclass or subclass (as members may be accessed
+ * via subclasses and methods may be overridden), or a class that is not
+ * part of the configuration (whose hierarchy is unknown).
+ * Classes that cannot be analyzed (e.g. malformed candidates) are assumed
+ * to reference every member and every class.
+ * <p>
+ * The index is updated incrementally: changed classes are only
+ * analyzed again once the index is queried.
+ */
+public class ReferenceIndex {
+
+    /**
+     * Maps the file names to the references of the corresponding class.
+     */
+    private final Map<String, References> references;
+
+    /**
+     * The bytecodes of the classes that changed since the last query.
+     */
+    private final Map<String, Bytecode> pending;
+
+    /**
+     * Maps the internal names of the analyzed classes to their references
+     * (updated on every refresh).
+     */
+    private final Map<String, References> classes;
+
+    /**
+     * Maps the internal names of classes to the classes of the same
+     * hierarchy (cleared on every refresh).
+     */
+    private final Map<String, Set<String>> related;
+
+    /**
+     * Creates an empty index.
+     */
+    public ReferenceIndex() {
+        this.references = new HashMap<>();
+        this.pending = new HashMap<>();
+        this.classes = new HashMap<>();
+        this.related = new HashMap<>();
+    }
+
+    /**
+     * Creates an index of the given class configuration.
+     *
+     * @param classes Maps the file names to the bytecodes of all classes
+     * @return the new index
+     */
+    public static ReferenceIndex of(Map<String, Bytecode> classes) {
+        var index = new ReferenceIndex();
+
+        classes.forEach(index::update);
+
+        return index;
+    }
+
+    /**
+     * Records that the given class changed.
+     *
+     * @param fileName The file name of the class
+     * @param bytecode The new bytecode
+     */
+    public synchronized void update(String fileName, Bytecode bytecode) {
+        references.remove(fileName);
+        pending.put(fileName, bytecode);
+    }
+
+    /**
+     * Removes the given class from the index.
+     *
+     * @param fileName The file name of the class
+     */
+    public synchronized void remove(String fileName) {
+        var refs = references.remove(fileName);
+        pending.remove(fileName);
+
+        if (refs != null && refs.className != null) {
+            classes.remove(refs.className);
+            related.clear();
+        }
+    }
+
+    /**
+     * Checks whether any class other than the given one references
+     * the method with the given name and descriptor of the given class.
+     *
+     * @param className  The internal name of the declaring class
+     * @param name       The method name
+     * @param descriptor The method descriptor
+     * @return {@code true} if the method may be referenced by another class
+     */
+    public synchronized boolean isMethodReferenced(String className, String name, String descriptor) {
+        var method = name + descriptor;
+
+        return isReferenced(className, r -> r.methods.get(method));
+    }
+
+    /**
+     * Checks whether any class other than the given one references
+     * the field with the given name and descriptor of the given class.
+     *
+     * @param className  The internal name of the declaring class
+     * @param name       The field name
+     * @param descriptor The field descriptor
+     * @return {@code true} if the field may be referenced by another class
+     */
+    public synchronized boolean isFieldReferenced(String className, String name, String descriptor) {
+        var field = name + ":" + descriptor;
+
+        return isReferenced(className, r -> r.fields.get(field));
+    }
+
+    /**
+     * Returns the internal name of the class in the given file.
+     *
+     * @param fileName The file name of the class
+     * @return the internal class name or {@code null} if the class is unknown
+     * or cannot be parsed
+     */
+    public synchronized String className(String fileName) {
+        var refs = get(fileName);
+
+        return refs != null ? refs.className : null;
+    }
+
+    /**
+     * Returns the internal names of the classes that the class in the
+     * given file references (excluding itself).
+     * A class that cannot be analyzed references all other classes.
+     *
+     * @param fileName The file name of the class
+     * @return an unmodifiable set of internal class names
+     */
+    public synchronized Set<String> dependencies(String fileName) {
+        var refs = get(fileName);
+
+        if (refs == null)
+            return Set.of();
+
+        if (refs.unknown)
+            return references.values().stream()
+                    .filter(r -> !r.unknown)
+                    .map(r -> r.className)
+                    .collect(Collectors.toUnmodifiableSet());
+
+        return Collections.unmodifiableSet(refs.classes);
+    }
+
+    /**
+     * Checks whether any class other than the given one refers to a
+     * member of the given class.
+     *
+     * @param className The internal name of the declaring class
+     * @param owners    Retrieves the owners that a class refers to
+     *                  the member with ({@code null} if the member
+     *                  is not referenced)
+     * @return {@code true} if the member may be referenced by another class
+     */
+    private boolean isReferenced(String className, Function<References, Set<String>> owners) {
+        return others(className).anyMatch(r -> {
+            if (r.unknown)
+                return true;
+
+            var refs = owners.apply(r);
+
+            return refs != null && refs.stream()
+                    .anyMatch(o -> !classes.containsKey(o) || hierarchy(className).contains(o));
+        });
+    }
+
+    /**
+     * Determines the classes of the configuration that are superclasses
+     * or subclasses (including interfaces) of the given class.
+     *
+     * @param className The internal class name
+     * @return the internal names of the related classes
+     * (including the class itself)
+     */
+    private Set<String> hierarchy(String className) {
+        return related.computeIfAbsent(className, c -> {
+            var hierarchy = new HashSet<>(ancestors(c));
+
+            for (var other : classes.keySet())
+                if (ancestors(other).contains(c))
+                    hierarchy.add(other);
+
+            return hierarchy;
+        });
+    }
+
+    /**
+     * Determines the superclasses and interfaces of the given class
+     * that are part of the configuration.
+     *
+     * @param className The internal class name
+     * @return the internal names of the ancestors (including the class itself)
+     */
+    private Set<String> ancestors(String className) {
+        var ancestors = new HashSet<String>();
+        var queue     = new ArrayDeque<String>();
+
+        queue.add(className);
+
+        while (!queue.isEmpty()) {
+            var next = queue.poll();
+            var refs = classes.get(next);
+
+            if (!ancestors.add(next) || refs == null)
+                continue;
+
+            queue.addAll(refs.supertypes);
+        }
+
+        return ancestors;
+    }
+
+    /**
+     * Streams the references of all classes except the given one.
+     * The references of classes that cannot be analyzed are always
+     * included.
+     *
+     * @param className The internal name of the excluded class
+     *                  ({@code null} to include all classes)
+     * @return a stream of references
+     */
+    private Stream<References> others(String className) {
+        refresh();
+
+        return references.values().stream()
+                .filter(r -> r.unknown || !r.className.equals(className));
+    }
+
+    /**
+     * Retrieves the references of the given file.
+     *
+     * @param fileName The file name of the class
+     * @return the references or {@code null} if the class is unknown
+     */
+    private References get(String fileName) {
+        refresh();
+
+        return references.get(fileName);
+    }
+
+    /**
+     * Analyzes the classes that changed since the last query.
+     */
+    private void refresh() {
+        if (pending.isEmpty())
+            return;
+
+        pending.forEach((fileName, bytecode) -> {
+            try {
+                references.put(fileName, References.of(bytecode));
+            } catch (RuntimeException | IOException e) {
+                // malformed classes may reference anything
+                references.put(fileName, References.unknown());
+            }
+        });
+
+        pending.clear();
+
+        classes.clear();
+        related.clear();
+
+        for (var refs : references.values())
+            if (!refs.unknown)
+                classes.put(refs.className, refs);
+    }
+
+    /**
+     * The references of a single class.
+     */
+    private static class References extends ClassVisitor {
+
+        /**
+         * The internal name of the class
+         * ({@code null} if the class cannot be analyzed).
+         */
+        String className;
+
+        /**
+         * Indicates that the class cannot be analyzed and may therefore
+         * reference anything.
+         */
+        boolean unknown;
+
+        /**
+         * The internal names of the superclass and the interfaces.
+         */
+        final Set<String> supertypes = new HashSet<>();
+
+        /**
+         * Maps the referenced methods (name and descriptor) to the
+         * internal names of the owners they are referenced with.
+         */
+        final Map<String, Set<String>> methods = new HashMap<>();
+
+        /**
+         * Maps the referenced fields (name, colon and descriptor) to the
+         * internal names of the owners they are referenced with.
+         */
+        final Map<String, Set<String>> fields = new HashMap<>();
+
+        /**
+         * The internal names of the referenced classes.
+         */
+        final Set<String> classes = new HashSet<>();
+
+        private References() {
+            super(Opcodes.ASM6);
+        }
+
+        /**
+         * Returns the references of a class that cannot be analyzed.
+         *
+         * @return references that are assumed to include everything
+         */
+        static References unknown() {
+            var refs = new References();
+            refs.unknown = true;
+
+            return refs;
+        }
+
+        /**
+         * Analyzes the given bytecode.
+         *
+         * @param bytecode The bytecode of a class
+         * @return the references of the class
+         * @throws IOException if the bytecode cannot be read
+         */
+        static References of(Bytecode bytecode) throws IOException {
+            var reader = new ClassReader(bytecode.stream());
+            var refs   = new References();
+            var buffer = new char[reader.getMaxStringLength()];
+
+            // the constant pool contains all classes that are used
+            // as owners, super types, in casts etc.
+            for (int i = 1; i < reader.getItemCount(); i++) {
+                var offset = reader.getItem(i);
+
+                // the second slot of long and double constants
+                if (offset == 0)
+                    continue;
+
+                if (reader.b[offset - 1] == 7) // CONSTANT_Class
+                    refs.addType(Type.getObjectType(reader.readUTF8(offset, buffer)));
+            }
+
+            reader.accept(refs, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+            refs.classes.remove(refs.className);
+
+            return refs;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            className = name;
+
+            if (superName != null)
+                supertypes.add(superName);
+            if (interfaces != null)
+                supertypes.addAll(Arrays.asList(interfaces));
+        }
+
+        @Override
+        public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+            addType(Type.getType(descriptor));
+            return null;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            addType(Type.getMethodType(descriptor));
+
+            return new MethodVisitor(api) {
+                @Override
+                public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+                    addMethod(owner, name, descriptor);
+                }
+
+                @Override
+                public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+                    addField(owner, name, descriptor);
+                }
+
+                @Override
+                public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
+                    addType(Type.getMethodType(descriptor));
+                    addConstant(bootstrapMethodHandle);
+
+                    for (var argument : bootstrapMethodArguments)
+                        addConstant(argument);
+                }
+
+                @Override
+                public void visitLdcInsn(Object value) {
+                    addConstant(value);
+                }
+            };
+        }
+
+        private void addMethod(String owner, String name, String descriptor) {
+            methods.computeIfAbsent(name + descriptor, m -> new HashSet<>()).add(owner);
+            addType(Type.getMethodType(descriptor));
+        }
+
+        private void addField(String owner, String name, String descriptor) {
+            fields.computeIfAbsent(name + ":" + descriptor, f -> new HashSet<>()).add(owner);
+            addType(Type.getType(descriptor));
+        }
+
+        /**
+         * Records the references of a constant (e.g. method handles).
+         */
+        private void addConstant(Object value) {
+            if (value instanceof Handle) {
+                var handle = (Handle) value;
+
+                if (handle.getTag() <= Opcodes.H_PUTSTATIC)
+                    addField(handle.getOwner(), handle.getName(), handle.getDesc());
+                else
+                    addMethod(handle.getOwner(), handle.getName(), handle.getDesc());
+
+                addType(Type.getObjectType(handle.getOwner()));
+            } else if (value instanceof Type) {
+                addType((Type) value);
+            }
+        }
+
+        /**
+         * Records the classes that the given type consists of.
+         */
+        private void addType(Type type) {
+            switch (type.getSort()) {
+                case Type.METHOD:
+                    addType(type.getReturnType());
+                    for (var argument : type.getArgumentTypes())
+                        addType(argument);
+                    break;
+                case Type.ARRAY:
+                    addType(type.getElementType());
+                    break;
+                case Type.OBJECT:
+                    classes.add(type.getInternalName());
+                    break;
+                default:
+                    // primitive types
+            }
+        }
+    }
+}
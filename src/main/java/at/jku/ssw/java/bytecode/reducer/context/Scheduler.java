@@ -0,0 +1,372 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.runtypes.CacheReducer;
+import at.jku.ssw.java.bytecode.reducer.runtypes.Reducer;
+import at.jku.ssw.java.bytecode.reducer.runtypes.ReferenceAware;
+import at.jku.ssw.java.bytecode.reducer.utils.Reducers;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the modules to the classes until a global fixpoint is reached.
+ * For every module and class, the preconditions at which the module
+ * produced a minimal result are recorded. Modules that only inspect
+ * a single class depend on the bytecode of that class, while modules that
+ * take other classes into account (see {@link ReferenceAware} and
+ * {@link CacheReducer}) depend on the whole class configuration.
+ * A module is only applied to a class again if its precondition was not
+ * visited before (because another module changed the class),
+ * such that modules that rewrite the classes without reducing them
+ * cannot re-enable each other indefinitely. The reduction stops as soon
+ * as no module can be applied to any class anymore.
+ * <p>
+ * Of all applicable modules, the one with the highest yield
+ * (removed bytes per second) is applied next. The yield is initially
+ * estimated from the module's annotations (see {@link Reducers#seedYield})
+ * and then refined by the observed reductions, where the time covers
+ * all tests (including the rejected candidates) and analyses.
+ * Every application that removes nothing halves the yield, such that
+ * modules that only rewrite the classes fall behind the others.
+ * To guarantee that every applicable module is tried, every
+ * {@value #EXPLORATION_INTERVAL}th selection picks the applicable module
+ * that has waited the longest instead of the one with the highest yield.
+ */
+public class Scheduler {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Upper bound for the number of applications (as multiple of the
+     * number of modules and classes), in case modules keep changing
+     * the classes without reducing them.
+     */
+    public static final int MAX_ROUNDS = 100;
+
+    /**
+     * The weight of the estimated yield in seconds of observed reductions.
+     */
+    private static final double SEED_WEIGHT = 1.0;
+
+    /**
+     * The factor by which the yield of a module is reduced for every
+     * consecutive application that did not remove anything.
+     */
+    private static final double FRUITLESS_DECAY = 0.5;
+
+    /**
+     * The interval of selections in which the applicable module that
+     * was passed over the longest is selected regardless of its yield.
+     */
+    private static final int EXPLORATION_INTERVAL = 4;
+
+    /**
+     * The modules in the order in which they are registered.
+     */
+    private final List<Module> modules;
+
+    /**
+     * The number of module applications that were skipped.
+     */
+    private long skipped;
+
+    /**
+     * The number of selections so far.
+     */
+    private long selections;
+
+    /**
+     * Instantiates the given modules.
+     *
+     * @param modules The modules in the order in which they are registered
+     *                (which also decides between modules of equal yield)
+     * @throws ReflectiveOperationException if a module cannot be instantiated
+     */
+    public Scheduler(List<Class<? extends Reducer>> modules)
+            throws ReflectiveOperationException {
+
+        this.modules = new ArrayList<>(modules.size());
+
+        for (var module : modules) {
+            logger.info("Initializing reducer " + module.getSimpleName());
+
+            this.modules.add(new Module(module, module.getDeclaredConstructor().newInstance()));
+        }
+    }
+
+    /**
+     * Applies the modules to the classes of the given cache
+     * (the module with the highest yield first) until no module
+     * can change any class anymore.
+     *
+     * @param cache The cache that contains the current classes
+     * @param step  The function that applies a module to a class
+     *              and updates the cache
+     * @throws Exception if the reduction fails
+     */
+    public void run(BytecodeCache cache, Step step) throws Exception {
+        var limit        = (long) MAX_ROUNDS * modules.size() * cache.classes().size();
+        var applications = 0L;
+
+        for (var module : modules)
+            if (module.reducer instanceof ReferenceAware)
+                ((ReferenceAware) module.reducer).setReferences(cache.references());
+
+        for (; ; ) {
+            // the digest of the configuration only changes with an application
+            var digest = ByteBuffer.wrap(cache.digest());
+            var next   = select(cache, digest);
+
+            if (next == null) {
+                logger.info("Reached a fixpoint after {} module applications - skipped {}", applications, skipped);
+                return;
+            }
+
+            for (var fileName : targets(next, cache)) {
+                // the class may have been removed in the meantime
+                if (fileName != null && !cache.classes().contains(fileName))
+                    continue;
+
+                if (next.isMinimal(fileName, cache, digest)) {
+                    skipped++;
+                    continue;
+                }
+
+                if (applications++ >= limit) {
+                    logger.warn("No fixpoint was reached after {} module applications", limit);
+                    return;
+                }
+
+                logger.info(
+                        "Applying {} to {} (yield: {} bytes/s)",
+                        next.type.getSimpleName(),
+                        fileName != null ? "file " + fileName : "all classes",
+                        String.format("%.1f", next.yield())
+                );
+
+                var size  = cache.size();
+                var start = System.nanoTime();
+
+                // the result is minimal for the precondition before
+                // and after the application
+                next.markMinimal(fileName, cache, digest);
+
+                step.apply(next.reducer, fileName);
+
+                digest = ByteBuffer.wrap(cache.digest());
+
+                next.record(size - cache.size(), System.nanoTime() - start);
+                next.markMinimal(fileName, cache, digest);
+            }
+        }
+    }
+
+    /**
+     * Selects the module with the highest yield (or the one that waited
+     * the longest, see {@link #EXPLORATION_INTERVAL}) that is not yet
+     * minimal for the current precondition of any class.
+     *
+     * @param cache  The cache that contains the current classes
+     * @param digest The digest of the current class configuration
+     * @return the next module or {@code null} if the fixpoint is reached
+     */
+    private Module select(BytecodeCache cache, ByteBuffer digest) {
+        var explore    = ++selections % EXPLORATION_INTERVAL == 0;
+        var applicable = new ArrayList<Module>();
+        Module next = null;
+
+        for (var module : modules) {
+            if (targets(module, cache).stream().allMatch(c -> module.isMinimal(c, cache, digest)))
+                continue;
+
+            applicable.add(module);
+
+            if (next == null || (explore
+                    ? module.waiting > next.waiting
+                    : module.yield() > next.yield()))
+                next = module;
+        }
+
+        for (var module : applicable)
+            module.waiting = module == next ? 0 : module.waiting + 1;
+
+        return next;
+    }
+
+    /**
+     * Returns the targets that the given module is applied to.
+     * Modules that operate on all classes at once have a single
+     * target ({@code null}).
+     *
+     * @param module The module
+     * @param cache  The cache that contains the current classes
+     * @return a list of file names
+     */
+    private static List<String> targets(Module module, BytecodeCache cache) {
+        return module.reducer instanceof CacheReducer
+                ? Collections.singletonList(null)
+                : new ArrayList<>(cache.classes());
+    }
+
+    /**
+     * Applies a module to a single class.
+     */
+    @FunctionalInterface
+    public interface Step {
+
+        /**
+         * Applies the given module to the given class until the result
+         * is minimal and places the result in the cache.
+         *
+         * @param reducer  The module instance
+         * @param fileName The file whose class is reduced ({@code null}
+         *                 if the module is a {@link CacheReducer} that
+         *                 reduces all classes at once)
+         * @throws Exception if the reduction fails
+         */
+        void apply(Reducer reducer, String fileName) throws Exception;
+    }
+
+    /**
+     * A module instance and its statistics.
+     */
+    private static class Module {
+
+        /**
+         * The type of the module.
+         */
+        final Class<? extends Reducer> type;
+
+        /**
+         * The module instance.
+         */
+        final Reducer reducer;
+
+        /**
+         * The estimated yield in bytes per second before the first
+         * application.
+         */
+        final double seed;
+
+        /**
+         * Maps the classes that the module was already applied to onto
+         * the preconditions for which its result is minimal
+         * (see {@link #targets} and {@link #precondition}).
+         */
+        final Map<String, Set<ByteBuffer>> minimal;
+
+        /**
+         * The number of bytes that were removed by this module.
+         */
+        long removed;
+
+        /**
+         * The time that was spent by this module in nanoseconds.
+         */
+        long time;
+
+        /**
+         * The number of consecutive applications that did not remove
+         * anything.
+         */
+        int fruitless;
+
+        /**
+         * The number of selections that passed over this module
+         * since its last application, although it was applicable.
+         */
+        long waiting;
+
+        Module(Class<? extends Reducer> type, Reducer reducer) {
+            this.type = type;
+            this.reducer = reducer;
+            this.seed = Reducers.seedYield(type);
+            this.minimal = new HashMap<>();
+        }
+
+        /**
+         * Computes the hash of the state that the result of this module
+         * depends on when it is applied to the given class.
+         *
+         * @param fileName The file name or {@code null} for all classes
+         * @param cache    The cache that contains the current classes
+         * @param digest   The digest of the current class configuration
+         * @return the hash of the class or of the whole class configuration
+         */
+        ByteBuffer precondition(String fileName, BytecodeCache cache, ByteBuffer digest) {
+            return fileName == null || reducer instanceof ReferenceAware
+                    ? digest
+                    : ByteBuffer.wrap(cache.code(fileName).hash());
+        }
+
+        /**
+         * Checks whether applying this module to the given class
+         * cannot change it, as the current precondition was visited before.
+         *
+         * @param fileName The file name or {@code null} for all classes
+         * @param cache    The cache that contains the current classes
+         * @param digest   The digest of the current class configuration
+         * @return {@code true} if the module is minimal for the class
+         */
+        boolean isMinimal(String fileName, BytecodeCache cache, ByteBuffer digest) {
+            var visited = minimal.get(fileName);
+
+            return visited != null && visited.contains(precondition(fileName, cache, digest));
+        }
+
+        /**
+         * Records that the result of this module is minimal for the
+         * current precondition of the given class.
+         *
+         * @param fileName The file name or {@code null} for all classes
+         * @param cache    The cache that contains the current classes
+         * @param digest   The digest of the current class configuration
+         */
+        void markMinimal(String fileName, BytecodeCache cache, ByteBuffer digest) {
+            // the class may have been removed by the application
+            if (fileName != null && cache.code(fileName) == null)
+                return;
+
+            minimal.computeIfAbsent(fileName, f -> new HashSet<>())
+                    .add(precondition(fileName, cache, digest));
+        }
+
+        /**
+         * Records the result of an application.
+         *
+         * @param removed The number of removed bytes
+         * @param time    The duration of the application in nanoseconds
+         */
+        void record(long removed, long time) {
+            // modules may also increase the size (e.g. by rewriting
+            // the constant pool), which is not counted as negative yield
+            this.removed += Math.max(0, removed);
+            this.time += time;
+            this.fruitless = removed > 0 ? 0 : fruitless + 1;
+        }
+
+        /**
+         * Estimates the yield of the next application, where the
+         * seed acts as a prior that is outweighed by observed reductions
+         * and the estimate decays towards zero with every fruitless
+         * application.
+         *
+         * @return the estimated number of removed bytes per second
+         */
+        double yield() {
+            var seconds = time / (double) TimeUnit.SECONDS.toNanos(1);
+
+            return (removed + seed * SEED_WEIGHT) / (seconds + SEED_WEIGHT)
+                    * Math.pow(FRUITLESS_DECAY, fruitless);
+        }
+    }
+}
@@ -1,22 +1,43 @@
 package at.jku.ssw.java.bytecode.reducer.context;
 
+import at.jku.ssw.java.bytecode.reducer.io.OutputMatcher;
 import at.jku.ssw.java.bytecode.reducer.io.ScriptRunner;
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
 import at.jku.ssw.java.bytecode.reducer.utils.FileUtils;
+import at.jku.ssw.java.bytecode.reducer.utils.HashUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Class that keeps track of interestingness tests and provides
  * methods to run those in a given directory.
+ * <p>
+ * Tests that run concurrently do not share their working directory,
+ * as they usually write intermediate files (e.g. the program output)
+ * to it. Instead, each test is run in its own subdirectory of the
+ * test directory, which holds a copy of the classes.
  */
-public class TestSuite {
+public class TestSuite implements Oracle {
 
     private static final Logger logger = LogManager.getLogger();
 
+    /**
+     * The suffix of the subdirectories in which the individual
+     * tests are run if they are run concurrently.
+     */
+    private static final String TEST_DIR_SUFFIX = ".dir";
+
     /**
      * The individual test scripts that have to be passed
      * in order for a reduction result to be "interesting"-
@@ -25,27 +46,131 @@ public class TestSuite {
 
     private final ScriptRunner scriptRunner;
 
-    TestSuite(Set<Path> iTests, long timeout) {
+    /**
+     * Run the tests concurrently (and stop as soon as one test fails)
+     * instead of one after another.
+     */
+    private final boolean concurrent;
+
+    /**
+     * Decides whether the output of the tests is interesting while they
+     * are running ({@code null} if the exit codes decide).
+     */
+    private final OutputMatcher matcher;
+
+    /**
+     * The hash of the test scripts' names and contents.
+     */
+    private final byte[] digest;
+
+    /**
+     * The cache that writes the classes to the subdirectories of the
+     * concurrent tests (such that only changed classes are copied).
+     */
+    private final BytecodeCache cache;
+
+    TestSuite(Set<Path> iTests,
+              long timeout,
+              boolean concurrent,
+              OutputMatcher matcher,
+              BytecodeCache cache) throws IOException {
         this.iTests = iTests;
+        this.concurrent = concurrent;
+        this.matcher = matcher;
+        this.cache = cache;
         scriptRunner = new ScriptRunner(timeout);
+
+        var digest = HashUtils.digest();
+
+        for (var itest : iTests.stream().sorted(Comparator.comparing(Path::getFileName)).toArray(Path[]::new)) {
+            digest.update(itest.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+            digest.update(Files.readAllBytes(itest));
+        }
+
+        if (matcher != null)
+            digest.update(matcher.toString().getBytes(StandardCharsets.UTF_8));
+
+        this.digest = digest.digest();
+    }
+
+    /**
+     * Returns the hash of all test scripts, which identifies the
+     * test suite's behaviour.
+     *
+     * @return the hash of the scripts' names and contents
+     */
+    @Override
+    public final byte[] digest() {
+        return Arrays.copyOf(digest, digest.length);
+    }
+
+    /**
+     * Runs all contained tests in the given directory, which already
+     * contains the given classes.
+     * Concurrent tests are run in their own subdirectories, to which
+     * the classes are copied first.
+     *
+     * @see TestSuite#test(Path)
+     */
+    @Override
+    public boolean test(Path testDir, Map<String, Bytecode> classes) {
+        if (isConcurrent())
+            return testConcurrently(testDir, classes);
+
+        return test(testDir);
+    }
+
+    @Override
+    public void setTimeout(long timeout) {
+        scriptRunner.setTimeout(timeout);
+    }
+
+    /**
+     * Copies the test scripts to the given directory.
+     * If the tests are run concurrently, each script is copied to
+     * its own subdirectory instead.
+     *
+     * @param testDir The test directory
+     * @throws IOException if a script cannot be copied
+     */
+    @Override
+    public void provision(Path testDir) throws IOException {
+        if (!isConcurrent()) {
+            if (FileUtils.copy(iTests.stream(), testDir).count() != iTests.size())
+                throw new IOException("Could not copy the interestingness tests to " + testDir);
+            return;
+        }
+
+        for (var itest : iTests) {
+            var dir = Files.createDirectories(scriptDir(testDir, itest));
+
+            if (FileUtils.copy(Stream.of(itest), dir).count() != 1)
+                throw new IOException("Could not copy the interestingness test " + itest + " to " + dir);
+        }
     }
 
     /**
-     * Runs all contained tests in the given directory.
-     * This method first copies all test files and then executes them
-     * in order.
+     * Runs all contained tests in the given directory one after another.
+     * The directory must already contain the test scripts
+     * (see {@link #provision(Path)}).
+     * If an output matcher is given, the output of each test decides
+     * instead of its exit code (and tests are stopped as soon as their
+     * output is decisive).
      *
      * @param testDir The working directory of the tests
      * @return {@code true} if all tests succeeded, {@code false} if any test
      * fails
      */
     public final boolean test(Path testDir) {
-        return FileUtils.copy(iTests.stream(), testDir)
+        return iTests.stream()
+                .map(itest -> testDir.resolve(itest.getFileName()))
                 .allMatch(itest -> {
                     var file = itest.getFileName();
 
                     try {
-                        var exitCode = scriptRunner.execBlocking(itest);
+                        var exitCode = matcher == null
+                                ? scriptRunner.execBlocking(itest)
+                                : scriptRunner.execMatching(itest, matcher);
 
                         if (exitCode == ScriptRunner.EXIT_SUCCESS) {
                             logger.info("Test '{}' succeeded", file);
@@ -55,13 +180,82 @@ public class TestSuite {
                             return false;
                         }
 
-                        logger.info("Test '{}' failed with exit code {}", file, exitCode);
+                        if (exitCode == ScriptRunner.EXIT_MISMATCH)
+                            logger.info("Test '{}' failed - the output is not interesting", file);
+                        else
+                            logger.info("Test '{}' failed with exit code {}", file, exitCode);
 
-                    } catch (IOException | InterruptedException e) {
+                    } catch (IOException e) {
                         logger.fatal(e);
+                    } catch (InterruptedException e) {
+                        // test was cancelled - the result is irrelevant
+                        Thread.currentThread().interrupt();
                     }
 
                     return false;
                 });
     }
+
+    /**
+     * Checks whether the tests are run concurrently.
+     *
+     * @return {@code true} if the tests are run concurrently
+     */
+    private boolean isConcurrent() {
+        return concurrent && iTests.size() > 1;
+    }
+
+    /**
+     * Returns the subdirectory of the given test directory in which
+     * the given test is run concurrently.
+     *
+     * @param testDir The test directory
+     * @param itest   The test script
+     * @return the path of the subdirectory
+     */
+    private static Path scriptDir(Path testDir, Path itest) {
+        return testDir.resolve(itest.getFileName() + TEST_DIR_SUFFIX);
+    }
+
+    /**
+     * Runs all contained tests concurrently, each in its own subdirectory
+     * of the given directory (see {@link #provision(Path)}).
+     * The remaining tests are cancelled as soon as any test fails.
+     *
+     * @param testDir The test directory
+     * @param classes The classes that are copied to the subdirectories
+     * @return {@code true} if all tests succeeded, {@code false} if any test
+     * fails
+     */
+    private boolean testConcurrently(Path testDir, Map<String, Bytecode> classes) {
+        var scripts = iTests.stream()
+                .map(itest -> scriptDir(testDir, itest).resolve(itest.getFileName()))
+                .collect(Collectors.toList());
+
+        try {
+            // each subdirectory is only used by one test at a time
+            for (var script : scripts)
+                cache.write(script.getParent(), classes);
+
+            var exitCode = scriptRunner.execAllBlocking(scripts);
+
+            if (exitCode == ScriptRunner.EXIT_SUCCESS) {
+                logger.info("Tests succeeded");
+                return true;
+            } else if (exitCode == ScriptRunner.EXIT_TIMEOUT) {
+                logger.info("Tests timed out");
+                return false;
+            }
+
+            logger.info("Tests failed with exit code {}", exitCode);
+
+        } catch (IOException e) {
+            logger.fatal(e);
+        } catch (InterruptedException e) {
+            // test was cancelled - the result is irrelevant
+            Thread.currentThread().interrupt();
+        }
+
+        return false;
+    }
 }
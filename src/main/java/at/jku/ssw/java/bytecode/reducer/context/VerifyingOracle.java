@@ -0,0 +1,149 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Oracle that verifies the bytecode of a configuration in-process
+ * (see {@link ClassVerifier}) and only runs the tests of another oracle
+ * if no class obviously fails the verification.
+ * This avoids spawning test runs for candidates that the JVM's verifier
+ * rejects anyway (e.g. those of unsound reducers).
+ * <p>
+ * Classes whose original bytecode already fails the in-process
+ * verification (e.g. because of unsupported class file versions)
+ * are never verified, as their candidates would all be rejected.
+ */
+public class VerifyingOracle implements Oracle {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The oracle that tests the verified configurations.
+     */
+    private final Oracle oracle;
+
+    /**
+     * The files that are not verified.
+     */
+    private final Set<String> exempt = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The hashes of the bytecodes that passed the verification.
+     */
+    private final Set<ByteBuffer> verified = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The number of configurations that were rejected by the verification.
+     */
+    private final AtomicLong rejected = new AtomicLong();
+
+    private VerifyingOracle(Oracle oracle) {
+        this.oracle = oracle;
+    }
+
+    /**
+     * Verifies the original classes and wraps the given oracle such
+     * that configurations are only tested if they pass the verification.
+     *
+     * @param oracle The oracle that tests the verified configurations
+     * @param cache  The cache containing the original classes
+     * @return the wrapped oracle
+     */
+    public static VerifyingOracle of(Oracle oracle, BytecodeCache cache) {
+        var verifying = new VerifyingOracle(oracle);
+        var classes   = cache.snapshot();
+        var verifier  = ClassVerifier.of(classes.values());
+
+        classes.forEach((file, bytecode) -> {
+            var error = verifier.verify(bytecode);
+
+            if (error.isPresent()) {
+                logger.warn("Skipping the verification of {} - the original class fails: {}", file, error.get());
+                verifying.exempt.add(file);
+            } else {
+                verifying.verified.add(ByteBuffer.wrap(bytecode.hash()));
+            }
+        });
+
+        return verifying;
+    }
+
+    /**
+     * Verifies the classes of the configuration that were not verified
+     * yet and runs the test if they pass.
+     *
+     * @see Oracle#test(Path, Map)
+     */
+    @Override
+    public boolean test(Path testDir, Map<String, Bytecode> classes) {
+        ClassVerifier verifier = null;
+
+        for (var entry : classes.entrySet()) {
+            var key = ByteBuffer.wrap(entry.getValue().hash());
+
+            if (exempt.contains(entry.getKey()) || verified.contains(key))
+                continue;
+
+            // the hierarchy is only extracted if a class has to be verified
+            if (verifier == null)
+                verifier = ClassVerifier.of(classes.values());
+
+            var error = verifier.verify(entry.getValue());
+
+            if (error.isPresent()) {
+                logger.info("Verification of '{}' failed: {}", entry.getKey(), error.get());
+                rejected.incrementAndGet();
+                return false;
+            }
+
+            verified.add(key);
+        }
+
+        return oracle.test(testDir, classes);
+    }
+
+    /**
+     * Returns the number of configurations that were rejected
+     * without running the tests.
+     *
+     * @return the number of rejected configurations
+     */
+    public long rejected() {
+        return rejected.get();
+    }
+
+    @Override
+    public byte[] digest() {
+        return oracle.digest();
+    }
+
+    @Override
+    public boolean requiresTestDirectory() {
+        return oracle.requiresTestDirectory();
+    }
+
+    @Override
+    public void setTimeout(long timeout) {
+        oracle.setTimeout(timeout);
+    }
+
+    @Override
+    public void provision(Path testDir) throws IOException {
+        oracle.provision(testDir);
+    }
+
+    @Override
+    public void close() {
+        oracle.close();
+    }
+}
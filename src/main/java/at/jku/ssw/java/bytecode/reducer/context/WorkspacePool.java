@@ -0,0 +1,162 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.io.NamingStrategy;
+import at.jku.ssw.java.bytecode.reducer.utils.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Pool of test directories that are provisioned once per run
+ * (including the test scripts and the classes) and are leased
+ * to the individual test executions.
+ * The caller writes the tested classes to a leased directory, which
+ * only writes the classes that changed since the directory was last used
+ * (see {@link BytecodeCache#write(Path, java.util.Map)}), such that
+ * no files have to be copied or deleted per test.
+ */
+public class WorkspacePool {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The directory that contains the workspaces.
+     */
+    private final Path root;
+
+    /**
+     * The cache whose classes are placed in the workspaces.
+     */
+    private final BytecodeCache cache;
+
+    /**
+     * All workspaces of this pool.
+     */
+    private final List<Path> workspaces;
+
+    /**
+     * The workspaces that are currently not leased.
+     */
+    private final BlockingQueue<Path> available;
+
+    private WorkspacePool(Path root, BytecodeCache cache) {
+        this.root = root;
+        this.cache = cache;
+        this.workspaces = new ArrayList<>();
+        this.available = new LinkedBlockingQueue<>();
+    }
+
+    /**
+     * Creates the given number of workspaces in the given directory
+     * and prepares them for the given oracle.
+     *
+     * @param root   The directory in which the workspaces are created
+     * @param size   The number of workspaces
+     * @param cache  The cache whose classes are placed in the workspaces
+     * @param oracle The oracle that runs in the workspaces
+     * @return the pool of prepared workspaces
+     * @throws IOException if a workspace cannot be created
+     */
+    public static WorkspacePool provision(Path root,
+                                          int size,
+                                          BytecodeCache cache,
+                                          Oracle oracle) throws IOException {
+
+        var pool     = new WorkspacePool(root, cache);
+        var strategy = NamingStrategy.ForInstance(pool);
+
+        Files.createDirectories(root);
+
+        while (pool.workspaces.size() < size) {
+            var workspace = root.resolve(strategy.generate());
+
+            if (Files.exists(workspace))
+                continue;
+
+            logger.trace("Provisioning workspace at {}", workspace);
+
+            Files.createDirectory(workspace);
+            oracle.provision(workspace);
+            cache.write(workspace);
+
+            pool.workspaces.add(workspace);
+            pool.available.add(workspace);
+        }
+
+        return pool;
+    }
+
+    /**
+     * Leases a workspace and blocks until one is available.
+     * The workspace holds the classes of its previous test,
+     * which the caller has to replace by the tested ones.
+     *
+     * @return the path to the workspace
+     * @throws InterruptedException if the thread is interrupted while
+     *                              waiting for a workspace
+     */
+    public Path lease() throws InterruptedException {
+        return available.take();
+    }
+
+    /**
+     * Returns a leased workspace to the pool.
+     *
+     * @param workspace The workspace that is no longer in use
+     */
+    public void release(Path workspace) {
+        available.add(workspace);
+    }
+
+    /**
+     * Deletes all workspaces (unless they should be kept) in the background.
+     *
+     * @param keep Flag that indicates that the workspaces should be kept
+     */
+    public void close(boolean keep) {
+        workspaces.forEach(cache::discard);
+
+        var size = 0L;
+        for (var workspace : workspaces) {
+            try {
+                size += FileUtils.size(workspace);
+            } catch (IOException e) {
+                logger.debug("Could not determine the size of workspace {}", workspace, e);
+            }
+        }
+
+        if (!workspaces.isEmpty())
+            logger.info("{} test workspaces at {} used {} bytes", workspaces.size(), root, size);
+
+        if (keep)
+            return;
+
+        // the JVM only terminates once all workspaces are deleted
+        new Thread(() -> {
+            workspaces.forEach(workspace -> {
+                try {
+                    logger.trace("Clearing workspace at {}", workspace);
+                    FileUtils.delete(workspace);
+                } catch (IOException e) {
+                    logger.warn("Could not delete workspace at {}", workspace, e);
+                }
+            });
+
+            try {
+                Files.deleteIfExists(root);
+            } catch (DirectoryNotEmptyException e) {
+                // the directory also contains other files
+            } catch (IOException e) {
+                logger.warn("Could not delete temporary directory at {}", root, e);
+            }
+        }, "jreduce-cleanup").start();
+    }
+}
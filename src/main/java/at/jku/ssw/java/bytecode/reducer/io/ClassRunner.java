@@ -0,0 +1,59 @@
+package at.jku.ssw.java.bytecode.reducer.io;
+
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+
+import java.util.Map;
+
+/**
+ * Runs the {@code main} method of a class that is loaded from
+ * the given bytecodes.
+ */
+public interface ClassRunner {
+
+    /**
+     * Result of a program run.
+     */
+    class Result {
+
+        /**
+         * The exit code (e.g. {@link ScriptRunner#EXIT_SUCCESS}).
+         */
+        public final int exitCode;
+
+        /**
+         * The captured standard output and error output.
+         */
+        public final String output;
+
+        public Result(int exitCode, String output) {
+            this.exitCode = exitCode;
+            this.output = output;
+        }
+    }
+
+    /**
+     * Runs the main method of the given class and blocks until the
+     * program terminates or the timeout expires.
+     *
+     * @param mainClass The binary name of the class whose main method is run
+     * @param classes   The bytecodes of all classes of the program
+     * @return the exit code and output of the run
+     * @throws InterruptedException if the thread is interrupted while
+     *                              waiting for the result
+     */
+    Result run(String mainClass, Map<String, Bytecode> classes)
+            throws InterruptedException;
+
+    /**
+     * Sets the timeout for subsequent runs.
+     *
+     * @param timeout The timeout in milliseconds
+     */
+    void setTimeout(long timeout);
+
+    /**
+     * Releases all resources that are held by this runner.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,386 @@
+package at.jku.ssw.java.bytecode.reducer.io;
+
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.security.Permission;
+import java.security.ProtectionDomain;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the {@code main} method of a class within the current JVM.
+ * The classes are loaded from the given bytecodes by a separate
+ * class loader for each run, such that no static state is shared between
+ * runs. The program is executed in a separate thread group whose
+ * output is captured and whose calls to {@link System#exit(int)} are trapped
+ * (if the platform still allows to install a {@link SecurityManager}).
+ */
+public class InProcessRunner implements ClassRunner {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Exit code that indicates that the program terminated
+     * with an uncaught exception (as reported by the {@code java} launcher).
+     */
+    public static final int EXIT_FAILURE = 1;
+
+    /**
+     * Time in milliseconds that interrupted threads are given to terminate
+     * before they are stopped forcefully.
+     */
+    private static final long GRACE_PERIOD = 100;
+
+    /**
+     * Interval in milliseconds in which multi-threaded runs are checked
+     * for termination.
+     */
+    private static final long POLL_INTERVAL = 10;
+
+    /**
+     * The context of the run that the current thread belongs to
+     * ({@code null} for threads that are not part of a run).
+     * Is inherited by threads that are created by the program itself.
+     */
+    private static final InheritableThreadLocal<Run> RUN = new InheritableThreadLocal<>();
+
+    /**
+     * Counter to name the threads of consecutive runs.
+     */
+    private static final AtomicInteger runs = new AtomicInteger();
+
+    /**
+     * Flag that indicates whether the standard streams and the exit trap
+     * are already installed.
+     */
+    private static boolean installed = false;
+
+    /**
+     * The timeout in milliseconds.
+     */
+    private volatile long timeout;
+
+    public InProcessRunner(long timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Runs the main method of the given class and blocks until the
+     * program (including all threads that it started) terminates or
+     * the timeout expires.
+     *
+     * @see ClassRunner#run(String, Map)
+     */
+    @Override
+    public Result run(String mainClass, Map<String, Bytecode> classes)
+            throws InterruptedException {
+
+        install();
+
+        var id     = runs.incrementAndGet();
+        var run    = new Run();
+        var group  = new RunGroup("jreduce-run-" + id, run);
+        var loader = new IsolatedClassLoader(classes);
+
+        var main = new Thread(group, () -> {
+            RUN.set(run);
+
+            try {
+                loader.loadClass(mainClass)
+                        .getMethod("main", String[].class)
+                        .invoke(null, (Object) new String[0]);
+            } catch (InvocationTargetException e) {
+                run.failed = true;
+                group.uncaughtException(Thread.currentThread(), e.getCause());
+            } catch (Throwable e) {
+                // e.g. verification errors, missing classes or main method
+                run.failed = true;
+                group.uncaughtException(Thread.currentThread(), e);
+            }
+        }, "main");
+
+        main.setDaemon(true);
+        main.setContextClassLoader(loader);
+        main.start();
+
+        var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+        try {
+            // the program terminates once all of its threads terminated
+            // (similar to the JVM waiting for all non-daemon threads)
+            while (group.activeCount() > 0 && run.exitCode == null) {
+                var remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+
+                if (remaining <= 0) {
+                    logger.warn("Execution of class {} took longer than {} ms - it will be forcefully interrupted.", mainClass, timeout);
+                    terminate(group);
+                    return new Result(ScriptRunner.EXIT_TIMEOUT, run.output());
+                }
+
+                var threads = new Thread[group.activeCount() + 1];
+                var n       = group.enumerate(threads);
+
+                // wait for the first active thread
+                // (and periodically check for other threads calling
+                // System.exit if the program is multi-threaded)
+                if (n > 0)
+                    threads[0].join(n > 1 ? Math.min(remaining, POLL_INTERVAL) : remaining);
+            }
+        } catch (InterruptedException e) {
+            terminate(group);
+            throw e;
+        }
+
+        // stop remaining threads if the program exited explicitly
+        terminate(group);
+
+        return new Result(
+                run.exitCode != null ? run.exitCode : run.failed ? EXIT_FAILURE : ScriptRunner.EXIT_SUCCESS,
+                run.output()
+        );
+    }
+
+    /**
+     * Terminates all threads of the given group. Threads are first
+     * interrupted and then stopped if they do not react.
+     *
+     * @param group The thread group of the run
+     */
+    @SuppressWarnings("deprecation")
+    private static void terminate(ThreadGroup group) {
+        var threads = new Thread[group.activeCount() + 1];
+        var n       = group.enumerate(threads);
+
+        for (int i = 0; i < n; i++)
+            threads[i].interrupt();
+
+        for (int i = 0; i < n; i++) {
+            try {
+                threads[i].join(GRACE_PERIOD);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (threads[i].isAlive()) {
+                try {
+                    threads[i].stop();
+                } catch (UnsupportedOperationException e) {
+                    logger.warn("Thread {} of an in-process test could not be stopped", threads[i].getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Redirects the standard streams to the current run's output
+     * and installs the trap for {@link System#exit(int)}.
+     * Threads that do not belong to a run still use the original streams.
+     */
+    private static synchronized void install() {
+        if (installed)
+            return;
+
+        System.setOut(new PrintStream(new RoutingOutputStream(System.out), true));
+        System.setErr(new PrintStream(new RoutingOutputStream(System.err), true));
+
+        try {
+            System.setSecurityManager(new ExitTrap());
+        } catch (UnsupportedOperationException | SecurityException e) {
+            logger.warn("Calls to System.exit cannot be trapped on this platform - in-process tests must not terminate the JVM");
+        }
+
+        installed = true;
+    }
+
+    /**
+     * Holds the state of a single program run.
+     */
+    private static class Run {
+
+        /**
+         * The captured output.
+         */
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        /**
+         * The status that was passed to {@link System#exit(int)}
+         * (if it was called).
+         */
+        volatile Integer exitCode;
+
+        /**
+         * Indicates whether an uncaught exception terminated the main thread.
+         */
+        volatile boolean failed;
+
+        String output() {
+            synchronized (output) {
+                return new String(output.toByteArray(), StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    /**
+     * Thread group of a run that reports uncaught exceptions to the
+     * run's output.
+     */
+    private static class RunGroup extends ThreadGroup {
+
+        private final Run run;
+
+        RunGroup(String name, Run run) {
+            super(name);
+            this.run = run;
+            setDaemon(true);
+        }
+
+        @Override
+        public void uncaughtException(Thread t, Throwable e) {
+            if (e instanceof ExitTrappedException || e instanceof ThreadDeath)
+                return;
+
+            synchronized (run.output) {
+                var out = new PrintStream(run.output, true, StandardCharsets.UTF_8);
+
+                out.print("Exception in thread \"" + t.getName() + "\" ");
+                e.printStackTrace(out);
+                out.flush();
+            }
+        }
+    }
+
+    /**
+     * Output stream that writes to the output of the current thread's run
+     * or to the original stream if the thread does not belong to a run.
+     */
+    private static class RoutingOutputStream extends OutputStream {
+
+        private final OutputStream original;
+
+        RoutingOutputStream(OutputStream original) {
+            this.original = original;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            var run = RUN.get();
+
+            if (run == null) {
+                original.write(b);
+            } else {
+                synchronized (run.output) {
+                    run.output.write(b);
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            var run = RUN.get();
+
+            if (run == null) {
+                original.write(b, off, len);
+            } else {
+                synchronized (run.output) {
+                    run.output.write(b, off, len);
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (RUN.get() == null)
+                original.flush();
+        }
+    }
+
+    /**
+     * Class loader that defines the given classes itself and only
+     * delegates platform classes to its parent, such that neither the
+     * reducer's classes nor classes of previous runs are visible.
+     */
+    private static class IsolatedClassLoader extends ClassLoader {
+
+        /**
+         * Maps binary class names to their bytecode.
+         */
+        private final Map<String, Bytecode> bytecodes;
+
+        IsolatedClassLoader(Map<String, Bytecode> classes) {
+            super(ClassLoader.getPlatformClassLoader());
+
+            bytecodes = new HashMap<>();
+
+            classes.values().forEach(bytecode -> {
+                try {
+                    var name = bytecode.className().replace('/', '.');
+                    bytecodes.put(name, bytecode);
+                } catch (RuntimeException e) {
+                    // malformed classes are simply not found
+                }
+            });
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            var bytecode = bytecodes.get(name);
+
+            if (bytecode == null)
+                throw new ClassNotFoundException(name);
+
+            return defineClass(name, bytecode.buffer(), (ProtectionDomain) null);
+        }
+    }
+
+    /**
+     * Thrown instead of terminating the JVM if a run calls
+     * {@link System#exit(int)}.
+     */
+    private static class ExitTrappedException extends SecurityException {
+        private static final long serialVersionUID = 1L;
+
+        ExitTrappedException(int status) {
+            super("System.exit(" + status + ") was trapped");
+        }
+    }
+
+    /**
+     * Security manager that allows everything except calls to
+     * {@link System#exit(int)} from threads that belong to a run.
+     */
+    private static class ExitTrap extends SecurityManager {
+
+        @Override
+        public void checkPermission(Permission perm) {
+        }
+
+        @Override
+        public void checkPermission(Permission perm, Object context) {
+        }
+
+        @Override
+        public void checkExit(int status) {
+            var run = RUN.get();
+
+            if (run != null) {
+                run.exitCode = status;
+                throw new ExitTrappedException(status);
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package at.jku.ssw.java.bytecode.reducer.io;
+
+import java.util.regex.Pattern;
+
+/**
+ * Decides whether the output of a program run is interesting.
+ * The output has to either contain a match of a given regular expression
+ * or exactly correspond to a given expected output.
+ * Additionally, a forbidden pattern may be given that must not occur
+ * in the output.
+ */
+public class OutputMatcher {
+
+    /**
+     * The pattern that the output has to contain.
+     */
+    private final Pattern expected;
+
+    /**
+     * Indicates whether the expected pattern describes the complete
+     * output (instead of a part of it).
+     */
+    private final boolean exact;
+
+    /**
+     * The pattern that the output must not contain
+     * ({@code null} if there is none).
+     */
+    private final Pattern forbidden;
+
+    /**
+     * Creates a new matcher for the given patterns.
+     *
+     * @param expected  The pattern that has to be found in the output
+     * @param exact     Flag that indicates whether the pattern describes
+     *                  the complete output
+     * @param forbidden The pattern that must not occur in the output
+     */
+    private OutputMatcher(Pattern expected, boolean exact, Pattern forbidden) {
+        this.expected = expected;
+        this.exact = exact;
+        this.forbidden = forbidden;
+    }
+
+    /**
+     * Creates a matcher that accepts outputs that contain a match
+     * of the given regular expression.
+     *
+     * @param regex The regular expression
+     * @return a new output matcher
+     */
+    public static OutputMatcher matching(String regex) {
+        return new OutputMatcher(Pattern.compile(regex, Pattern.MULTILINE), false, null);
+    }
+
+    /**
+     * Creates a matcher that only accepts the given output.
+     *
+     * @param output The exact expected output
+     * @return a new output matcher
+     */
+    public static OutputMatcher expecting(String output) {
+        return new OutputMatcher(Pattern.compile("\\A" + Pattern.quote(output) + "\\z"), true, null);
+    }
+
+    /**
+     * Creates a matcher that additionally rejects outputs that contain
+     * a match of the given regular expression.
+     *
+     * @param regex The regular expression ({@code null} if no output
+     *              is forbidden)
+     * @return a new output matcher
+     */
+    public OutputMatcher forbidding(String regex) {
+        return regex == null
+                ? this
+                : new OutputMatcher(expected, exact, Pattern.compile(regex, Pattern.MULTILINE));
+    }
+
+    /**
+     * Checks the given output.
+     *
+     * @param output The complete output of a program run
+     * @return {@code true} if the output is interesting,
+     * {@code false} otherwise
+     */
+    public boolean test(CharSequence output) {
+        return expected.matcher(output).find() &&
+                (forbidden == null || !forbidden.matcher(output).find());
+    }
+
+    /**
+     * Checks the output of a program that is still running.
+     * Only the part of the output starting at the given index is searched,
+     * therefore patterns should not span multiple lines.
+     *
+     * @param output The output that was produced so far
+     * @param from   The index from which on the output was not yet checked
+     * @return {@code true} if the output is interesting regardless of the
+     * remaining output, {@code false} if the output is not interesting
+     * regardless of the remaining output or {@code null} if this
+     * cannot be decided yet
+     */
+    public Boolean decide(CharSequence output, int from) {
+        if (find(forbidden, output, from))
+            return false;
+
+        // the exact output is only known once the program terminated
+        if (!exact && find(expected, output, from))
+            return true;
+
+        return null;
+    }
+
+    /**
+     * Searches the given pattern in the given part of the output.
+     *
+     * @param pattern The pattern (may be {@code null})
+     * @param output  The output
+     * @param from    The start index of the part
+     * @return {@code true} if the pattern is found
+     */
+    private static boolean find(Pattern pattern, CharSequence output, int from) {
+        return pattern != null && pattern.matcher(output)
+                .region(from, output.length())
+                .useAnchoringBounds(false)
+                .useTransparentBounds(true)
+                .find();
+    }
+
+    @Override
+    public String toString() {
+        return "OutputMatcher{" +
+                "expected=" + expected +
+                ", forbidden=" + forbidden +
+                '}';
+    }
+}
@@ -5,8 +5,15 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -21,12 +28,35 @@ public class ScriptRunner {
 
     public static final int EXIT_TIMEOUT = 9;
 
-    private final long timeout;
+    /**
+     * Exit code that indicates that the output of a script
+     * was not interesting.
+     */
+    public static final int EXIT_MISMATCH = 10;
+
+    /**
+     * Marks the end of the output of a script.
+     */
+    private static final char[] END_OF_OUTPUT = new char[0];
+
+    /**
+     * The timeout in milliseconds.
+     */
+    private volatile long timeout;
 
     public ScriptRunner(long timeout) {
         this.timeout = timeout;
     }
 
+    /**
+     * Sets the timeout for subsequent runs.
+     *
+     * @param timeout The timeout in milliseconds
+     */
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
     /**
      * Initializes a process to execute the script that is located at the given
      * path. This file must either be a batch (.bat) file (Windows)
@@ -61,19 +91,205 @@ public class ScriptRunner {
 
         var process = exec(script);
 
-        if (!process.waitFor(timeout, TimeUnit.SECONDS)) {
-            logger.warn("Execution of test {} took longer than {} seconds - it will be forcefully interrupted. Please provide your test files with a timeout to prevent infinite loops.", script, timeout);
-            // destroy children
-            process.descendants()
-                    .forEach(ProcessHandle::destroyForcibly);
-            // kill the process itself
-            process.destroyForcibly().waitFor();
-            return EXIT_TIMEOUT;
+        try {
+            if (!process.waitFor(timeout, TimeUnit.MILLISECONDS)) {
+                logger.warn("Execution of test {} took longer than {} ms - it will be forcefully interrupted. Please provide your test files with a timeout to prevent infinite loops.", script, timeout);
+                kill(process);
+                return EXIT_TIMEOUT;
+            }
+        } catch (InterruptedException e) {
+            // the result is no longer required (e.g. because a concurrent
+            // test already decided the outcome)
+            logger.debug("Execution of test {} was cancelled", script);
+            kill(process);
+            throw e;
         }
 
         return process.exitValue();
     }
 
+    /**
+     * Runs the file at the given path and checks its standard output
+     * (and error output) while it is running.
+     * As soon as the output is known to be interesting or not interesting
+     * (see {@link OutputMatcher#decide(CharSequence, int)}), the process
+     * (including its children) is killed.
+     * Otherwise the complete output is checked once the process terminated.
+     *
+     * @param script  The script to execute
+     * @param matcher Decides whether the output is interesting
+     * @return {@link #EXIT_SUCCESS} if the output is interesting,
+     * {@link #EXIT_TIMEOUT} if the timeout expired or
+     * {@link #EXIT_MISMATCH} otherwise
+     * @throws IOException          if the process initiation or reading
+     *                              the output fails
+     * @throws InterruptedException if the thread is interrupted while
+     *                              waiting for the result
+     * @see ScriptRunner#execBlocking(Path)
+     */
+    public int execMatching(Path script, OutputMatcher matcher)
+            throws IOException, InterruptedException {
+
+        var process = new ProcessBuilder()
+                .command(getCommand(script.getFileName().toString()))
+                .directory(script.getParent().toFile())
+                .redirectErrorStream(true)
+                .start();
+
+        // scripts that read the standard input must not wait for it
+        process.getOutputStream().close();
+
+        // the output is read by a separate thread, such that waiting
+        // for new output is bounded by the timeout
+        var chunks = new LinkedBlockingQueue<char[]>();
+        var reader = new Thread(() -> read(process, chunks), "output-" + script.getFileName());
+        reader.setDaemon(true);
+        reader.start();
+
+        var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        var output   = new StringBuilder();
+
+        try {
+            while (true) {
+                var chunk = chunks.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+
+                if (chunk == null) {
+                    logger.warn("Execution of test {} took longer than {} ms - it will be forcefully interrupted. Please provide your test files with a timeout to prevent infinite loops.", script, timeout);
+                    return EXIT_TIMEOUT;
+                }
+
+                // the output is complete
+                if (chunk == END_OF_OUTPUT)
+                    return matcher.test(output) ? EXIT_SUCCESS : EXIT_MISMATCH;
+
+                var checked = output.length();
+                output.append(chunk);
+
+                // also re-check the line that was incomplete before
+                var from     = output.lastIndexOf("\n", checked - 1) + 1;
+                var decision = matcher.decide(output, from);
+
+                if (decision != null) {
+                    logger.debug("Output of test {} decided the result early", script);
+                    return decision ? EXIT_SUCCESS : EXIT_MISMATCH;
+                }
+            }
+        } catch (InterruptedException e) {
+            logger.debug("Execution of test {} was cancelled", script);
+            throw e;
+        } finally {
+            // the reader stops once the output stream is closed
+            kill(process);
+        }
+    }
+
+    /**
+     * Reads the standard output of the given process until it is closed
+     * (e.g. because the process terminated or was killed) and passes it
+     * on in chunks, followed by {@link #END_OF_OUTPUT}.
+     *
+     * @param process The process whose output is read
+     * @param chunks  The queue that receives the read chunks
+     */
+    private static void read(Process process, BlockingQueue<char[]> chunks) {
+        var buffer = new char[8192];
+
+        try (var reader = new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8)) {
+            int n;
+            while ((n = reader.read(buffer)) >= 0)
+                chunks.add(Arrays.copyOf(buffer, n));
+        } catch (IOException e) {
+            // the stream was closed because the process was killed
+            logger.debug("Stopped reading the output of process {}: {}", process.pid(), e.getMessage());
+        } finally {
+            chunks.add(END_OF_OUTPUT);
+        }
+    }
+
+    /**
+     * Runs all given files concurrently and blocks until either all
+     * processes completed successfully or any process failed.
+     * As soon as one process fails (or the timeout expires), the
+     * remaining processes (including their children) are killed.
+     *
+     * @param scripts The scripts to execute
+     * @return {@link #EXIT_SUCCESS} if all scripts succeeded,
+     * {@link #EXIT_TIMEOUT} if the timeout expired or the exit code
+     * of the first failing script
+     * @throws IOException          if the process initiation fails
+     * @throws InterruptedException if the thread is interrupted while
+     *                              waiting for the results
+     * @see ScriptRunner#execBlocking(Path)
+     */
+    public int execAllBlocking(Collection<Path> scripts)
+            throws IOException, InterruptedException {
+
+        var processes = new IdentityHashMap<Process, Path>();
+        var completed = new LinkedBlockingQueue<Process>();
+
+        try {
+            for (var script : scripts) {
+                var process = exec(script);
+                processes.put(process, script);
+                process.onExit().thenAccept(completed::add);
+            }
+
+            var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+            for (int i = 0; i < scripts.size(); i++) {
+                var process = completed.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+
+                if (process == null) {
+                    logger.warn("Execution of tests {} took longer than {} ms - they will be forcefully interrupted. Please provide your test files with a timeout to prevent infinite loops.", scripts, timeout);
+                    return EXIT_TIMEOUT;
+                }
+
+                var exitCode = process.exitValue();
+
+                if (exitCode != EXIT_SUCCESS) {
+                    logger.debug("Test {} failed - cancelling the remaining tests", processes.get(process));
+                    return exitCode;
+                }
+            }
+
+            return EXIT_SUCCESS;
+        } catch (InterruptedException e) {
+            logger.debug("Execution of tests {} was cancelled", scripts);
+            throw e;
+        } finally {
+            // only processes that are still running are affected
+            processes.keySet().forEach(ScriptRunner::kill);
+        }
+    }
+
+    /**
+     * Forcefully terminates the given process and all of its children.
+     * Waiting for the termination is not interruptible, as the process
+     * has to be gone before its working directory is reused.
+     *
+     * @param process The process to kill
+     */
+    static void kill(Process process) {
+        // destroy children
+        process.descendants()
+                .forEach(ProcessHandle::destroyForcibly);
+        // kill the process itself
+        process.destroyForcibly();
+
+        var interrupted = false;
+
+        while (process.isAlive()) {
+            try {
+                process.waitFor();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
     /**
      * Returns the command and argument list to run the given file.
      * Here the appropriate command for the current
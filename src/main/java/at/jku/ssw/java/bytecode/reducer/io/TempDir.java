@@ -9,6 +9,10 @@ import java.nio.file.AccessDeniedException;
 import java.nio.file.Files;
 import java.nio.file.NotDirectoryException;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.function.Consumer;
 
 /**
@@ -23,6 +27,25 @@ public class TempDir {
      */
     private static final Logger logger = LogManager.getLogger();
 
+    /**
+     * Locations that are usually backed by memory (if available).
+     */
+    private static final List<String> MEMORY_LOCATIONS = List.of(
+            "/dev/shm",
+            Objects.toString(System.getenv("XDG_RUNTIME_DIR"), "")
+    );
+
+    /**
+     * The file system types that are backed by memory.
+     */
+    private static final Set<String> MEMORY_FILE_SYSTEMS = Set.of("tmpfs", "ramfs");
+
+    /**
+     * The prefix of the directory that is created in a memory-backed location
+     * (followed by a unique suffix, as concurrent runs share the location).
+     */
+    private static final String MEMORY_DIR = NamingStrategy.PREFIX + NamingStrategy.SEPARATOR + "jreduce" + NamingStrategy.SEPARATOR;
+
     /**
      * The path at which the directory is created.
      */
@@ -82,6 +105,54 @@ public class TempDir {
         return new TempDir(strategy, path);
     }
 
+    /**
+     * Creates a new directory for temporary directories on a memory-backed
+     * file system (e.g. {@code /dev/shm}).
+     * If no such file system is available, the given fallback path is used.
+     *
+     * @param fallback The location to use if no memory-backed file
+     *                 system is available
+     * @return the path to the location
+     */
+    public static Path inMemory(Path fallback) {
+        return inMemory(fallback, MEMORY_LOCATIONS);
+    }
+
+    /**
+     * Creates a new directory in the first of the given locations
+     * that is backed by memory.
+     *
+     * @param fallback  The location to use if no memory-backed file
+     *                  system is available
+     * @param locations The locations that are checked in order
+     * @return the path to the location
+     */
+    static Path inMemory(Path fallback, List<String> locations) {
+        for (var location : locations) {
+            if (location.isEmpty())
+                continue;
+
+            var path = Paths.get(location);
+
+            try {
+                if (Files.isDirectory(path) &&
+                        Files.isWritable(path) &&
+                        MEMORY_FILE_SYSTEMS.contains(Files.getFileStore(path).type())) {
+
+                    var dir = Files.createTempDirectory(path, MEMORY_DIR);
+
+                    logger.debug("Using memory-backed temporary directory at {}", dir);
+                    return dir;
+                }
+            } catch (IOException e) {
+                logger.debug("Could not use {}", path, e);
+            }
+        }
+
+        logger.warn("No memory-backed file system available - using {} instead", fallback);
+        return fallback;
+    }
+
     /**
      * Executes the given procedure in the created temporary directory
      * and then deletes it (if specified).
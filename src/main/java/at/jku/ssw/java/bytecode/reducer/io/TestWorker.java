@@ -0,0 +1,76 @@
+package at.jku.ssw.java.bytecode.reducer.io;
+
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+/**
+ * Entry point of the worker JVMs that are managed by a {@link WorkerPool}.
+ * A worker reads run requests from its standard input, runs each program
+ * in isolation (see {@link InProcessRunner}) and writes the results
+ * to its standard output, until the input is closed.
+ * <p>
+ * A request consists of the main class name, the timeout in milliseconds,
+ * the number of classes and the name, length and bytecode of each class.
+ * The response consists of the exit code, the output length
+ * and the UTF-8 encoded output.
+ */
+public final class TestWorker {
+
+    private TestWorker() {
+    }
+
+    /**
+     * Runs the worker.
+     *
+     * @param args Not used
+     * @throws IOException          if the communication with
+     *                              the reducer fails
+     * @throws InterruptedException if the worker is interrupted
+     */
+    public static void main(String[] args)
+            throws IOException, InterruptedException {
+
+        // claim the standard streams for the protocol before anything
+        // (e.g. the logger or the programs) can write to them
+        var in  = new DataInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in)));
+        var out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+
+        System.setIn(new ByteArrayInputStream(new byte[0]));
+        System.setOut(System.err);
+
+        var runner = new InProcessRunner(0);
+
+        while (true) {
+            String mainClass;
+            try {
+                mainClass = in.readUTF();
+            } catch (EOFException e) {
+                // the reducer retired this worker
+                return;
+            }
+
+            runner.setTimeout(in.readLong());
+
+            var n       = in.readInt();
+            var classes = new HashMap<String, Bytecode>(n);
+
+            for (int i = 0; i < n; i++) {
+                var name     = in.readUTF();
+                var bytecode = new byte[in.readInt()];
+                in.readFully(bytecode);
+                classes.put(name, Bytecode.wrap(bytecode));
+            }
+
+            var result = runner.run(mainClass, classes);
+            var output = result.output.getBytes(StandardCharsets.UTF_8);
+
+            out.writeInt(result.exitCode);
+            out.writeInt(output.length);
+            out.write(output);
+            out.flush();
+        }
+    }
+}
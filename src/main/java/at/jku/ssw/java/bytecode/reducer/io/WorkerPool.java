@@ -0,0 +1,305 @@
+package at.jku.ssw.java.bytecode.reducer.io;
+
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs programs in long-lived worker JVMs (see {@link TestWorker}).
+ * This keeps the isolation of separate processes (programs may
+ * terminate the JVM, corrupt static state or hang) while avoiding the
+ * JVM startup and warm-up for every run.
+ * Workers are started on demand (one per concurrent run) and are
+ * replaced after a number of runs, after a timeout or if they terminate.
+ */
+public class WorkerPool implements ClassRunner {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The default number of runs after which a worker is replaced.
+     */
+    public static final int DEFAULT_RUNS = 100;
+
+    /**
+     * Time in milliseconds that a worker is given in addition to the
+     * timeout to report a run that it interrupted itself.
+     */
+    private static final long GRACE_PERIOD = 1000;
+
+    /**
+     * Interval in milliseconds in which the workers' outputs are checked
+     * for results.
+     */
+    private static final long POLL_INTERVAL = 1;
+
+    /**
+     * The timeout in milliseconds.
+     */
+    private volatile long timeout;
+
+    /**
+     * The timeout in milliseconds for the first run of each worker,
+     * which includes the warm-up of the JVM.
+     */
+    private final long initialTimeout;
+
+    /**
+     * The number of runs after which a worker is replaced.
+     */
+    private final int maxRuns;
+
+    /**
+     * The workers that are currently not in use.
+     */
+    private final BlockingQueue<Worker> idle = new LinkedBlockingQueue<>();
+
+    /**
+     * All running workers.
+     */
+    private final Set<Worker> workers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Indicates whether the pool was closed.
+     */
+    private volatile boolean closed = false;
+
+    public WorkerPool(long timeout, int maxRuns) {
+        this.timeout = timeout;
+        this.initialTimeout = timeout;
+        this.maxRuns = maxRuns;
+    }
+
+    @Override
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * A worker process and the streams to communicate with it.
+     */
+    private static class Worker {
+        final Process process;
+        final DataOutputStream requests;
+        final DataInputStream responses;
+        int runs = 0;
+
+        Worker(Process process) {
+            this.process = process;
+            this.requests = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+            this.responses = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        }
+    }
+
+    /**
+     * Runs the main method of the given class in an idle worker.
+     * If the current thread is interrupted, the worker finishes the run
+     * in the background and is reused afterwards.
+     *
+     * @see ClassRunner#run(String, Map)
+     */
+    @Override
+    public Result run(String mainClass, Map<String, Bytecode> classes)
+            throws InterruptedException {
+
+        Worker worker  = null;
+        long   timeout = this.timeout;
+
+        try {
+            worker = acquire();
+
+            // a cold worker is not subject to tightened timeouts
+            if (worker.runs == 0)
+                timeout = Math.max(timeout, initialTimeout);
+
+            worker.requests.writeUTF(mainClass);
+            worker.requests.writeLong(timeout);
+            worker.requests.writeInt(classes.size());
+
+            // the bytecodes are written without copying them
+            var channel = Channels.newChannel(worker.requests);
+
+            for (var entry : classes.entrySet()) {
+                worker.requests.writeUTF(entry.getKey());
+                worker.requests.writeInt(entry.getValue().length());
+                channel.write(entry.getValue().buffer());
+            }
+
+            worker.requests.flush();
+        } catch (IOException e) {
+            logger.warn("Could not pass the program to a worker JVM", e);
+
+            if (worker != null)
+                retire(worker);
+
+            return new Result(InProcessRunner.EXIT_FAILURE, "");
+        }
+
+        final var current  = worker;
+        final var limit    = timeout;
+        final var deadline = System.nanoTime() +
+                TimeUnit.MILLISECONDS.toNanos(timeout) +
+                TimeUnit.MILLISECONDS.toNanos(GRACE_PERIOD);
+
+        try {
+            return receive(current, deadline, limit);
+        } catch (InterruptedException e) {
+            // the result is no longer required, but the worker
+            // is still valid once the current run is finished
+            var drain = new Thread(() -> {
+                try {
+                    receive(current, deadline, limit);
+                } catch (InterruptedException ignored) {
+                    retire(current);
+                }
+            }, "jreduce-worker-drain");
+
+            drain.setDaemon(true);
+            drain.start();
+
+            throw e;
+        }
+    }
+
+    /**
+     * Terminates all workers.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        idle.clear();
+        new ArrayList<>(workers).forEach(this::retire);
+    }
+
+    /**
+     * Waits for the result of the current run of the given worker and
+     * returns the worker to the pool (or replaces it).
+     *
+     * @param worker   The worker that executes the run
+     * @param deadline The time (see {@link System#nanoTime()}) after
+     *                 which the worker is killed
+     * @param timeout  The timeout of the run in milliseconds
+     * @return the result of the run
+     * @throws InterruptedException if the thread is interrupted while
+     *                              waiting for the result
+     */
+    private Result receive(Worker worker, long deadline, long timeout)
+            throws InterruptedException {
+
+        try {
+            while (worker.responses.available() < Integer.BYTES) {
+                if (!worker.process.isAlive()) {
+                    // the program terminated the worker
+                    // (e.g. if System.exit could not be trapped)
+                    retire(worker);
+                    return new Result(worker.process.exitValue(), "");
+                }
+
+                if (System.nanoTime() - deadline > 0) {
+                    logger.warn("Worker JVM {} did not respond within {} ms - it will be forcefully interrupted.", worker.process.pid(), timeout);
+                    retire(worker);
+                    return new Result(ScriptRunner.EXIT_TIMEOUT, "");
+                }
+
+                Thread.sleep(POLL_INTERVAL);
+            }
+
+            var exitCode = worker.responses.readInt();
+            var output   = new byte[worker.responses.readInt()];
+            worker.responses.readFully(output);
+
+            release(worker, exitCode);
+
+            return new Result(exitCode, new String(output, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("Worker JVM {} failed", worker.process.pid(), e);
+            retire(worker);
+            return new Result(InProcessRunner.EXIT_FAILURE, "");
+        }
+    }
+
+    /**
+     * Returns an idle worker or starts a new one if none is available.
+     *
+     * @return the worker
+     * @throws IOException if the worker process cannot be started
+     */
+    private Worker acquire() throws IOException {
+        Worker worker;
+        while ((worker = idle.poll()) != null) {
+            if (worker.process.isAlive())
+                return worker;
+
+            retire(worker);
+        }
+
+        var command = new ArrayList<String>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+
+        // newer platforms only allow to install the exit trap if enabled
+        if (Runtime.version().feature() >= 12)
+            command.add("-Djava.security.manager=allow");
+
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(TestWorker.class.getName());
+
+        worker = new Worker(
+                new ProcessBuilder(command)
+                        .redirectError(ProcessBuilder.Redirect.DISCARD)
+                        .start()
+        );
+
+        workers.add(worker);
+
+        logger.debug("Started worker JVM {}", worker.process.pid());
+
+        return worker;
+    }
+
+    /**
+     * Returns the given worker to the pool after a run, unless
+     * it has to be replaced.
+     *
+     * @param worker   The worker
+     * @param exitCode The exit code of the last run
+     */
+    private void release(Worker worker, int exitCode) {
+        // a run that timed out may leave stopped threads behind
+        if (closed || exitCode == ScriptRunner.EXIT_TIMEOUT || ++worker.runs >= maxRuns)
+            retire(worker);
+        else
+            idle.add(worker);
+    }
+
+    /**
+     * Terminates the given worker.
+     *
+     * @param worker The worker
+     */
+    private void retire(Worker worker) {
+        workers.remove(worker);
+
+        try {
+            worker.requests.close();
+        } catch (IOException ignored) {
+            // the process is killed anyway
+        }
+
+        ScriptRunner.kill(worker.process);
+
+        logger.debug("Retired worker JVM {} after {} runs", worker.process.pid(), worker.runs);
+    }
+}
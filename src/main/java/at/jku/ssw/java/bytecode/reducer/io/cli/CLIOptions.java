@@ -14,6 +14,17 @@ public interface CLIOptions {
     String I_TESTS    = "i";
     String KEEP_TEMP  = "k";
     String TIMEOUT    = "t";
+    String ADAPTIVE   = "at";
     String FILTER     = "f";
     String LIST       = "l";
+    String JOBS       = "j";
+    String MAIN_CLASS = "main";
+    String MATCH      = "m";
+    String EXPECT     = "e";
+    String FORBID     = "x";
+    String FORK       = "fork";
+    String FORK_RUNS  = "fr";
+    String RAM_TEMP   = "ram";
+    String PARALLEL   = "p";
+    String VERIFY     = "vf";
 }
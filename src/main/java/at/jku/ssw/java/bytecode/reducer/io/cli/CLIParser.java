@@ -11,6 +11,8 @@ import org.apache.logging.log4j.io.IoBuilder;
 
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 public class CLIParser {
     private static final Logger logger = LogManager.getLogger();
@@ -64,12 +66,56 @@ public class CLIParser {
                 .ofNullable(cmd.getOptionValues(CLIOptions.I_TESTS))
                 .orElse(new String[0]);
 
-        long timeout = Optional
-                .ofNullable((Number) getArg(cmd, CLIOptions.TIMEOUT))
-                .map(Number::longValue)
-                .orElse(-1L);
+        String timeoutArg = getArg(cmd, CLIOptions.TIMEOUT);
+        long   timeout    = timeoutArg == null ? -1L : parseTimeout(timeoutArg);
+
+        double timeoutFactor = Optional
+                .ofNullable((Number) getArg(cmd, CLIOptions.ADAPTIVE))
+                .map(Number::doubleValue)
+                .orElse(0.0);
+
+        if (timeoutFactor < 0 || timeoutFactor > 0 && timeoutFactor < 1)
+            throw new ParseException("The adaptive timeout factor must be at least 1");
+
+        int jobs = Optional
+                .ofNullable((Number) getArg(cmd, CLIOptions.JOBS))
+                .map(Number::intValue)
+                .orElse(-1);
+
+        if (jobs == 0 || jobs < -1)
+            throw new ParseException("The number of jobs must be positive");
+
+        String mainClass = getArg(cmd, CLIOptions.MAIN_CLASS);
+        String match     = getArg(cmd, CLIOptions.MATCH);
+        String expect    = getArg(cmd, CLIOptions.EXPECT);
+        String forbid    = getArg(cmd, CLIOptions.FORBID);
+
+        if (mainClass != null && match == null && expect == null)
+            throw new ParseException("In-process tests require either an output pattern or an expected output file");
+
+        if (forbid != null && match == null && expect == null)
+            throw new ParseException("A forbidden pattern requires either an output pattern or an expected output file");
+
+        boolean fork = cmd.hasOption(CLIOptions.FORK);
+
+        int forkRuns = Optional
+                .ofNullable((Number) getArg(cmd, CLIOptions.FORK_RUNS))
+                .map(Number::intValue)
+                .orElse(-1);
+
+        if (fork && mainClass == null)
+            throw new ParseException("Worker JVMs require a main class");
+
+        if (forkRuns == 0 || forkRuns < -1)
+            throw new ParseException("The number of runs per worker JVM must be positive");
 
         boolean keepTemp = cmd.hasOption(CLIOptions.KEEP_TEMP);
+        boolean ramTemp  = cmd.hasOption(CLIOptions.RAM_TEMP);
+        boolean parallel = cmd.hasOption(CLIOptions.PARALLEL);
+        boolean verify   = cmd.hasOption(CLIOptions.VERIFY);
+
+        if (parallel && mainClass == null && (match != null || expect != null))
+            throw new ParseException("Parallel tests cannot be combined with output matching");
 
         // if no explicit tests are provided with the option,
         // the first file is assumed to be the test
@@ -86,8 +132,42 @@ public class CLIParser {
                 tmp,
                 filters,
                 keepTemp,
-                timeout
-        );
+                -1L
+        ).withTimeoutMillis(timeout)
+                .withAdaptiveTimeout(timeoutFactor)
+                .withJobs(jobs)
+                .withMainClass(mainClass)
+                .withOutputPattern(match)
+                .withExpectedOutput(expect)
+                .withForbiddenPattern(forbid)
+                .withFork(fork)
+                .withForkRuns(forkRuns)
+                .withMemoryTemp(ramTemp)
+                .withConcurrentTests(parallel)
+                .withVerification(verify);
+    }
+
+    /**
+     * Parses a timeout with an optional unit ({@code ms} or {@code s}).
+     * Values without unit are interpreted as seconds.
+     *
+     * @param value The timeout argument (e.g. {@code 10}, {@code 500ms})
+     * @return the timeout in milliseconds
+     * @throws ParseException if the value is not a positive duration
+     */
+    private static long parseTimeout(String value) throws ParseException {
+        var matcher = Pattern.compile("(\\d+)\\s*(ms|s)?").matcher(value.trim());
+
+        if (!matcher.matches())
+            throw new ParseException("Invalid timeout: " + value);
+
+        var amount = Long.parseLong(matcher.group(1));
+        var millis = "ms".equals(matcher.group(2)) ? amount : TimeUnit.SECONDS.toMillis(amount);
+
+        if (millis <= 0)
+            throw new ParseException("The timeout must be positive");
+
+        return millis;
     }
 
     @SuppressWarnings("unchecked")
@@ -192,13 +272,76 @@ public class CLIParser {
         logging.setRequired(false);
 
         Option timeout = Option.builder(CLIOptions.TIMEOUT)
-                .desc("The timeout in seconds until runs of the test files are interrupted (to prevent infinite loops)")
+                .desc("The timeout until runs of the test files are interrupted (to prevent infinite loops) in seconds or with unit (e.g. 500ms)")
                 .longOpt("timeout")
                 .hasArg(true)
                 .required(false)
+                .build();
+
+        Option adaptive = Option.builder(CLIOptions.ADAPTIVE)
+                .desc("Time the tests on the original classes and use the given multiple of the runtime as timeout (tightened as the program shrinks)")
+                .longOpt("adaptive-timeout")
+                .hasArg(true)
+                .required(false)
+                .type(Number.class)
+                .build();
+
+        Option jobs = Option.builder(CLIOptions.JOBS)
+                .desc("The number of candidates that are tested concurrently (each in a separate test directory)")
+                .longOpt("jobs")
+                .hasArg(true)
+                .required(false)
                 .type(Number.class)
                 .build();
 
+        Option mainClass = Option.builder(CLIOptions.MAIN_CLASS)
+                .desc("Run the main method of the given class in-process instead of the interestingness tests")
+                .longOpt("main-class")
+                .hasArg(true)
+                .required(false)
+                .build();
+
+        Option match = Option.builder(CLIOptions.MATCH)
+                .desc("The regular expression that the output of test runs has to contain (test scripts are stopped once it occurs)")
+                .longOpt("match")
+                .hasArg(true)
+                .required(false)
+                .build();
+
+        Option expect = Option.builder(CLIOptions.EXPECT)
+                .desc("The file that holds the exact output that test runs have to produce")
+                .longOpt("expect")
+                .hasArg(true)
+                .required(false)
+                .build();
+
+        Option fork = Option.builder(CLIOptions.FORK)
+                .desc("Run the main class in reusable worker JVMs instead of the reducer's JVM")
+                .longOpt("fork")
+                .hasArg(false)
+                .required(false)
+                .build();
+
+        Option forkRuns = Option.builder(CLIOptions.FORK_RUNS)
+                .desc("The number of runs after which a worker JVM is replaced")
+                .longOpt("fork-runs")
+                .hasArg(true)
+                .required(false)
+                .type(Number.class)
+                .build();
+
+        Option forbid = Option.builder(CLIOptions.FORBID)
+                .desc("The regular expression that must not occur in the output of test runs (test scripts are stopped once it occurs)")
+                .longOpt("forbid")
+                .hasArg(true)
+                .required(false)
+                .build();
+
+        OptionGroup expected = new OptionGroup()
+                .addOption(match)
+                .addOption(expect);
+        expected.setRequired(false);
+
         Option filter = Option.builder(CLIOptions.FILTER)
                 .desc("Choose individual operations or modules to apply")
                 .longOpt("filter")
@@ -210,6 +353,9 @@ public class CLIParser {
         options.addOption(CLIOptions.HELP, CLIOptions.HELP, false, "Display information about application usage")
                 .addOption(CLIOptions.VERSION, CLIOptions.VERSION, false, "Print program version")
                 .addOption(CLIOptions.KEEP_TEMP, "keep", false, "Keep temporary test directories and files")
+                .addOption(CLIOptions.PARALLEL, "parallel-tests", false, "Run the interestingness tests of a candidate concurrently (each in its own copy of the test directory) and cancel them as soon as one fails")
+                .addOption(CLIOptions.RAM_TEMP, "ram-temp", false, "Place the temporary directories on a memory-backed file system (e.g. /dev/shm) if available")
+                .addOption(CLIOptions.VERIFY, "verify", false, "Verify candidates in-process and reject those that fail the bytecode verification without running the tests")
                 .addOption(CLIOptions.LIST, "list-modules", false, "List all available transformation modules")
                 .addOption(workingDir)
                 .addOption(outDir)
@@ -217,6 +363,13 @@ public class CLIParser {
                 .addOptionGroup(logging)
                 .addOption(iTest)
                 .addOption(timeout)
+                .addOption(adaptive)
+                .addOption(jobs)
+                .addOption(mainClass)
+                .addOptionGroup(expected)
+                .addOption(forbid)
+                .addOption(fork)
+                .addOption(forkRuns)
                 .addOption(filter);
 
         return options;
@@ -0,0 +1,112 @@
+package at.jku.ssw.java.bytecode.reducer.modules.classes;
+
+import at.jku.ssw.java.bytecode.reducer.annot.Unsound;
+import at.jku.ssw.java.bytecode.reducer.context.ReferenceIndex;
+import at.jku.ssw.java.bytecode.reducer.runtypes.CacheReducer;
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import at.jku.ssw.java.bytecode.reducer.utils.DeltaDebugging;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
+
+/**
+ * Removes whole class files. The classes are minimized via delta debugging,
+ * where the classes that are not referenced by any other class are
+ * attempted first (followed by the classes that are only referenced
+ * by those and so on).
+ */
+@Unsound
+public class RemoveClasses implements CacheReducer {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    @Override
+    public Map<String, Bytecode> reduce(Map<String, Bytecode> classes,
+                                        ReferenceIndex references,
+                                        Predicate<Map<String, Bytecode>> test,
+                                        ExecutorService executor,
+                                        int jobs) throws Exception {
+
+        var order = order(classes.keySet(), references);
+
+        var reduced = DeltaDebugging.minimize(
+                order,
+                classes,
+                kept -> {
+                    var candidate = new HashMap<>(classes);
+                    candidate.keySet().retainAll(kept);
+                    return Collections.unmodifiableMap(candidate);
+                },
+                test,
+                executor,
+                jobs
+        );
+
+        if (reduced.size() < classes.size()) {
+            var removed = new TreeSet<>(classes.keySet());
+            removed.removeAll(reduced.keySet());
+
+            logger.debug("Removing classes {}", removed);
+        }
+
+        return reduced;
+    }
+
+    /**
+     * Orders the given classes such that each class precedes the classes
+     * that it references. Classes that reference each other are ordered
+     * by their names.
+     *
+     * @param classes    The file names of the classes
+     * @param references The references between the classes
+     * @return the ordered file names
+     */
+    private static List<String> order(Set<String> classes, ReferenceIndex references) {
+        // maps the internal class names to the file names
+        var files = new HashMap<String, String>();
+        for (var file : classes) {
+            var name = references.className(file);
+
+            if (name != null)
+                files.put(name, file);
+        }
+
+        // the number of other classes that reference each class
+        Map<String, Integer> referrers = new HashMap<>();
+        classes.forEach(c -> referrers.put(c, 0));
+
+        for (var file : classes)
+            for (var dependency : references.dependencies(file))
+                if (files.containsKey(dependency))
+                    referrers.merge(files.get(dependency), 1, Integer::sum);
+
+        var order     = new ArrayList<String>(classes.size());
+        var remaining = new TreeSet<>(classes);
+
+        while (!remaining.isEmpty()) {
+            var next = remaining.stream()
+                    .filter(c -> referrers.get(c) == 0)
+                    .findFirst()
+                    // break cycles
+                    .orElse(remaining.first());
+
+            remaining.remove(next);
+            order.add(next);
+
+            for (var dependency : references.dependencies(next))
+                if (files.containsKey(dependency))
+                    referrers.merge(files.get(dependency), -1, Integer::sum);
+        }
+
+        return order;
+    }
+}
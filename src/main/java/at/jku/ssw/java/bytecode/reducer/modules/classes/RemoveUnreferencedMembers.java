@@ -0,0 +1,302 @@
+package at.jku.ssw.java.bytecode.reducer.modules.classes;
+
+import at.jku.ssw.java.bytecode.reducer.annot.Unsound;
+import at.jku.ssw.java.bytecode.reducer.context.ReferenceIndex;
+import at.jku.ssw.java.bytecode.reducer.runtypes.CacheReducer;
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import at.jku.ssw.java.bytecode.reducer.utils.DeltaDebugging;
+import at.jku.ssw.java.bytecode.reducer.utils.javassist.Members;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.MethodVisitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.objectweb.asm.Opcodes.ASM6;
+import static org.objectweb.asm.Opcodes.H_PUTSTATIC;
+
+/**
+ * Removes the methods and fields that no class (including the declaring
+ * class) references, from all classes at once.
+ * The references of other classes are looked up via the class-scoped
+ * queries of the {@link ReferenceIndex} (which consider the owners
+ * of the references), while the references within the declaring class
+ * are only matched by name and descriptor.
+ * If the result is not interesting, the members that are required
+ * are determined via delta debugging. As removing members may render
+ * other members unreferenced (e.g. methods that were only called by
+ * removed methods), this is repeated until no further member can be removed.
+ * <p>
+ * Methods that are only invoked by the platform (e.g. overridden
+ * {@code toString} methods) are not referenced by any class either,
+ * therefore the removal may fail the tests.
+ */
+@Unsound
+public class RemoveUnreferencedMembers implements CacheReducer {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    @Override
+    public Map<String, Bytecode> reduce(Map<String, Bytecode> classes,
+                                        ReferenceIndex references,
+                                        Predicate<Map<String, Bytecode>> test,
+                                        ExecutorService executor,
+                                        int jobs) throws Exception {
+
+        var current = classes;
+
+        for (; ; ) {
+            var base    = current;
+            var members = unreferenced(base, references);
+
+            if (members.isEmpty())
+                return base;
+
+            logger.debug("Found {} unreferenced members", members.size());
+
+            var forced = without(base, members);
+
+            // try forced result (assumed to be minimal)
+            var reduced = test.test(forced)
+                    ? forced
+                    : DeltaDebugging.minimize(
+                    members,
+                    base,
+                    kept -> {
+                        var removed = new ArrayList<>(members);
+                        removed.removeAll(kept);
+                        return without(base, removed);
+                    },
+                    test,
+                    executor,
+                    jobs
+            );
+
+            // no member could be removed
+            if (reduced == base)
+                return base;
+
+            // only the classes whose members were removed are analyzed again
+            for (var file : reduced.keySet())
+                if (reduced.get(file) != base.get(file))
+                    references.update(file, reduced.get(file));
+
+            current = reduced;
+        }
+    }
+
+    /**
+     * Collects the members that are not referenced by any class.
+     * Constructors, static initializers and main methods are excluded.
+     *
+     * @param classes    The class configuration
+     * @param references The references between the classes
+     * @return the unreferenced members (ordered by file and declaration)
+     */
+    private static List<Member> unreferenced(Map<String, Bytecode> classes,
+                                             ReferenceIndex references) {
+        var members = new ArrayList<Member>();
+
+        for (var file : new TreeSet<>(classes.keySet())) {
+            try {
+                var reader = new ClassReader(classes.get(file).toArray());
+                var name   = reader.getClassName();
+                var used   = SelfReferences.of(reader);
+
+                reader.accept(new ClassVisitor(ASM6) {
+                    @Override
+                    public FieldVisitor visitField(int access, String field, String descriptor, String signature, Object value) {
+                        if (!used.contains(field + ":" + descriptor) &&
+                                !references.isFieldReferenced(name, field, descriptor))
+                            members.add(new Member(file, field, descriptor, true));
+
+                        return null;
+                    }
+
+                    @Override
+                    public MethodVisitor visitMethod(int access, String method, String descriptor, String signature, String[] exceptions) {
+                        if (!method.startsWith("<") &&
+                                !(method.equals("main") && descriptor.equals(Members.MAIN_SIGNATURE)) &&
+                                !used.contains(method + descriptor) &&
+                                !references.isMethodReferenced(name, method, descriptor))
+                            members.add(new Member(file, method, descriptor, false));
+
+                        return null;
+                    }
+                }, ClassReader.SKIP_CODE);
+            } catch (RuntimeException e) {
+                // the members of malformed classes are not removed
+                logger.debug("Skipping the malformed class {}", file);
+            }
+        }
+
+        return members;
+    }
+
+    /**
+     * Removes the given members from the given class configuration.
+     *
+     * @param classes The class configuration
+     * @param members The members to remove
+     * @return the resulting configuration
+     */
+    private static Map<String, Bytecode> without(Map<String, Bytecode> classes,
+                                                 List<Member> members) {
+        var result = new HashMap<>(classes);
+
+        var byFile = members.stream()
+                .collect(Collectors.groupingBy(m -> m.file, Collectors.toSet()));
+
+        byFile.forEach((file, removed) -> {
+            var fields  = new HashSet<String>();
+            var methods = new HashSet<String>();
+
+            for (var member : removed)
+                (member.isField ? fields : methods).add(member.name + member.descriptor);
+
+            result.put(file, Bytecode.wrap(remove(classes.get(file), fields, methods)));
+        });
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Removes the given members from the given class.
+     *
+     * @param bytecode The bytecode of the class
+     * @param fields   The names and descriptors of the removed fields
+     * @param methods  The names and descriptors of the removed methods
+     * @return the resulting bytecode
+     */
+    private static byte[] remove(Bytecode bytecode, Set<String> fields, Set<String> methods) {
+        // the constant pool is rebuilt, such that the constants
+        // that were only used by the removed members are dropped
+        var cw = new ClassWriter(0);
+
+        new ClassReader(bytecode.toArray()).accept(new ClassVisitor(ASM6, cw) {
+            @Override
+            public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+                if (fields.contains(name + descriptor)) {
+                    logger.debug("Removing field '{}'", name);
+                    return null;
+                }
+
+                return super.visitField(access, name, descriptor, signature, value);
+            }
+
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                if (methods.contains(name + descriptor)) {
+                    logger.debug("Removing method '{}{}'", name, descriptor);
+                    return null;
+                }
+
+                return super.visitMethod(access, name, descriptor, signature, exceptions);
+            }
+        }, 0);
+
+        return cw.toByteArray();
+    }
+
+    /**
+     * Collects the members that a class references itself
+     * (regardless of their owners), including the targets of
+     * method handles (e.g. lambda bodies).
+     */
+    private static final class SelfReferences extends ClassVisitor {
+
+        /**
+         * The referenced methods (name and descriptor) and fields
+         * (name, colon and descriptor).
+         */
+        private final Set<String> members = new HashSet<>();
+
+        private SelfReferences() {
+            super(ASM6);
+        }
+
+        static Set<String> of(ClassReader reader) {
+            var refs = new SelfReferences();
+
+            reader.accept(refs, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+            return refs.members;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            return new MethodVisitor(api) {
+                @Override
+                public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+                    members.add(name + descriptor);
+                }
+
+                @Override
+                public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+                    members.add(name + ":" + descriptor);
+                }
+
+                @Override
+                public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
+                    addConstant(bootstrapMethodHandle);
+
+                    for (var argument : bootstrapMethodArguments)
+                        addConstant(argument);
+                }
+
+                @Override
+                public void visitLdcInsn(Object value) {
+                    addConstant(value);
+                }
+            };
+        }
+
+        private void addConstant(Object value) {
+            if (!(value instanceof Handle))
+                return;
+
+            var handle = (Handle) value;
+
+            members.add(handle.getTag() <= H_PUTSTATIC
+                    ? handle.getName() + ":" + handle.getDesc()
+                    : handle.getName() + handle.getDesc());
+        }
+    }
+
+    /**
+     * A field or method of a class.
+     */
+    private static final class Member {
+        final String file;
+        final String name;
+        final String descriptor;
+        final boolean isField;
+
+        Member(String file, String name, String descriptor, boolean isField) {
+            this.file = file;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.isField = isField;
+        }
+
+        @Override
+        public String toString() {
+            return file + ":" + name + (isField ? ":" : "") + descriptor;
+        }
+    }
+}
@@ -3,7 +3,9 @@ package at.jku.ssw.java.bytecode.reducer.modules.cleanup;
 import at.jku.ssw.java.bytecode.reducer.annot.Sound;
 import at.jku.ssw.java.bytecode.reducer.runtypes.ForcibleReducer;
 import at.jku.ssw.java.bytecode.reducer.states.State;
+import at.jku.ssw.java.bytecode.reducer.utils.DeltaDebugging;
 import at.jku.ssw.java.bytecode.reducer.utils.cachetypes.CodePosition;
+import at.jku.ssw.java.bytecode.reducer.utils.cachetypes.MemberIds;
 import at.jku.ssw.java.bytecode.reducer.visitors.IndexedVisitor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -12,20 +14,102 @@ import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.MethodVisitor;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 
 import static org.objectweb.asm.Opcodes.ASM6;
 import static org.objectweb.asm.Opcodes.NOP;
 
 /**
  * Removes any NOPs that are still left in method instructions.
+ * All NOPs of a class are removed in a single pass (where ASM recomputes
+ * the offsets of branches, exception handlers and stack map frames).
+ * Only if the resulting class is not interesting, the methods whose NOPs
+ * can be removed are determined via delta debugging, and the NOPs of the
+ * remaining methods are attempted one after another.
  */
 @Sound
 public class RemoveNOPs implements ForcibleReducer<CodePosition> {
 
     private static final Logger logger = LogManager.getLogger();
 
+    /**
+     * Removes the NOPs of all methods at once. If the result is not
+     * interesting, the methods are bisected and only the NOPs of methods
+     * that cannot be compacted as a whole are attempted individually.
+     *
+     * @param bytecode The bytecode to reduce
+     * @param test     The function that determines whether the resulting
+     *                 bytecode is interesting
+     * @return the minimal bytecode
+     * @throws Exception if the bytecode access at some point reports errors
+     */
+    @Override
+    public byte[] apply(byte[] bytecode, Predicate<byte[]> test) throws Exception {
+        return apply(bytecode, test, null, 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see #apply(byte[], Predicate)
+     */
+    @Override
+    public byte[] apply(byte[] bytecode,
+                        Predicate<byte[]> test,
+                        ExecutorService executor,
+                        int jobs) throws Exception {
+
+        var methods = methods(bytecode);
+
+        if (methods.isEmpty())
+            return bytecode;
+
+        var forced = compact(bytecode, Set.copyOf(methods));
+
+        // try forced result (assumed to be minimal)
+        if (test.test(forced))
+            return forced;
+
+        logger.debug("Bisecting {} methods with NOPs", methods.size());
+
+        var reduced = DeltaDebugging.minimize(
+                methods,
+                bytecode,
+                kept -> {
+                    var compacted = new HashSet<>(methods);
+                    compacted.removeAll(kept);
+                    return compact(bytecode, compacted);
+                },
+                test,
+                executor,
+                jobs
+        );
+
+        // only the methods that could not be compacted still contain NOPs
+        return iterate(State.of(reduced), test, executor, jobs);
+    }
+
+    /**
+     * Removes all NOPs in a single pass.
+     *
+     * @param bytecode The bytecode
+     * @return a new {@link State.Experimental} containing the bytecode
+     * without NOPs
+     */
+    @Override
+    public State.Experimental<CodePosition> force(byte[] bytecode) {
+        var compacted = compact(bytecode, Set.copyOf(methods(bytecode)));
+
+        return State.<CodePosition>of(bytecode).toResult(compacted);
+    }
+
     @Override
     public State.Experimental<CodePosition> apply(State.Stable<CodePosition> stable) {
         byte[] bytecode = stable.bytecode();
@@ -43,6 +127,10 @@ public class RemoveNOPs implements ForcibleReducer<CodePosition> {
                 if (visitor == null)
                     return null;
 
+                // overloaded methods are distinguished by their descriptors
+                var member = name + descriptor;
+                var id     = MemberIds.of(member);
+
                 return new IndexedVisitor(ASM6, visitor, name) {
                     @Override
                     protected void visitInsn() {
@@ -50,11 +138,9 @@ public class RemoveNOPs implements ForcibleReducer<CodePosition> {
 
                     @Override
                     public void visitInsn(int opcode) {
-                        var cp = new CodePosition(name, index());
-
                         if (opcode != NOP ||
                                 candidate.get() != null ||
-                                stable.isCached(cp))
+                                stable.isKeyCached(CodePosition.key(id, index(), index())))
                             // if it is not a NOP,
                             // or if there already was one found
                             // or if the current position is already cached,
@@ -62,7 +148,7 @@ public class RemoveNOPs implements ForcibleReducer<CodePosition> {
                             super.visitInsn(opcode);
                         else {
                             // otherwise ignore the NOP
-                            candidate.set(cp);
+                            candidate.set(new CodePosition(member, index()));
                             next();
                         }
                     }
@@ -81,4 +167,64 @@ public class RemoveNOPs implements ForcibleReducer<CodePosition> {
                 .orElseGet(stable::toMinimalResult);
     }
 
+    /**
+     * Collects the methods that contain NOPs.
+     *
+     * @param bytecode The bytecode
+     * @return the names and descriptors of the methods
+     * (in declaration order)
+     */
+    private static List<String> methods(byte[] bytecode) {
+        var methods = new ArrayList<String>();
+
+        new ClassReader(bytecode).accept(new ClassVisitor(ASM6) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                var member = name + descriptor;
+
+                return new MethodVisitor(ASM6) {
+                    @Override
+                    public void visitInsn(int opcode) {
+                        if (opcode == NOP && !methods.contains(member))
+                            methods.add(member);
+                    }
+                };
+            }
+        }, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+        return methods;
+    }
+
+    /**
+     * Removes all NOPs of the given methods. The offsets of branches,
+     * exception handlers, stack map frames and debug information
+     * are adjusted by the {@link ClassWriter}.
+     *
+     * @param bytecode The bytecode
+     * @param methods  The names and descriptors of the methods
+     * @return the resulting bytecode
+     */
+    private static byte[] compact(byte[] bytecode, Set<String> methods) {
+        ClassWriter cw = new ClassWriter(0);
+
+        new ClassReader(bytecode).accept(new ClassVisitor(ASM6, cw) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                var visitor = super.visitMethod(access, name, descriptor, signature, exceptions);
+
+                if (visitor == null || !methods.contains(name + descriptor))
+                    return visitor;
+
+                return new MethodVisitor(ASM6, visitor) {
+                    @Override
+                    public void visitInsn(int opcode) {
+                        if (opcode != NOP)
+                            super.visitInsn(opcode);
+                    }
+                };
+            }
+        }, 0);
+
+        return cw.toByteArray();
+    }
 }
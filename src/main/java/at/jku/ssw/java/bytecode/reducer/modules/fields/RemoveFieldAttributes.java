@@ -15,7 +15,7 @@ import java.util.Arrays;
 import java.util.stream.Stream;
 
 /**
- * Attempts to remove randomly selected attributes from fields.
+ * Attempts to remove individual attributes from fields.
  */
 @Unsound
 public class RemoveFieldAttributes
@@ -27,7 +27,9 @@ public class RemoveFieldAttributes
     public Stream<MemberAttribute> getMembers(CtClass clazz) {
         return Arrays.stream(clazz.getDeclaredFields())
                 .flatMap(f ->
-                        Members.Attribute.randStream()
+                        // the attributes are listed in a fixed order, as the
+                        // delta debugging identifies members by their position
+                        Arrays.stream(Members.Attribute.values())
                                 .map(a -> a.flag)
                                 .filter(a -> (f.getModifiers() & a) != 0)
                                 .map(a -> new MemberAttribute(f.getName(), a))
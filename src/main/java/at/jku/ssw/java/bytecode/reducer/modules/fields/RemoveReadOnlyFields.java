@@ -42,7 +42,7 @@ public class RemoveReadOnlyFields implements ForcibleReducer<CtField> {
 
     @Override
     public State.Experimental<CtField> apply(Stable<CtField> stable) throws Exception {
-        CtClass clazz = Javassist.loadClass(stable.bytecode());
+        CtClass clazz = Javassist.loadClass(stable.code());
 
         Optional<CtField> optField = eligibleFields(clazz).findFirst();
 
@@ -1,6 +1,8 @@
 package at.jku.ssw.java.bytecode.reducer.modules.fields;
 
 import at.jku.ssw.java.bytecode.reducer.annot.Sound;
+import at.jku.ssw.java.bytecode.reducer.context.ReferenceIndex;
+import at.jku.ssw.java.bytecode.reducer.runtypes.ReferenceAware;
 import at.jku.ssw.java.bytecode.reducer.utils.functional.Catch;
 import at.jku.ssw.java.bytecode.reducer.runtypes.InstanceCachedMemberReducer;
 import at.jku.ssw.java.bytecode.reducer.runtypes.JavassistHelper;
@@ -10,6 +12,7 @@ import at.jku.ssw.java.bytecode.reducer.utils.javassist.Members;
 import javassist.CannotCompileException;
 import javassist.CtClass;
 import javassist.CtField;
+import javassist.bytecode.Descriptor;
 import javassist.NotFoundException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -18,14 +21,28 @@ import java.util.stream.Stream;
 
 @Sound
 public class RemoveUnusedFields
-        implements InstanceCachedMemberReducer<CtClass, CtField>, JavassistHelper {
+        implements InstanceCachedMemberReducer<CtClass, CtField>, JavassistHelper, ReferenceAware {
 
     private static final Logger logger = LogManager.getLogger();
 
+    /**
+     * The references of the other classes.
+     */
+    private ReferenceIndex references = new ReferenceIndex();
+
+    @Override
+    public void setReferences(ReferenceIndex references) {
+        this.references = references;
+    }
+
     @Override
     public Stream<CtField> getMembers(CtClass clazz) throws CannotCompileException {
+        var className = Descriptor.toJvmName(clazz);
+
         return Instrumentation.unusedFields(clazz, f ->
-                Members.isInitializer(f.where()) && Members.isMemberOfClass(f.where(), clazz) && f.isWriter());
+                Members.isInitializer(f.where()) && Members.isMemberOfClass(f.where(), clazz) && f.isWriter())
+                // fields that other classes may access are not unused
+                .filter(f -> !references.isFieldReferenced(className, f.getName(), f.getSignature()));
     }
 
     @Override
@@ -1,6 +1,8 @@
 package at.jku.ssw.java.bytecode.reducer.modules.fields;
 
 import at.jku.ssw.java.bytecode.reducer.annot.Sound;
+import at.jku.ssw.java.bytecode.reducer.context.ReferenceIndex;
+import at.jku.ssw.java.bytecode.reducer.runtypes.ReferenceAware;
 import at.jku.ssw.java.bytecode.reducer.runtypes.JavassistHelper;
 import at.jku.ssw.java.bytecode.reducer.runtypes.MemberReducer;
 import at.jku.ssw.java.bytecode.reducer.utils.functional.Catch;
@@ -8,6 +10,7 @@ import at.jku.ssw.java.bytecode.reducer.utils.javassist.Expressions;
 import at.jku.ssw.java.bytecode.reducer.utils.javassist.Instrumentation;
 import javassist.CtClass;
 import javassist.CtField;
+import javassist.bytecode.Descriptor;
 import javassist.expr.FieldAccess;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -16,13 +19,27 @@ import java.util.stream.Stream;
 
 @Sound
 public class RemoveWriteOnlyFields
-        implements MemberReducer<CtClass, CtField, String>, JavassistHelper {
+        implements MemberReducer<CtClass, CtField, String>, JavassistHelper, ReferenceAware {
 
     private static final Logger logger = LogManager.getLogger();
 
+    /**
+     * The references of the other classes.
+     */
+    private ReferenceIndex references = new ReferenceIndex();
+
+    @Override
+    public void setReferences(ReferenceIndex references) {
+        this.references = references;
+    }
+
     @Override
     public Stream<CtField> getMembers(CtClass clazz) throws Exception {
-        return Instrumentation.unusedFields(clazz, FieldAccess::isWriter);
+        var className = Descriptor.toJvmName(clazz);
+
+        return Instrumentation.unusedFields(clazz, FieldAccess::isWriter)
+                // fields that other classes may read are not write-only
+                .filter(f -> !references.isFieldReferenced(className, f.getName(), f.getSignature()));
     }
 
     @Override
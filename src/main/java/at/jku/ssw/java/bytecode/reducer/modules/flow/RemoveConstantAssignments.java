@@ -5,11 +5,12 @@ import at.jku.ssw.java.bytecode.reducer.annot.Unsound;
 import at.jku.ssw.java.bytecode.reducer.states.State;
 import at.jku.ssw.java.bytecode.reducer.runtypes.InstructionReducer;
 import at.jku.ssw.java.bytecode.reducer.utils.cachetypes.CodePosition;
+import at.jku.ssw.java.bytecode.reducer.utils.cachetypes.MemberIds;
+import at.jku.ssw.java.bytecode.reducer.utils.javassist.Frames;
 import javassist.CtBehavior;
 import javassist.bytecode.BadBytecode;
 import javassist.bytecode.CodeIterator;
 import javassist.bytecode.Opcode;
-import javassist.bytecode.analysis.Frame;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -53,8 +54,9 @@ public class RemoveConstantAssignments implements InstructionReducer {
     public Optional<CodePosition> reduceNext(State.Stable<CodePosition> stable,
                                              CtBehavior method,
                                              CodeIterator it,
-                                             Frame[] frames) throws BadBytecode {
+                                             Frames frames) throws BadBytecode {
         var name = method.getLongName();
+        var id   = MemberIds.of(name);
 
         var begin = -1;
 
@@ -80,10 +82,8 @@ public class RemoveConstantAssignments implements InstructionReducer {
             ) {
                 int end = it.hasNext() ? it.lookAhead() : index + 1;
 
-                var cp = new CodePosition(name, begin, end);
-
-                if (stable.isNotCached(cp))
-                    return Optional.of(reduce(method, cp, it));
+                if (stable.isKeyNotCached(CodePosition.key(id, begin, end)))
+                    return Optional.of(reduce(method, new CodePosition(name, begin, end), it));
             } else {
                 // otherwise reset flag
                 begin = -1;
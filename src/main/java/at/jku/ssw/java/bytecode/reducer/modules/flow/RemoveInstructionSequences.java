@@ -2,19 +2,37 @@ package at.jku.ssw.java.bytecode.reducer.modules.flow;
 
 import at.jku.ssw.java.bytecode.reducer.annot.Expensive;
 import at.jku.ssw.java.bytecode.reducer.annot.Unsound;
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
 import at.jku.ssw.java.bytecode.reducer.states.State;
 import at.jku.ssw.java.bytecode.reducer.runtypes.InstructionReducer;
+import at.jku.ssw.java.bytecode.reducer.utils.DeltaDebugging;
 import at.jku.ssw.java.bytecode.reducer.utils.cachetypes.CodePosition;
+import at.jku.ssw.java.bytecode.reducer.utils.cachetypes.MemberIds;
+import at.jku.ssw.java.bytecode.reducer.utils.javassist.ClassCache;
+import at.jku.ssw.java.bytecode.reducer.utils.javassist.CodeSnapshot;
+import at.jku.ssw.java.bytecode.reducer.utils.javassist.Frames;
+import at.jku.ssw.java.bytecode.reducer.utils.javassist.Javassist;
 import javassist.CtBehavior;
+import javassist.CtClass;
 import javassist.bytecode.BadBytecode;
 import javassist.bytecode.CodeIterator;
 import javassist.bytecode.Mnemonic;
-import javassist.bytecode.analysis.Frame;
+import javassist.bytecode.analysis.Analyzer;
+import javassist.bytecode.analysis.ControlFlow;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static javassist.bytecode.Opcode.NOP;
@@ -22,6 +40,8 @@ import static javassist.bytecode.Opcode.NOP;
 /**
  * Removes sequences of instructions that are neutral to the stack
  * (e.g. delete as many stack-pushes as stack-pops).
+ * If a test is given, the sequences are reduced hierarchically
+ * (see {@link #apply(byte[], Predicate, ExecutorService, int)}).
  */
 @Expensive
 @Unsound
@@ -29,6 +49,298 @@ public class RemoveInstructionSequences implements InstructionReducer {
 
     private static final Logger logger = LogManager.getLogger();
 
+    /**
+     * Removes stack-neutral regions hierarchically: first whole method
+     * bodies, then loop bodies, then basic blocks and finally the
+     * individual sequences between two instructions with an empty stack.
+     * The removal of all regions at once is tried first. Otherwise,
+     * the regions of each level are minimized via delta debugging and
+     * only the regions that cannot be removed are split further.
+     * Afterwards, the remaining sequences are attempted pairwise.
+     *
+     * @param bytecode The bytecode to reduce
+     * @param test     The function that determines whether the resulting
+     *                 bytecode is interesting
+     * @return the minimal bytecode
+     * @throws Exception if the bytecode access at some point reports errors
+     */
+    @Override
+    public byte[] apply(byte[] bytecode, Predicate<byte[]> test) throws Exception {
+        return apply(bytecode, test, null, 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see #apply(byte[], Predicate)
+     */
+    @Override
+    public byte[] apply(byte[] bytecode,
+                        Predicate<byte[]> test,
+                        ExecutorService executor,
+                        int jobs) throws Exception {
+
+        var reduced = bisect(bytecode, test, executor, jobs);
+
+        return InstructionReducer.super.apply(reduced, test, executor, jobs);
+    }
+
+    /**
+     * Minimizes the stack-neutral regions of the given bytecode
+     * level by level. The class is only parsed once per level, as the
+     * candidates are derived from the same base.
+     *
+     * @param bytecode The bytecode to reduce
+     * @param test     The thread-safe function that determines whether the
+     *                 resulting bytecode is interesting
+     * @param executor The executor that runs the tests ({@code null} if
+     *                 the tests are run sequentially)
+     * @param jobs     The maximum number of concurrently tested candidates
+     * @return the reduced bytecode
+     * @throws Exception if the bytecode access at some point reports errors
+     */
+    private byte[] bisect(byte[] bytecode,
+                          Predicate<byte[]> test,
+                          ExecutorService executor,
+                          int jobs) throws Exception {
+
+        var level   = regions(Bytecode.wrap(bytecode));
+        var current = new Candidate(level, bytecode);
+
+        if (level.isEmpty())
+            return bytecode;
+
+        // try forced result (assumed to be minimal)
+        try (var removal = new Removal(Bytecode.wrap(bytecode))) {
+            var forced = removal.without(level, List.of());
+
+            if (test.test(forced))
+                return forced;
+        }
+
+        while (!level.isEmpty()) {
+            var regions = level;
+            var base    = current.bytecode;
+
+            logger.debug("Bisecting {} regions", regions.size());
+
+            try (var removal = new Removal(Bytecode.wrap(base))) {
+                current = DeltaDebugging.minimize(
+                        regions,
+                        new Candidate(regions, base),
+                        kept -> new Candidate(kept, removal.without(regions, kept)),
+                        c -> test.test(c.bytecode),
+                        executor,
+                        jobs
+                );
+            }
+
+            // only split the regions that could not be removed
+            level = current.kept.stream()
+                    .flatMap(r -> r.children.stream())
+                    .collect(Collectors.toList());
+        }
+
+        return current.bytecode;
+    }
+
+    /**
+     * Determines the hierarchy of stack-neutral regions of all behaviours.
+     * The boundaries of the regions are the instructions where the stack
+     * is empty (as determined by the {@link Analyzer}).
+     *
+     * @param bytecode The bytecode
+     * @return the regions that span the bodies of the behaviours
+     * @throws Exception if the bytecode cannot be analyzed
+     */
+    private static List<Region> regions(Bytecode bytecode) throws Exception {
+        // the analysis does not modify the class
+        var clazz = ClassCache.take(bytecode);
+
+        try {
+            return regions(clazz, bytecode);
+        } finally {
+            ClassCache.release(bytecode, clazz);
+        }
+    }
+
+    /**
+     * @see #regions(Bytecode)
+     */
+    private static List<Region> regions(CtClass clazz, Bytecode bytecode) throws Exception {
+        var behaviors = clazz.getDeclaredBehaviors();
+        var regions   = new ArrayList<Region>();
+
+        for (int b = 0; b < behaviors.length; b++) {
+            var method = behaviors[b];
+            var ca     = method.getMethodInfo().getCodeAttribute();
+
+            // abstract and native methods
+            if (ca == null)
+                continue;
+
+            var sequences = sequences(method, ca.iterator(), bytecode);
+
+            if (sequences.isEmpty())
+                continue;
+
+            var blocks = blocks(b, clazz, method, sequences);
+            var loops  = loops(b, clazz, method, blocks);
+
+            regions.add(Region.of(b, loops));
+        }
+
+        return regions;
+    }
+
+    /**
+     * Splits the given behaviour into the sequences between two
+     * consecutive instructions where the stack is empty.
+     * Sequences that only consist of NOPs are skipped.
+     *
+     * @param method   The behaviour
+     * @param it       The code iterator of the behaviour
+     * @param bytecode The bytecode that the class was parsed from
+     * @return the stack-neutral sequences in the order of the code
+     * @throws BadBytecode if the code cannot be analyzed
+     */
+    private static List<CodePosition> sequences(CtBehavior method,
+                                                CodeIterator it,
+                                                Bytecode bytecode) throws BadBytecode {
+        var name   = method.getLongName();
+        var frames = Frames.analyze(method, bytecode);
+
+        // the initialization call of constructors must not be removed
+        it.skipConstructor();
+
+        var sequences = new ArrayList<CodePosition>();
+        var begin     = -1;
+        var empty     = true;
+
+        while (it.hasNext()) {
+            int index = it.next();
+
+            // unreachable instructions have no frame
+            // and can be included in any sequence
+            var frame = frames[index];
+            if (frame == null || frame.getTopIndex() == -1) {
+                if (begin >= 0 && !empty)
+                    sequences.add(new CodePosition(name, begin, index));
+
+                begin = index;
+                empty = true;
+            }
+
+            empty &= it.byteAt(index) == NOP;
+        }
+
+        return sequences;
+    }
+
+    /**
+     * Groups the given sequences by the basic blocks they start in.
+     *
+     * @param b         The index of the behaviour
+     * @param clazz     The declaring class
+     * @param method    The behaviour
+     * @param sequences The sequences of the behaviour
+     * @return the regions that correspond to (parts of) basic blocks
+     * @throws BadBytecode if the control flow cannot be analyzed
+     */
+    private static List<Region> blocks(int b,
+                                       CtClass clazz,
+                                       CtBehavior method,
+                                       List<CodePosition> sequences) throws BadBytecode {
+
+        var starts = Arrays.stream(new ControlFlow(clazz, method.getMethodInfo()).basicBlocks())
+                .mapToInt(ControlFlow.Block::position)
+                .sorted()
+                .toArray();
+
+        var blocks = new ArrayList<Region>();
+        var group  = new ArrayList<Region>();
+        var block  = -1;
+
+        for (var sequence : sequences) {
+            var i = Arrays.binarySearch(starts, sequence.begin);
+            var s = i >= 0 ? i : -i - 2;
+
+            if (s != block && !group.isEmpty()) {
+                blocks.add(Region.of(b, group));
+                group = new ArrayList<>();
+            }
+
+            block = s;
+            group.add(new Region(b, List.of(sequence), List.of()));
+        }
+
+        blocks.add(Region.of(b, group));
+
+        return blocks;
+    }
+
+    /**
+     * Groups the given blocks by the outermost loops that contain them.
+     * The body of a loop spans from the target of a backward jump
+     * to the end of the jumping block.
+     *
+     * @param b      The index of the behaviour
+     * @param clazz  The declaring class
+     * @param method The behaviour
+     * @param blocks The blocks of the behaviour
+     * @return the regions that correspond to loop bodies or blocks that are
+     * not part of any loop
+     * @throws BadBytecode if the control flow cannot be analyzed
+     */
+    private static List<Region> loops(int b,
+                                      CtClass clazz,
+                                      CtBehavior method,
+                                      List<Region> blocks) throws BadBytecode {
+
+        var loops = new ArrayList<int[]>();
+
+        for (var block : new ControlFlow(clazz, method.getMethodInfo()).basicBlocks())
+            for (int i = 0; i < block.exits(); i++)
+                if (block.exit(i).position() <= block.position())
+                    loops.add(new int[]{block.exit(i).position(), block.position() + block.length()});
+
+        if (loops.isEmpty())
+            return blocks;
+
+        loops.sort(Comparator.comparingInt(l -> l[0]));
+
+        var regions = new ArrayList<Region>();
+        var group   = new ArrayList<Region>();
+        int[] loop  = null;
+
+        for (var block : blocks) {
+            var begin = block.begin();
+
+            // the outermost loop that contains the block
+            var outer = loops.stream()
+                    .filter(l -> l[0] <= begin && begin < l[1])
+                    .findFirst()
+                    .orElse(null);
+
+            if (outer != loop && !group.isEmpty()) {
+                regions.add(Region.of(b, group));
+                group = new ArrayList<>();
+            }
+
+            loop = outer;
+
+            if (outer == null)
+                regions.add(block);
+            else
+                group.add(block);
+        }
+
+        if (!group.isEmpty())
+            regions.add(Region.of(b, group));
+
+        return regions;
+    }
+
     public CodePosition reduce(CtBehavior behav,
                                CodePosition codePosition,
                                CodeIterator it) {
@@ -50,12 +362,22 @@ public class RemoveInstructionSequences implements InstructionReducer {
         return codePosition;
     }
 
+    /**
+     * Resumes at the beginning of the behaviour, as the sequences
+     * may begin at any of the preceding instructions.
+     */
+    @Override
+    public int resumeAt(CodePosition candidate) {
+        return 0;
+    }
+
     @Override
     public Optional<CodePosition> reduceNext(State.Stable<CodePosition> stable,
                                              CtBehavior method,
                                              CodeIterator it,
-                                             Frame[] frames) throws BadBytecode {
+                                             Frames frames) throws BadBytecode {
         var name = method.getLongName();
+        var id   = MemberIds.of(name);
 
         logger.trace(name);
 
@@ -67,6 +389,8 @@ public class RemoveInstructionSequences implements InstructionReducer {
         // (initialize with -1 as first iteration
         var stackSize = -1;
 
+        var analysis = frames.get();
+
         while (it.hasNext()) {
             int index = it.next();
 
@@ -74,7 +398,7 @@ public class RemoveInstructionSequences implements InstructionReducer {
             int code = it.byteAt(index);
 
             // get the execution frame at this index position
-            var frame = frames[index];
+            var frame = analysis[index];
             // since the top index points to the position, the actual
             // length is computed by adding 1
             // if there is no frame, this means that the instruction is
@@ -82,12 +406,13 @@ public class RemoveInstructionSequences implements InstructionReducer {
             // reduction
             stackSize = frame != null ? frame.getTopIndex() + 1 : 0;
 
-            logger.trace(String.format(
-                    "%6d: %-20s // [ %d ]",
-                    index,
-                    Mnemonic.OPCODE[code],
-                    stackSize
-            ));
+            if (logger.isTraceEnabled())
+                logger.trace(String.format(
+                        "%6d: %-20s // [ %d ]",
+                        index,
+                        Mnemonic.OPCODE[code],
+                        stackSize
+                ));
 
             if (stackSize == 0) {
 
@@ -99,15 +424,9 @@ public class RemoveInstructionSequences implements InstructionReducer {
 
                     // if the stack is empty, this index may also be the end
                     // of a potentially removable instruction sequence
-                    var opt = beginIndices.stream()
-                            .filter(i -> i < index)
-                            .map(i -> new CodePosition(name, i, index))
-                            .filter(stable::isNotCached)
-                            .findAny()
-                            .map(cp -> reduce(method, cp, it));
-
-                    if (opt.isPresent())
-                        return opt;
+                    for (int begin : beginIndices)
+                        if (begin < index && stable.isKeyNotCached(CodePosition.key(id, begin, index)))
+                            return Optional.of(reduce(method, new CodePosition(name, begin, index), it));
                 }
             }
 
@@ -116,4 +435,152 @@ public class RemoveInstructionSequences implements InstructionReducer {
         return Optional.empty();
     }
 
+    /**
+     * A stack-neutral region of a behaviour, consisting of one or more
+     * sequences. Regions that cannot be removed are split into their
+     * children.
+     */
+    private static class Region {
+
+        /**
+         * The index of the behaviour in the declaring class.
+         */
+        final int behavior;
+
+        /**
+         * The stack-neutral sequences that make up this region.
+         */
+        final List<CodePosition> sequences;
+
+        /**
+         * The subregions (empty if this region is a single sequence).
+         */
+        final List<Region> children;
+
+        Region(int behavior, List<CodePosition> sequences, List<Region> children) {
+            this.behavior = behavior;
+            this.sequences = sequences;
+            this.children = children;
+        }
+
+        /**
+         * Combines the given regions into a new one.
+         * A single region is not wrapped.
+         *
+         * @param behavior The index of the behaviour
+         * @param children The regions
+         * @return the combined region
+         */
+        static Region of(int behavior, List<Region> children) {
+            if (children.size() == 1)
+                return children.get(0);
+
+            var sequences = children.stream()
+                    .flatMap(r -> r.sequences.stream())
+                    .collect(Collectors.toList());
+
+            return new Region(behavior, sequences, List.copyOf(children));
+        }
+
+        int begin() {
+            return sequences.get(0).begin;
+        }
+    }
+
+    /**
+     * Creates the candidates of a base by replacing regions with NOPs.
+     * The class is parsed once and the modified code attributes are
+     * restored after each candidate (see {@link CodeSnapshot}).
+     * As NOPs do not shift the instructions, the regions of the
+     * base remain valid.
+     */
+    private static final class Removal implements AutoCloseable {
+
+        /**
+         * The bytecode of the base.
+         */
+        private final Bytecode base;
+
+        /**
+         * The parsed class, which corresponds to the base
+         * between two candidates.
+         */
+        private CtClass clazz;
+
+        Removal(Bytecode base) throws IOException {
+            this.base = base;
+            this.clazz = ClassCache.take(base);
+        }
+
+        /**
+         * Replaces the given regions that are not kept with NOPs.
+         *
+         * @param regions The regions that may be removed
+         * @param kept    The regions that are kept
+         * @return the resulting bytecode
+         * @throws IOException if the bytecode cannot be written or
+         *                     the base cannot be parsed again
+         */
+        byte[] without(List<Region> regions, List<Region> kept) throws IOException {
+            var behaviors = clazz.getDeclaredBehaviors();
+            var constants = clazz.getClassFile().getConstPool().getSize();
+            var keep      = new HashSet<>(kept);
+            var snapshots = new HashMap<Integer, CodeSnapshot>();
+
+            for (var region : regions) {
+                if (keep.contains(region))
+                    continue;
+
+                var method = behaviors[region.behavior];
+                var ca     = method.getMethodInfo().getCodeAttribute();
+                var it     = ca.iterator();
+
+                snapshots.computeIfAbsent(region.behavior, b -> CodeSnapshot.of(ca));
+
+                for (var sequence : region.sequences)
+                    IntStream.range(sequence.begin, sequence.end)
+                            .forEach(i -> it.writeByte(NOP, i));
+            }
+
+            for (var b : snapshots.keySet()) {
+                try {
+                    // rebuild the stack map
+                    behaviors[b].getMethodInfo().rebuildStackMap(clazz.getClassPool());
+                } catch (BadBytecode | ArrayIndexOutOfBoundsException e) {
+                    // if rebuild fails, this means that the bytecode is
+                    // invalid and will fail the test anyway
+                }
+            }
+
+            var bytecode = Javassist.bytecode(clazz);
+
+            // revert the modifications, unless they also extended
+            // the constant pool (in which case the base is parsed again)
+            var restored = snapshots.values().stream()
+                    .allMatch(CodeSnapshot::restore);
+
+            if (!restored || constants != clazz.getClassFile().getConstPool().getSize())
+                clazz = Javassist.loadClass(base);
+
+            return bytecode;
+        }
+
+        @Override
+        public void close() {
+            ClassCache.release(base, clazz);
+        }
+    }
+
+    /**
+     * The regions that are kept and the corresponding bytecode.
+     */
+    private static class Candidate {
+        final List<Region> kept;
+        final byte[] bytecode;
+
+        Candidate(List<Region> kept, byte[] bytecode) {
+            this.kept = kept;
+            this.bytecode = bytecode;
+        }
+    }
 }
@@ -5,13 +5,14 @@ import at.jku.ssw.java.bytecode.reducer.annot.Unsound;
 import at.jku.ssw.java.bytecode.reducer.states.State;
 import at.jku.ssw.java.bytecode.reducer.runtypes.InstructionReducer;
 import at.jku.ssw.java.bytecode.reducer.utils.cachetypes.CodePosition;
+import at.jku.ssw.java.bytecode.reducer.utils.cachetypes.MemberIds;
 import at.jku.ssw.java.bytecode.reducer.utils.javassist.Code;
+import at.jku.ssw.java.bytecode.reducer.utils.javassist.Frames;
 import javassist.CtBehavior;
 import javassist.NotFoundException;
 import javassist.bytecode.BadBytecode;
 import javassist.bytecode.CodeIterator;
 import javassist.bytecode.Opcode;
-import javassist.bytecode.analysis.Frame;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -50,9 +51,10 @@ public class RemoveNeutralInstructions implements InstructionReducer {
     public Optional<CodePosition> reduceNext(State.Stable<CodePosition> stable,
                                              CtBehavior method,
                                              CodeIterator it,
-                                             Frame[] frames)
+                                             Frames frames)
             throws BadBytecode, NotFoundException {
         var name = method.getLongName();
+        var id   = MemberIds.of(name);
 
         while (it.hasNext()) {
             int begin = it.next();
@@ -79,10 +81,8 @@ public class RemoveNeutralInstructions implements InstructionReducer {
             // if potential site is found, analyze it
             if (change == 0) {
                 // potentially removable code position
-                var cp = new CodePosition(name, begin, end);
-
-                if (stable.isNotCached(cp))
-                    return Optional.of(reduce(method, cp, it));
+                if (stable.isKeyNotCached(CodePosition.key(id, begin, end)))
+                    return Optional.of(reduce(method, new CodePosition(name, begin, end), it));
             }
         }
 
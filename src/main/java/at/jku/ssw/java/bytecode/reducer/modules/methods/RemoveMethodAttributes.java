@@ -15,7 +15,7 @@ import java.util.Arrays;
 import java.util.stream.Stream;
 
 /**
- * Attempts to remove randomly selected attributes from methods.
+ * Attempts to remove individual attributes from methods.
  */
 @Unsound
 public class RemoveMethodAttributes
@@ -28,7 +28,9 @@ public class RemoveMethodAttributes
         return Arrays.stream(clazz.getDeclaredMethods())
                 .filter(Members::isNotMain)
                 .flatMap(m ->
-                        Members.Attribute.randStream()
+                        // the attributes are listed in a fixed order, as the
+                        // delta debugging identifies members by their position
+                        Arrays.stream(Members.Attribute.values())
                                 .map(a -> a.flag)
                                 .filter(a -> (m.getModifiers() & a) != 0)
                                 .map(a -> new MemberAttribute(m.getLongName(), a))
@@ -1,12 +1,15 @@
 package at.jku.ssw.java.bytecode.reducer.modules.methods;
 
 import at.jku.ssw.java.bytecode.reducer.annot.Sound;
+import at.jku.ssw.java.bytecode.reducer.context.ReferenceIndex;
+import at.jku.ssw.java.bytecode.reducer.runtypes.ReferenceAware;
 import at.jku.ssw.java.bytecode.reducer.runtypes.JavassistHelper;
 import at.jku.ssw.java.bytecode.reducer.runtypes.InstanceCachedMemberReducer;
 import at.jku.ssw.java.bytecode.reducer.utils.javassist.Instrumentation;
 import at.jku.ssw.java.bytecode.reducer.utils.javassist.Members;
 import javassist.CtClass;
 import javassist.CtMethod;
+import javassist.bytecode.Descriptor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -14,14 +17,28 @@ import java.util.stream.Stream;
 
 @Sound
 public class RemoveUnusedMethods
-        implements InstanceCachedMemberReducer<CtClass, CtMethod>, JavassistHelper {
+        implements InstanceCachedMemberReducer<CtClass, CtMethod>, JavassistHelper, ReferenceAware {
 
     private static final Logger logger = LogManager.getLogger();
 
+    /**
+     * The references of the other classes.
+     */
+    private ReferenceIndex references = new ReferenceIndex();
+
+    @Override
+    public void setReferences(ReferenceIndex references) {
+        this.references = references;
+    }
+
     @Override
     public Stream<CtMethod> getMembers(CtClass clazz) throws Exception {
+        var className = Descriptor.toJvmName(clazz);
+
         return Instrumentation.unusedMethods(clazz, Members::isRecursion)
-                .filter(Members::isNotMain);
+                .filter(Members::isNotMain)
+                // methods that other classes may call are not unused
+                .filter(m -> !references.isMethodReferenced(className, m.getName(), m.getSignature()));
     }
 
     @Override
@@ -27,7 +27,7 @@ public class RemoveVoidMethodCalls implements ForcibleReducer<Integer> {
 
     @Override
     public State.Experimental<Integer> apply(State.Stable<Integer> stable) throws Exception {
-        final CtClass clazz = Javassist.loadClass(stable.bytecode());
+        final CtClass clazz = Javassist.loadClass(stable.code());
 
         final AtomicReference<MethodCall> call = new AtomicReference<>();
 
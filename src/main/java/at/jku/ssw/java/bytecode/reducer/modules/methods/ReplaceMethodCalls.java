@@ -28,7 +28,7 @@ public class ReplaceMethodCalls implements ForcibleReducer<Integer> {
 
     @Override
     public State.Experimental<Integer> apply(State.Stable<Integer> stable) throws Exception {
-        final CtClass clazz = Javassist.loadClass(stable.bytecode());
+        final CtClass clazz = Javassist.loadClass(stable.code());
 
         final AtomicReference<MethodCall> call = new AtomicReference<>();
 
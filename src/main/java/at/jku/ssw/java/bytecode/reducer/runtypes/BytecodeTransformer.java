@@ -1,5 +1,7 @@
 package at.jku.ssw.java.bytecode.reducer.runtypes;
 
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+
 /**
  * Helper that provides methods to retrieve meta type instances
  * from and convert them to bytecode.
@@ -17,6 +19,20 @@ public interface BytecodeTransformer<T> {
      */
     T classFrom(byte[] bytecode) throws Exception;
 
+    /**
+     * Loads the given bytecode handle as an instance of the class type.
+     * Implementations should override this if the class type can be
+     * loaded without copying the bytecode.
+     *
+     * @param bytecode The bytecode that describes the class to reduce
+     * @return a new instance of the class type representing the bytecode
+     * @throws Exception if the bytecode is invalid or the object
+     *                   cannot be instantiated
+     */
+    default T classFrom(Bytecode bytecode) throws Exception {
+        return classFrom(bytecode.toArray());
+    }
+
     /**
      * Retrieves the bytecode from the given instance of the class type.
      *
@@ -0,0 +1,48 @@
+package at.jku.ssw.java.bytecode.reducer.runtypes;
+
+import at.jku.ssw.java.bytecode.reducer.context.ReferenceIndex;
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
+
+/**
+ * Run type for reducers that operate on the whole set of classes
+ * (e.g. by removing class files or members that no class references)
+ * instead of individual bytecodes.
+ */
+public interface CacheReducer extends Reducer {
+
+    /**
+     * Reduces the given class configuration.
+     *
+     * @param classes    Maps the file names to the bytecodes of the
+     *                   current classes
+     * @param references The references between the current classes
+     * @param test       The thread-safe function that determines whether
+     *                   a class configuration is interesting
+     * @param executor   The executor that runs the tests ({@code null} if
+     *                   the tests are run sequentially)
+     * @param jobs       The maximum number of concurrently tested candidates
+     * @return the reduced configuration (or the given one if nothing
+     * can be removed)
+     * @throws Exception if the reduction fails
+     */
+    Map<String, Bytecode> reduce(Map<String, Bytecode> classes,
+                                 ReferenceIndex references,
+                                 Predicate<Map<String, Bytecode>> test,
+                                 ExecutorService executor,
+                                 int jobs) throws Exception;
+
+    /**
+     * Individual classes are not reduced by this run type.
+     *
+     * @param bytecode The byte array that contains the bytecode
+     * @return the unchanged bytecode
+     */
+    @Override
+    default byte[] apply(byte[] bytecode) {
+        return bytecode;
+    }
+}
@@ -1,8 +1,10 @@
 package at.jku.ssw.java.bytecode.reducer.runtypes;
 
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
 import at.jku.ssw.java.bytecode.reducer.states.State;
 import at.jku.ssw.java.bytecode.reducer.states.State.Experimental;
 
+import java.util.concurrent.ExecutorService;
 import java.util.function.Predicate;
 
 /**
@@ -40,6 +42,36 @@ public interface ForcibleReducer<A> extends IterativeReducer<A> {
         return iterate(base, test);
     }
 
+    /**
+     * Applies the reduction operation until a minimal result is found
+     * and tests up to {@code jobs} candidates of the iterative approach
+     * concurrently.
+     *
+     * @param bytecode The bytecode to reduce
+     * @param test     The thread-safe function that determines whether the
+     *                 resulting bytecode is valid
+     * @param executor The executor that runs the tests
+     * @param jobs     The maximum number of concurrently tested candidates
+     * @return the minimal bytecode
+     * @throws Exception if the bytecode access at some point reports errors
+     * @see IterativeReducer#iterate(State.Stable, Predicate, ExecutorService, int)
+     */
+    @Override
+    default byte[] apply(byte[] bytecode,
+                         Predicate<byte[]> test,
+                         ExecutorService executor,
+                         int jobs) throws Exception {
+        var res = force(bytecode);
+        var reduced = res.bytecode();
+
+        // try forced result (assumed to be minimal)
+        if (test.test(reduced))
+            return reduced;
+
+        // otherwise try iterative approach
+        return iterate(res.reject(), test, executor, jobs);
+    }
+
     @Override
     default byte[] apply(byte[] bytecode) throws Exception {
         // the default implementation of the reducer
@@ -56,7 +88,10 @@ public interface ForcibleReducer<A> extends IterativeReducer<A> {
      * @throws Exception if the bytecode is invalid
      */
     default Experimental<A> force(byte[] bytecode) throws Exception {
-        State.Stable<A> stable = State.of(bytecode);
+        // the original bytecode is shared by the first and the final state
+        var original = Bytecode.of(bytecode);
+
+        State.Stable<A> stable = State.of(original);
         Experimental<A> res;
 
         do {
@@ -71,6 +106,6 @@ public interface ForcibleReducer<A> extends IterativeReducer<A> {
 
         // create a new result that has the "unforced" bytecode
         // as a previous result
-        return State.<A>of(bytecode).toResult(res.bytecode());
+        return State.<A>of(original).toResult(res.code());
     }
 }
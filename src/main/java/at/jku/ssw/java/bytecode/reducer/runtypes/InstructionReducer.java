@@ -1,19 +1,18 @@
 package at.jku.ssw.java.bytecode.reducer.runtypes;
 
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
 import at.jku.ssw.java.bytecode.reducer.states.State;
 import at.jku.ssw.java.bytecode.reducer.states.State.Stable;
 import at.jku.ssw.java.bytecode.reducer.utils.cachetypes.CodePosition;
-import at.jku.ssw.java.bytecode.reducer.utils.functional.Catch;
-import at.jku.ssw.java.bytecode.reducer.utils.javassist.Javassist;
-import javassist.ClassPool;
+import at.jku.ssw.java.bytecode.reducer.utils.javassist.ClassCache;
+import at.jku.ssw.java.bytecode.reducer.utils.javassist.CodeSnapshot;
+import at.jku.ssw.java.bytecode.reducer.utils.javassist.Frames;
 import javassist.CtBehavior;
 import javassist.NotFoundException;
 import javassist.bytecode.BadBytecode;
 import javassist.bytecode.CodeIterator;
-import javassist.bytecode.analysis.Analyzer;
-import javassist.bytecode.analysis.Frame;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Optional;
 
 import static at.jku.ssw.java.bytecode.reducer.utils.javassist.Javassist.bytecode;
@@ -21,6 +20,12 @@ import static at.jku.ssw.java.bytecode.reducer.utils.javassist.Javassist.bytecod
 /**
  * Run type that allows low level access to method behaviour.
  * Caches code positions that were already tried.
+ * The parsed class of a base is reused for the next candidate
+ * (see {@link ClassCache}), as the modifications are reverted
+ * once the candidate is generated.
+ * The search for the next candidate resumes at the position of the
+ * previous one (see {@link State#cursor()}) instead of starting
+ * at the first behaviour again.
  */
 public interface InstructionReducer extends IterativeReducer<CodePosition> {
 
@@ -33,6 +38,7 @@ public interface InstructionReducer extends IterativeReducer<CodePosition> {
      * @param it     The code iterator that allows low level access
      * @param frames The execution frames of this method which store
      *               the stack and local variables for each index position
+     *               (which are only analyzed if they are accessed)
      * @return the potentially reduced code positions
      * @throws BadBytecode       if the byte code is invalid at some point
      * @throws NotFoundException if a type of a potential method
@@ -41,57 +47,157 @@ public interface InstructionReducer extends IterativeReducer<CodePosition> {
     Optional<CodePosition> reduceNext(State.Stable<CodePosition> stable,
                                       CtBehavior method,
                                       CodeIterator it,
-                                      Frame[] frames) throws BadBytecode, NotFoundException;
+                                      Frames frames) throws BadBytecode, NotFoundException;
+
+    /**
+     * Determines the bytecode index at which the search for the next
+     * candidate resumes in the behaviour of the given candidate.
+     * By default, the search resumes at the candidate itself
+     * (which is skipped if it was already attempted).
+     * Reducers whose candidates depend on the preceding instructions
+     * should resume at the beginning of the behaviour instead.
+     *
+     * @param candidate The previous candidate
+     * @return the bytecode index (which has to be the start
+     * of an instruction)
+     */
+    default int resumeAt(CodePosition candidate) {
+        return candidate.begin;
+    }
 
     @Override
     default State.Experimental<CodePosition> apply(Stable<CodePosition> stable) throws Exception {
-        final var clazz = Javassist.loadClass(stable.bytecode());
+        // the parsed class is reused if the previous candidate
+        // was derived from the same bytecode
+        final var clazz     = ClassCache.take(stable.code());
+        final var constants = clazz.getClassFile().getConstPool().getSize();
+        final var snapshots = new ArrayList<CodeSnapshot>();
 
         // iterate all "behaviours" (which includes methods and initializers)
-        return Arrays.stream(clazz.getDeclaredBehaviors())
-                .flatMap(Catch.function(method -> {
-                    var m = method.getMethodInfo();
-
-                    final var ca = m.getCodeAttribute();
-                    final var it = ca.iterator();
-
-                    // invoke code analyzer that allows lookup of stack contents
-                    // and local variables
-                    var analyzer = new Analyzer();
-                    var frames = analyzer.analyze(
-                            method.getDeclaringClass(),
-                            method.getMethodInfo()
-                    );
-
-                    /*
-                        Every constructor code begins with
-                        a call to the initialization method:
-                        aload_0
-                        invokespecial #1
-
-                        In case of a constructor method, those first
-                        two instructions are therefore skipped,
-                        as the stack is again empty after this sequence.
-                    */
-                    it.skipConstructor();
-
-                    // perform the operation and "stream" the result
-                    // (to abide to flatMap rules)
-                    var result = reduceNext(stable, method, it, frames).stream();
-
-                    try {
-                        // rebuild the stack map
-                        m.rebuildStackMap(ClassPool.getDefault());
-                    } catch (BadBytecode | ArrayIndexOutOfBoundsException e) {
-                        // if rebuild fails, this means that the bytecode is
-                        // invalid and will fail the test anyway
-                    }
-
-                    return result;
-                }))
-                .findAny()
-                .map(Catch.function(cp -> stable.toResult(bytecode(clazz), cp)))
-                .orElseGet(stable::toMinimalResult);
+        var behaviors = clazz.getDeclaredBehaviors();
+
+        // resume at the position of the previous candidate
+        // (as replacing instructions with NOPs does not shift any
+        // instructions, the position remains valid after accepting it)
+        var start = behavior(stable.cursor());
+        var index = index(stable.cursor());
+
+        if (start >= behaviors.length)
+            start = index = 0;
+
+        // the behaviours before the cursor are only checked again
+        // (by wrapping around once) if no candidate follows the cursor,
+        // such that a minimal result still means that no behaviour
+        // contains any further candidate
+        var count = stable.cursor() == 0 ? behaviors.length : behaviors.length + 1;
+
+        State.Experimental<CodePosition> result = null;
+
+        for (int i = 0; i < count && result == null; i++) {
+            var b      = (start + i) % behaviors.length;
+            var method = behaviors[b];
+            var m      = method.getMethodInfo();
+
+            final var ca = m.getCodeAttribute();
+            final var it = ca.iterator();
+
+            var snapshot = CodeSnapshot.of(ca);
+            snapshots.add(snapshot);
+
+            // the code analyzer that allows lookup of stack contents
+            // and local variables is only invoked if the reducer
+            // requires the frames
+            var frames = new Frames(method, stable.code());
+
+            /*
+                Every constructor code begins with
+                a call to the initialization method:
+                aload_0
+                invokespecial #1
+
+                In case of a constructor method, those first
+                two instructions are therefore skipped,
+                as the stack is again empty after this sequence.
+            */
+            it.skipConstructor();
+
+            if (i == 0 && index > it.lookAhead())
+                it.move(index);
+
+            // perform the operation
+            var position = reduceNext(stable, method, it, frames);
+
+            // only the stack maps of modified behaviours are outdated
+            if (snapshot.isModified()) {
+                try {
+                    // rebuild the stack map
+                    m.rebuildStackMap(clazz.getClassPool());
+                } catch (BadBytecode | ArrayIndexOutOfBoundsException e) {
+                    // if rebuild fails, this means that the bytecode is
+                    // invalid and will fail the test anyway
+                }
+            }
+
+            if (position.isPresent()) {
+                var cp = position.get();
+
+                // the next reduction continues at this position,
+                // regardless of whether the result is accepted
+                // (where the attempts are reset) or rejected
+                result = stable.toResumableResult(
+                        Bytecode.wrap(bytecode(clazz)),
+                        cursor(b, resumeAt(cp)),
+                        cp
+                );
+            }
+        }
+
+        if (result == null)
+            result = stable.toMinimalResult();
+
+        // revert the modifications (copy-on-write) so that the class
+        // corresponds to the base again, unless the modifications
+        // also extended the constant pool
+        var restored = snapshots.stream()
+                .allMatch(CodeSnapshot::restore);
+
+        if (restored && constants == clazz.getClassFile().getConstPool().getSize())
+            ClassCache.release(stable.code(), clazz);
+
+        return result;
+    }
+
+    /**
+     * Encodes the position of a candidate as cursor
+     * (see {@link State#cursor()}).
+     *
+     * @param behavior The index of the behaviour
+     *                 (in the order of the declared behaviours)
+     * @param index    The bytecode index within the behaviour
+     * @return the cursor
+     */
+    static long cursor(int behavior, int index) {
+        return (long) behavior << 32 | index;
+    }
+
+    /**
+     * Extracts the index of the behaviour from the given cursor.
+     *
+     * @param cursor The cursor
+     * @return the index of the behaviour
+     */
+    static int behavior(long cursor) {
+        return (int) (cursor >>> 32);
+    }
+
+    /**
+     * Extracts the bytecode index from the given cursor.
+     *
+     * @param cursor The cursor
+     * @return the bytecode index within the behaviour
+     */
+    static int index(long cursor) {
+        return (int) cursor;
     }
 
 }
@@ -3,6 +3,10 @@ package at.jku.ssw.java.bytecode.reducer.runtypes;
 import at.jku.ssw.java.bytecode.reducer.states.State;
 import at.jku.ssw.java.bytecode.reducer.states.State.Stable;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.Predicate;
 
 /**
@@ -40,6 +44,17 @@ public interface IterativeReducer<A> extends Reducer {
         return iterate(Stable.of(bytecode), test);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default byte[] apply(byte[] bytecode,
+                         Predicate<byte[]> test,
+                         ExecutorService executor,
+                         int jobs) throws Exception {
+        return iterate(Stable.of(bytecode), test, executor, jobs);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -75,4 +90,70 @@ public interface IterativeReducer<A> extends Reducer {
             stable = test.test(reduced) ? res.accept() : res.reject();
         }
     }
+
+    /**
+     * Applies this transformation iteratively to the given base
+     * until a minimal result is produced, while testing up to
+     * {@code jobs} candidates at once.
+     * The candidates of a batch are generated speculatively by assuming
+     * that all previous candidates of the same batch are rejected
+     * (which extends the attempt log accordingly).
+     * Of all interesting candidates, the first one (in the order of
+     * generation) is accepted, such that the result does not depend on
+     * the order in which the concurrent tests finish.
+     *
+     * @param stable   The base that contains the bytecode to reduce
+     * @param test     The thread-safe function that determines whether the
+     *                 resulting bytecode is interesting
+     * @param executor The executor that runs the tests
+     * @param jobs     The maximum number of concurrently tested candidates
+     * @return the minimal bytecode
+     * @throws Exception if the bytecode access fails
+     */
+    default byte[] iterate(Stable<A> stable,
+                           Predicate<byte[]> test,
+                           ExecutorService executor,
+                           int jobs) throws Exception {
+
+        if (jobs <= 1)
+            return iterate(stable, test);
+
+        for (; ; ) {
+            List<State.Experimental<A>> batch = new ArrayList<>(jobs);
+            Stable<A> base = stable;
+
+            // collect the next candidates that were not attempted yet
+            while (batch.size() < jobs) {
+                var res = apply(base);
+
+                if (res.isMinimal())
+                    break;
+
+                batch.add(res);
+                base = res.reject();
+            }
+
+            // assumption that a minimal result was already checked
+            if (batch.isEmpty())
+                return stable.bytecode();
+
+            List<Future<Boolean>> results = new ArrayList<>(batch.size());
+            for (var res : batch)
+                results.add(executor.submit(() -> test.test(res.bytecode())));
+
+            State.Experimental<A> accepted = null;
+
+            for (int i = 0; i < batch.size(); i++) {
+                if (accepted != null)
+                    // remaining candidates are obsolete
+                    results.get(i).cancel(true);
+                else if (results.get(i).get())
+                    accepted = batch.get(i);
+            }
+
+            // if every candidate was rejected, the last speculative base
+            // already contains the whole batch in its attempt log
+            stable = accepted != null ? accepted.accept() : base;
+        }
+    }
 }
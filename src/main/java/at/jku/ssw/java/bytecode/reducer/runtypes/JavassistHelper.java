@@ -1,5 +1,6 @@
 package at.jku.ssw.java.bytecode.reducer.runtypes;
 
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
 import at.jku.ssw.java.bytecode.reducer.utils.javassist.Javassist;
 import javassist.CtClass;
 
@@ -12,6 +13,11 @@ public interface JavassistHelper extends BytecodeTransformer<CtClass> {
         return Javassist.loadClass(bytecode);
     }
 
+    @Override
+    default CtClass classFrom(Bytecode bytecode) throws Exception {
+        return Javassist.loadClass(bytecode);
+    }
+
     @Override
     default byte[] bytecodeFrom(CtClass clazz) throws Exception {
         return Javassist.bytecode(clazz);
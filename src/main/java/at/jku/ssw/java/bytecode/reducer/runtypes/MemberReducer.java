@@ -2,9 +2,17 @@ package at.jku.ssw.java.bytecode.reducer.runtypes;
 
 import at.jku.ssw.java.bytecode.reducer.states.State.Stable;
 import at.jku.ssw.java.bytecode.reducer.states.State.Experimental;
+import at.jku.ssw.java.bytecode.reducer.utils.DeltaDebugging;
 import at.jku.ssw.java.bytecode.reducer.utils.functional.Catch;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
@@ -13,6 +21,9 @@ import java.util.stream.Stream;
  * by the implementing class.
  * Already tried members are stored in a cache where each member is bound
  * to a specific key by a given mapping.
+ * If the forced result is not interesting, the members that are kept
+ * are determined via delta debugging (see {@link DeltaDebugging})
+ * instead of attempting one member after another.
  *
  * @param <CLASS>  The type for types
  * @param <MEMBER> The type for members
@@ -25,7 +36,7 @@ public interface MemberReducer<CLASS, MEMBER, CACHE>
     @Override
     default Experimental<CACHE> apply(Stable<CACHE> stable) throws Exception {
 
-        CLASS clazz = classFrom(stable.bytecode());
+        CLASS clazz = classFrom(stable.code());
 
         // get the first applicable member that was not already attempted
         Optional<MEMBER> optMember = getMembers(clazz)
@@ -38,8 +49,112 @@ public interface MemberReducer<CLASS, MEMBER, CACHE>
                 .orElseGet(stable::toMinimalResult);
     }
 
+    /**
+     * Applies the reduction operation until a minimal result is found.
+     * If the forced result is not interesting, chunks of members are
+     * removed at once and only the chunks that fail are narrowed down.
+     *
+     * @param bytecode The bytecode to reduce
+     * @param test     The function that determines whether the resulting
+     *                 bytecode is valid
+     * @return the minimal bytecode
+     * @throws Exception if the bytecode access at some point reports errors
+     */
+    @Override
+    default byte[] apply(byte[] bytecode, Predicate<byte[]> test) throws Exception {
+        return apply(bytecode, test, null, 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default byte[] apply(byte[] bytecode,
+                         Predicate<byte[]> test,
+                         ExecutorService executor,
+                         int jobs) throws Exception {
+        var forced = force(bytecode).bytecode();
+
+        // try forced result (assumed to be minimal)
+        if (test.test(forced))
+            return forced;
+
+        return minimize(bytecode, test, executor, jobs);
+    }
+
+    /**
+     * Minimizes the members of the given bytecode via delta debugging.
+     * As removing members may render other members removable,
+     * this is repeated until no further member can be removed.
+     *
+     * @param bytecode The bytecode to reduce
+     * @param test     The thread-safe function that determines whether the
+     *                 resulting bytecode is valid
+     * @param executor The executor that runs the tests ({@code null} if
+     *                 the tests are run sequentially)
+     * @param jobs     The maximum number of concurrently tested candidates
+     * @return the minimal bytecode
+     * @throws Exception if the bytecode access at some point reports errors
+     */
+    default byte[] minimize(byte[] bytecode,
+                            Predicate<byte[]> test,
+                            ExecutorService executor,
+                            int jobs) throws Exception {
+        var current = bytecode;
+
+        for (; ; ) {
+            var base  = current;
+            var count = (int) getMembers(classFrom(base)).count();
+
+            // members are identified by their position, as the
+            // member instances of different class instances may differ
+            var members = IntStream.range(0, count)
+                    .boxed()
+                    .collect(Collectors.toList());
+
+            var reduced = DeltaDebugging.minimize(
+                    members,
+                    base,
+                    kept -> without(base, kept),
+                    test,
+                    executor,
+                    jobs
+            );
+
+            // the processing of the members did not change anything
+            if (Arrays.equals(reduced, base))
+                return base;
+
+            current = reduced;
+        }
+    }
+
+    /**
+     * Processes all members of the given bytecode except the given ones.
+     *
+     * @param bytecode The bytecode
+     * @param kept     The positions of the members that are kept
+     *                 (in the order of {@link #getMembers(Object)})
+     * @return the resulting bytecode
+     * @throws Exception if the processing failed
+     */
+    default byte[] without(byte[] bytecode, List<Integer> kept) throws Exception {
+        CLASS clazz = classFrom(bytecode);
+
+        List<MEMBER> members = getMembers(clazz).collect(Collectors.toList());
+        var keep = new HashSet<>(kept);
+
+        for (int i = 0; i < members.size(); i++)
+            if (!keep.contains(i))
+                clazz = process(clazz, members.get(i));
+
+        return bytecodeFrom(clazz);
+    }
+
     /**
      * Retrieves potentially applicable members that should be attempted.
+     * The members should be listed in a deterministic order,
+     * as the delta debugging identifies them by their position.
      *
      * @param clazz The class type instance
      * @return a stream of potential members (of the given member type)
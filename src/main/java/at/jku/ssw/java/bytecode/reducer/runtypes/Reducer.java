@@ -1,5 +1,6 @@
 package at.jku.ssw.java.bytecode.reducer.runtypes;
 
+import java.util.concurrent.ExecutorService;
 import java.util.function.Predicate;
 
 /**
@@ -32,4 +33,27 @@ public interface Reducer {
 
         return test.test(result) ? result : bytecode;
     }
+
+    /**
+     * Reduces the given bytecode and allows the reducer to evaluate
+     * up to {@code jobs} candidates concurrently on the given executor.
+     * The given {@link Predicate} therefore has to be thread-safe.
+     * Reducers that only produce a single result simply fall back to
+     * {@link #apply(byte[], Predicate)}.
+     *
+     * @param bytecode The byte array that contains the bytecode
+     * @param test     Thread-safe function that verifies whether the reduced
+     *                 bytecode is valid
+     * @param executor The executor that runs the tests
+     * @param jobs     The maximum number of concurrently tested candidates
+     * @return the reduced bytecode or the unchanged original bytecode
+     * if the test failed
+     * @throws Exception if the bytecode cannot be parsed or is invalid
+     */
+    default byte[] apply(byte[] bytecode,
+                         Predicate<byte[]> test,
+                         ExecutorService executor,
+                         int jobs) throws Exception {
+        return apply(bytecode, test);
+    }
 }
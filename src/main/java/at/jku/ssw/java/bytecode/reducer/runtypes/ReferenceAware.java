@@ -0,0 +1,19 @@
+package at.jku.ssw.java.bytecode.reducer.runtypes;
+
+import at.jku.ssw.java.bytecode.reducer.context.ReferenceIndex;
+
+/**
+ * Run type for reducers that also take the references from other
+ * classes of the reduction into account (e.g. to only remove members
+ * that are not used anywhere).
+ */
+public interface ReferenceAware {
+
+    /**
+     * Sets the index of the references between all classes
+     * that are reduced.
+     *
+     * @param references The reference index
+     */
+    void setReferences(ReferenceIndex references);
+}
@@ -0,0 +1,219 @@
+package at.jku.ssw.java.bytecode.reducer.states;
+
+import at.jku.ssw.java.bytecode.reducer.utils.HashUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Immutable handle of the bytecode of a class.
+ * The bytes are never modified and therefore can be shared
+ * (e.g. between states, the cache and the oracles) without copying.
+ * The content hash and the class name are computed once on demand.
+ */
+public final class Bytecode {
+
+    /**
+     * The bytes, which must not be modified.
+     */
+    private final byte[] bytes;
+
+    /**
+     * The content hash ({@code null} if it was not computed yet).
+     */
+    private volatile byte[] hash;
+
+    /**
+     * The internal class name ({@code null} if it was not parsed yet).
+     */
+    private volatile String className;
+
+    private Bytecode(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * Creates a handle of a copy of the given bytes.
+     *
+     * @param bytes The bytecode
+     * @return a new bytecode handle
+     */
+    public static Bytecode of(byte[] bytes) {
+        return new Bytecode(Arrays.copyOf(bytes, bytes.length));
+    }
+
+    /**
+     * Creates a handle of the given bytes without copying them.
+     * The caller passes the ownership of the array to the handle
+     * and must not modify it afterwards (e.g. for bytecode that was
+     * just generated by a class writer).
+     *
+     * @param bytes The bytecode
+     * @return a new bytecode handle
+     */
+    public static Bytecode wrap(byte[] bytes) {
+        return new Bytecode(bytes);
+    }
+
+    /**
+     * Returns the number of bytes.
+     *
+     * @return the length of the bytecode
+     */
+    public int length() {
+        return bytes.length;
+    }
+
+    /**
+     * Returns a read-only view of the bytes
+     * (e.g. for writing them to a file or channel).
+     *
+     * @return a new read-only buffer that is positioned at the start
+     */
+    public ByteBuffer buffer() {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns a stream that reads the bytes (e.g. for parsers that
+     * do not require a byte array).
+     *
+     * @return a new input stream
+     */
+    public InputStream stream() {
+        return new ByteArrayInputStream(bytes);
+    }
+
+    /**
+     * Returns a copy of the bytes (e.g. for APIs that may modify them).
+     *
+     * @return a new byte array
+     */
+    public byte[] toArray() {
+        return Arrays.copyOf(bytes, bytes.length);
+    }
+
+    /**
+     * Returns the content hash of the bytes.
+     *
+     * @return a copy of the hash (see {@link HashUtils#hash(byte[]...)})
+     */
+    public byte[] hash() {
+        var h = hash;
+
+        if (h == null)
+            hash = h = HashUtils.hash(bytes);
+
+        return Arrays.copyOf(h, h.length);
+    }
+
+    /**
+     * Returns the internal name of the class (e.g. {@code java/lang/Object}).
+     *
+     * @return the name of the class
+     * @throws IllegalArgumentException if the bytecode is malformed
+     */
+    public String className() {
+        var n = className;
+
+        if (n == null)
+            className = n = parseClassName();
+
+        return n;
+    }
+
+    /**
+     * Reads the name of the class from the constant pool.
+     */
+    private String parseClassName() {
+        try {
+            var buffer  = buffer();
+            var count   = Short.toUnsignedInt(buffer.getShort(8));
+            var offsets = new int[count];
+
+            buffer.position(10);
+
+            for (int i = 1; i < count; i++) {
+                offsets[i] = buffer.position();
+
+                var tag = buffer.get();
+                switch (tag) {
+                    case 1: // Utf8
+                        var length = Short.toUnsignedInt(buffer.getShort());
+                        buffer.position(buffer.position() + length);
+                        break;
+                    case 5: // Long
+                    case 6: // Double
+                        buffer.position(buffer.position() + 8);
+                        i++;
+                        break;
+                    case 3: // Integer
+                    case 4: // Float
+                    case 9: // Fieldref
+                    case 10: // Methodref
+                    case 11: // InterfaceMethodref
+                    case 12: // NameAndType
+                    case 17: // Dynamic
+                    case 18: // InvokeDynamic
+                        buffer.position(buffer.position() + 4);
+                        break;
+                    case 15: // MethodHandle
+                        buffer.position(buffer.position() + 3);
+                        break;
+                    default: // Class, String, MethodType, Module, Package
+                        buffer.position(buffer.position() + 2);
+                }
+            }
+
+            // skip the access flags
+            var thisClass = Short.toUnsignedInt(buffer.getShort(buffer.position() + 2));
+            var name      = Short.toUnsignedInt(buffer.getShort(offsets[thisClass] + 1));
+            var utf8      = offsets[name] + 1;
+            var size      = Short.toUnsignedInt(buffer.getShort(utf8));
+
+            return new DataInputStream(new ByteArrayInputStream(bytes, utf8, size + 2)).readUTF();
+        } catch (RuntimeException | IOException e) {
+            throw new IllegalArgumentException("Malformed class file", e);
+        }
+    }
+
+    /**
+     * Checks whether the given bytes equal this bytecode.
+     *
+     * @param other The bytes to compare
+     * @return {@code true} if the contents are equal
+     */
+    public boolean contentEquals(byte[] other) {
+        return Arrays.equals(bytes, other);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        var that = (Bytecode) o;
+
+        // compare the hashes if both are known already
+        if (hash != null && that.hash != null)
+            return Arrays.equals(hash, that.hash);
+
+        return Arrays.equals(bytes, that.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public String toString() {
+        return "Bytecode{" +
+                "length=" + bytes.length +
+                '}';
+    }
+}
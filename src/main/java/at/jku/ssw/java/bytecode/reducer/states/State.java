@@ -1,10 +1,10 @@
 package at.jku.ssw.java.bytecode.reducer.states;
 
-import java.util.Arrays;
-import java.util.Collection;
+import at.jku.ssw.java.bytecode.reducer.utils.PersistentLongSet;
+import at.jku.ssw.java.bytecode.reducer.utils.PersistentSet;
+import at.jku.ssw.java.bytecode.reducer.utils.cachetypes.Encodable;
+
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Represents either a reduction {@link Stable} or {@link Experimental} that
@@ -18,36 +18,55 @@ public abstract class State<T> {
     /**
      * The current bytecode.
      */
-    protected final byte[] bytecode;
+    protected final Bytecode bytecode;
 
     /**
      * The attempts of previous reducers.
+     * Consecutive states share the attempts of their predecessors,
+     * therefore adding an attempt does not copy the whole log.
+     */
+    protected final PersistentSet<T> attempts;
+
+    /**
+     * The keys of the previous attempts that are {@link Encodable}
+     * (which are not contained in {@link #attempts}).
      */
-    protected final Set<T> attempts;
+    protected final PersistentLongSet keys;
 
     /**
      * Increasing identifier for consecutive runs.
      */
     public final int run;
 
+    /**
+     * The position at which the next reduction continues
+     * (e.g. the behaviour and bytecode index of the last candidate).
+     * The encoding is up to the reducer, {@code 0} denotes the beginning.
+     */
+    protected final long cursor;
+
     /**
      * Instantiate a new object with the given bytecode and attempt cache.
      *
      * @param bytecode The bytecode that represents this base / result
-     * @param attempts The initial cache (empty if null)
+     * @param attempts The initial cache
+     * @param keys     The keys of the initially cached encodable attempts
      * @param run      The run number (default 0)
+     * @param cursor   The position at which the next reduction continues
      */
-    protected State(byte[] bytecode, Set<T> attempts, int run) {
+    protected State(Bytecode bytecode, PersistentSet<T> attempts, PersistentLongSet keys, int run, long cursor) {
         this.bytecode = bytecode;
         this.attempts = attempts;
+        this.keys = keys;
         this.run = run;
+        this.cursor = cursor;
     }
 
     /**
-     * @see State#State(byte[], Set, int)
+     * @see State#State(Bytecode, PersistentSet, PersistentLongSet, int, long)
      */
-    protected State(byte[] bytecode, int run) {
-        this(bytecode, Set.of(), run);
+    protected State(Bytecode bytecode, int run) {
+        this(bytecode, PersistentSet.empty(), PersistentLongSet.empty(), run, 0);
     }
 
     /**
@@ -58,16 +77,46 @@ public abstract class State<T> {
      * @return a new reduction base
      */
     public static <U> Stable<U> of(byte[] bytecode) {
-        return new Stable<>(Arrays.copyOf(bytecode, bytecode.length));
+        return of(Bytecode.of(bytecode));
+    }
+
+    /**
+     * Instantiate a base from the given bytecode handle (without copying).
+     *
+     * @param bytecode The bytecode describing the class
+     * @param <U>      The type of the cached attempts
+     * @return a new reduction base
+     */
+    public static <U> Stable<U> of(Bytecode bytecode) {
+        return new Stable<>(bytecode);
     }
 
     /**
-     * Returns the bytecode.
+     * Returns a copy of the bytecode.
      *
      * @return a byte array describing a class
      */
     public final byte[] bytecode() {
-        return Arrays.copyOf(bytecode, bytecode.length);
+        return bytecode.toArray();
+    }
+
+    /**
+     * Returns the bytecode without copying it.
+     *
+     * @return the immutable bytecode handle
+     */
+    public final Bytecode code() {
+        return bytecode;
+    }
+
+    /**
+     * Returns the position at which the next reduction continues.
+     *
+     * @return the cursor ({@code 0} if the reduction starts
+     * from the beginning)
+     */
+    public final long cursor() {
+        return cursor;
     }
 
     /**
@@ -79,7 +128,9 @@ public abstract class State<T> {
      * otherwise
      */
     public final boolean isCached(T attempt) {
-        return attempts.contains(attempt);
+        return attempt instanceof Encodable
+                ? keys.contains(((Encodable) attempt).encode())
+                : attempts.contains(attempt);
     }
 
     /**
@@ -89,6 +140,52 @@ public abstract class State<T> {
         return !isCached(attempt);
     }
 
+    /**
+     * Determines whether the encodable attempt with the given key
+     * is already cached. In contrast to {@link #isCached(Object)},
+     * this does not require an attempt instance. The method is named
+     * differently, such that boxed attempts (e.g. {@code Integer} indices)
+     * are never mistaken for keys.
+     *
+     * @param key The encoded attempt (see {@link Encodable#encode()})
+     * @return {@code true} if this attempt was already tried, {@code false}
+     * otherwise
+     */
+    public final boolean isKeyCached(long key) {
+        return keys.contains(key);
+    }
+
+    /**
+     * @see State#isKeyCached(long)
+     */
+    public final boolean isKeyNotCached(long key) {
+        return !isKeyCached(key);
+    }
+
+    /**
+     * Adds the given attempts that are not {@link Encodable}
+     * to the given cache.
+     */
+    private static <T> PersistentSet<T> plain(PersistentSet<T> cache, Set<T> attempts) {
+        for (var attempt : attempts)
+            if (!(attempt instanceof Encodable))
+                cache = cache.plus(attempt);
+
+        return cache;
+    }
+
+    /**
+     * Adds the keys of the given {@link Encodable} attempts
+     * to the given cache.
+     */
+    private static PersistentLongSet encoded(PersistentLongSet keys, Set<?> attempts) {
+        for (var attempt : attempts)
+            if (attempt instanceof Encodable)
+                keys = keys.plus(((Encodable) attempt).encode());
+
+        return keys;
+    }
+
     /**
      * Represents the base of a reduction.
      * Stores the source bytecode and any previous attempt.
@@ -98,23 +195,23 @@ public abstract class State<T> {
     public static class Stable<T> extends State<T> {
 
         /**
-         * @see State#State(byte[], Set, int)
+         * @see State#State(Bytecode, PersistentSet, PersistentLongSet, int, long)
          */
-        protected Stable(byte[] bytecode, Set<T> cache, int run) {
-            super(bytecode, cache, run);
+        protected Stable(Bytecode bytecode, PersistentSet<T> cache, PersistentLongSet keys, int run, long cursor) {
+            super(bytecode, cache, keys, run, cursor);
         }
 
         /**
-         * @see State#State(byte[], Set, int)
+         * @see State#State(Bytecode, PersistentSet, PersistentLongSet, int, long)
          */
-        protected Stable(byte[] bytecode, int run) {
+        protected Stable(Bytecode bytecode, int run) {
             super(bytecode, run);
         }
 
         /**
-         * @see State#State(byte[], Set, int)
+         * @see State#State(Bytecode, PersistentSet, PersistentLongSet, int, long)
          */
-        protected Stable(byte[] bytecode) {
+        protected Stable(Bytecode bytecode) {
             super(bytecode, 0);
         }
 
@@ -124,16 +221,41 @@ public abstract class State<T> {
          * {@link at.jku.ssw.java.bytecode.reducer.runtypes.Reducer}.
          * Also appends the new attempts.
          *
-         * @param bytecode The reduced bytecode (probably invalid)
+         * @param bytecode The reduced bytecode (probably invalid), whose
+         *                 ownership is passed to the result
          * @param attempts The updates that led to this result
          * @return a new result that stores the current and reduced bytecodes
          */
         @SafeVarargs
         public final Experimental<T> toResult(byte[] bytecode, T... attempts) {
-            if (Arrays.equals(this.bytecode, bytecode))
-                return new Experimental.Failure<>(this, bytecode, Set.of(attempts));
+            return toResult(Bytecode.wrap(bytecode), attempts);
+        }
+
+        /**
+         * @see Stable#toResult(byte[], Object[])
+         */
+        @SafeVarargs
+        public final Experimental<T> toResult(Bytecode bytecode, T... attempts) {
+            return toResumableResult(bytecode, 0, attempts);
+        }
+
+        /**
+         * Transforms the base into a new {@link Experimental}
+         * whose successors (regardless of whether the result is accepted
+         * or rejected) continue the reduction at the given position.
+         *
+         * @param bytecode The reduced bytecode (probably invalid)
+         * @param cursor   The position at which the next reduction
+         *                 continues (see {@link State#cursor()})
+         * @param attempts The updates that led to this result
+         * @return a new result that stores the current and reduced bytecodes
+         */
+        @SafeVarargs
+        public final Experimental<T> toResumableResult(Bytecode bytecode, long cursor, T... attempts) {
+            if (this.bytecode.equals(bytecode))
+                return new Experimental.Failure<>(this, bytecode, Set.of(attempts), cursor);
             else
-                return new Experimental<>(this, bytecode, Set.of(attempts));
+                return new Experimental<>(this, bytecode, Set.of(attempts), false, cursor);
         }
 
         /**
@@ -145,7 +267,7 @@ public abstract class State<T> {
          * @return a new result that stores the current and reduced bytecodes
          */
         public final Experimental<T> toMinimalResult() {
-            return new Experimental<>(this, bytecode, Set.of(), true);
+            return new Experimental<>(this, bytecode, Set.of(), true, 0);
         }
     }
 
@@ -159,8 +281,8 @@ public abstract class State<T> {
 
         private static class Failure<T> extends Experimental<T> {
 
-            protected Failure(Stable<T> stable, byte[] bytecode, Set<T> attempts) {
-                super(stable, bytecode, attempts);
+            protected Failure(Stable<T> stable, Bytecode bytecode, Set<T> attempts, long cursor) {
+                super(stable, bytecode, attempts, false, cursor);
             }
 
             @Override
@@ -174,7 +296,7 @@ public abstract class State<T> {
          * Is stored in order to revert back to this in
          * case of invalid results.
          */
-        protected final byte[] previous;
+        protected final Bytecode previous;
 
         /**
          * Flag that indicates that a result is minimal.
@@ -189,11 +311,16 @@ public abstract class State<T> {
          * @param bytecode The resulting bytecode
          * @param attempts The additional updates
          * @param min      Indicates whether the result is minimal
+         * @param cursor   The position at which the next reduction continues
          */
-        protected Experimental(Stable<T> stable, byte[] bytecode, Set<T> attempts, boolean min) {
-            super(bytecode, Stream.of(stable.attempts, attempts)
-                    .flatMap(Collection::stream)
-                    .collect(Collectors.toSet()), stable.run + 1);
+        protected Experimental(Stable<T> stable, Bytecode bytecode, Set<T> attempts, boolean min, long cursor) {
+            super(
+                    bytecode,
+                    plain(stable.attempts, attempts),
+                    encoded(stable.keys, attempts),
+                    stable.run + 1,
+                    cursor
+            );
             this.previous = stable.bytecode;
             this.minimal = min;
         }
@@ -206,8 +333,8 @@ public abstract class State<T> {
          * @param bytecode The resulting bytecode
          * @param attempts The additional updates
          */
-        protected Experimental(Stable<T> stable, byte[] bytecode, Set<T> attempts) {
-            this(stable, bytecode, attempts, false);
+        protected Experimental(Stable<T> stable, Bytecode bytecode, Set<T> attempts) {
+            this(stable, bytecode, attempts, false, 0);
         }
 
         /**
@@ -218,7 +345,7 @@ public abstract class State<T> {
          * attempt log
          */
         public Stable<T> accept() {
-            return new Stable<>(bytecode, run);
+            return new Stable<>(bytecode, PersistentSet.empty(), PersistentLongSet.empty(), run, cursor);
         }
 
         /**
@@ -229,7 +356,7 @@ public abstract class State<T> {
          * and the cached attempts
          */
         public Stable<T> reject() {
-            return new Stable<>(previous, attempts, run);
+            return new Stable<>(previous, attempts, keys, run, cursor);
         }
 
         /**
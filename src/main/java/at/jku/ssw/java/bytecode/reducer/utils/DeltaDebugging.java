@@ -0,0 +1,249 @@
+package at.jku.ssw.java.bytecode.reducer.utils;
+
+import at.jku.ssw.java.bytecode.reducer.utils.functional.TFunction;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+/**
+ * Implementation of the delta debugging algorithm ({@code ddmin}) that
+ * minimizes a configuration of items (e.g. the members that are kept).
+ * The configuration is split into chunks that are removed at once,
+ * and only the chunks whose removal fails are split further.
+ * If most items can be removed, this requires a logarithmic number of tests
+ * (instead of one test per item).
+ */
+public final class DeltaDebugging {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private DeltaDebugging() {
+    }
+
+    /**
+     * Minimizes the given configuration.
+     *
+     * @param items    The initial configuration (whose candidate is
+     *                 assumed to be interesting)
+     * @param original The candidate of the initial configuration
+     * @param build    The function that creates the candidate for
+     *                 a configuration
+     * @param test     The function that determines whether a candidate
+     *                 is interesting
+     * @param <T>      The type of the items
+     * @param <C>      The type of the candidates
+     * @return the candidate of the minimal configuration or the original
+     * candidate if no item can be removed
+     * @throws Exception if a candidate cannot be built or tested
+     */
+    public static <T, C> C minimize(List<T> items,
+                                    C original,
+                                    TFunction<List<T>, C> build,
+                                    Predicate<C> test) throws Exception {
+        return minimize(items, original, build, test, null, 1);
+    }
+
+    /**
+     * Minimizes the given configuration while testing up to {@code jobs}
+     * candidates of the same granularity concurrently.
+     * The candidates are built on the calling thread, and of all interesting
+     * candidates the first one (in the order of generation) is chosen,
+     * such that the result does not depend on the order in which
+     * the concurrent tests finish.
+     *
+     * @param items    The initial configuration (whose candidate is
+     *                 assumed to be interesting)
+     * @param original The candidate of the initial configuration
+     * @param build    The function that creates the candidate for
+     *                 a configuration
+     * @param test     The thread-safe function that determines whether
+     *                 a candidate is interesting
+     * @param executor The executor that runs the tests
+     * @param jobs     The maximum number of concurrently tested candidates
+     * @param <T>      The type of the items
+     * @param <C>      The type of the candidates
+     * @return the candidate of the minimal configuration or the original
+     * candidate if no item can be removed
+     * @throws Exception if a candidate cannot be built or tested
+     */
+    public static <T, C> C minimize(List<T> items,
+                                    C original,
+                                    TFunction<List<T>, C> build,
+                                    Predicate<C> test,
+                                    ExecutorService executor,
+                                    int jobs) throws Exception {
+
+        var config    = items;
+        var candidate = original;
+        var n         = 2;
+
+        while (!config.isEmpty()) {
+            var chunks = split(config, Math.min(n, config.size()));
+
+            // the subsets only differ from the complements
+            // if there are more than two chunks
+            List<List<T>> configs = new ArrayList<>();
+            if (chunks.size() > 2)
+                configs.addAll(chunks);
+            for (int i = 0; i < chunks.size(); i++)
+                configs.add(complement(chunks, i));
+
+            logger.trace("Testing {} configurations of {} items at granularity {}", configs.size(), config.size(), chunks.size());
+
+            var found = executor == null || jobs <= 1
+                    ? findSequentially(configs, build, test)
+                    : findConcurrently(configs, build, test, executor, jobs);
+
+            if (found != null) {
+                // reduce to a subset and start over with halves or
+                // reduce to a complement and keep the granularity
+                n = chunks.size() > 2 && found.index < chunks.size()
+                        ? 2
+                        : Math.max(chunks.size() - 1, 2);
+
+                config = found.config;
+                candidate = found.candidate;
+            } else if (chunks.size() < config.size()) {
+                // only narrow down the chunks that failed
+                n = Math.min(chunks.size() * 2, config.size());
+            } else {
+                // no single item can be removed
+                break;
+            }
+        }
+
+        return candidate;
+    }
+
+    /**
+     * Tests the given configurations one after another.
+     *
+     * @return the first interesting configuration or {@code null}
+     * if there is none
+     */
+    private static <T, C> Found<T, C> findSequentially(List<List<T>> configs,
+                                                       TFunction<List<T>, C> build,
+                                                       Predicate<C> test) throws Exception {
+        for (int i = 0; i < configs.size(); i++) {
+            var config    = configs.get(i);
+            var candidate = build.apply(config);
+
+            if (test.test(candidate))
+                return new Found<>(i, config, candidate);
+        }
+
+        return null;
+    }
+
+    /**
+     * Tests the given configurations in batches of {@code jobs} candidates.
+     *
+     * @return the first interesting configuration or {@code null}
+     * if there is none
+     */
+    private static <T, C> Found<T, C> findConcurrently(List<List<T>> configs,
+                                                       TFunction<List<T>, C> build,
+                                                       Predicate<C> test,
+                                                       ExecutorService executor,
+                                                       int jobs) throws Exception {
+
+        for (int from = 0; from < configs.size(); from += jobs) {
+            var batch = configs.subList(from, Math.min(from + jobs, configs.size()));
+
+            List<C> candidates = new ArrayList<>(batch.size());
+            for (var config : batch)
+                candidates.add(build.apply(config));
+
+            List<Future<Boolean>> results = new ArrayList<>(batch.size());
+            for (var candidate : candidates)
+                results.add(executor.submit(() -> test.test(candidate)));
+
+            Found<T, C> found = null;
+
+            for (int i = 0; i < batch.size(); i++) {
+                if (found != null) {
+                    // remaining candidates are obsolete
+                    results.get(i).cancel(true);
+                    continue;
+                }
+
+                try {
+                    if (results.get(i).get())
+                        found = new Found<>(from + i, batch.get(i), candidates.get(i));
+                } catch (ExecutionException e) {
+                    results.subList(i + 1, results.size()).forEach(r -> r.cancel(true));
+
+                    if (e.getCause() instanceof Exception)
+                        throw (Exception) e.getCause();
+                    throw e;
+                }
+            }
+
+            if (found != null)
+                return found;
+        }
+
+        return null;
+    }
+
+    /**
+     * Splits the given configuration into the given number of chunks
+     * of (almost) equal size.
+     *
+     * @param config The configuration
+     * @param n      The number of chunks
+     *               (at most the size of the configuration)
+     * @param <T>    The type of the items
+     * @return the list of chunks
+     */
+    private static <T> List<List<T>> split(List<T> config, int n) {
+        List<List<T>> chunks = new ArrayList<>(n);
+
+        for (int i = 0, start = 0; i < n; i++) {
+            var end = start + (config.size() - start) / (n - i);
+            chunks.add(config.subList(start, end));
+            start = end;
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Combines all chunks except the one at the given index.
+     *
+     * @param chunks The chunks of a configuration
+     * @param index  The index of the chunk that is removed
+     * @param <T>    The type of the items
+     * @return a new configuration without the chunk
+     */
+    private static <T> List<T> complement(List<List<T>> chunks, int index) {
+        List<T> complement = new ArrayList<>();
+
+        for (int i = 0; i < chunks.size(); i++)
+            if (i != index)
+                complement.addAll(chunks.get(i));
+
+        return complement;
+    }
+
+    /**
+     * An interesting configuration and its candidate.
+     */
+    private static class Found<T, C> {
+        final int index;
+        final List<T> config;
+        final C candidate;
+
+        Found(int index, List<T> config, C candidate) {
+            this.index = index;
+            this.config = config;
+            this.candidate = candidate;
+        }
+    }
+}
@@ -78,6 +78,21 @@ public final class FileUtils {
                 .filter(Objects::nonNull);
     }
 
+    /**
+     * Computes the total size of all files within the given directory.
+     *
+     * @param path The path to the directory
+     * @return the size in bytes
+     * @throws IOException if the files cannot be accessed
+     */
+    public static long size(Path path) throws IOException {
+        try (var pathStream = Files.walk(path)) {
+            return pathStream.filter(Files::isRegularFile)
+                    .mapToLong(p -> p.toFile().length())
+                    .sum();
+        }
+    }
+
     /**
      * Scans the given path and recursively returns all files that match
      * all the given filters (if any).
@@ -0,0 +1,49 @@
+package at.jku.ssw.java.bytecode.reducer.utils;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Utilities to compute content hashes (e.g. of bytecodes or test files).
+ */
+public final class HashUtils {
+
+    /**
+     * The hash algorithm that is used to identify contents.
+     * Is chosen to be collision resistant, as equal hashes are
+     * treated as equal contents.
+     */
+    public static final String ALGORITHM = "SHA-256";
+
+    private HashUtils() {
+    }
+
+    /**
+     * Creates a new {@link MessageDigest} for the default algorithm.
+     *
+     * @return a new message digest instance
+     */
+    public static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Computes the hash of the given contents.
+     *
+     * @param parts The contents that are hashed in the given order
+     * @return the hash value
+     */
+    public static byte[] hash(byte[]... parts) {
+        var digest = digest();
+
+        for (var part : parts)
+            digest.update(part);
+
+        return digest.digest();
+    }
+}
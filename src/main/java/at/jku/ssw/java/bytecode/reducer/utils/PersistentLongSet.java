@@ -0,0 +1,228 @@
+package at.jku.ssw.java.bytecode.reducer.utils;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of primitive {@code long} values that shares a single
+ * open-addressing hash table with the sets it was derived from.
+ * The table records the order in which the values were added,
+ * and each set only contains the values up to its own size.
+ * Therefore, adding a value to the most recent set takes amortized
+ * constant time, and lookups neither allocate nor box the values.
+ * Only if an older set is extended (i.e. the history branches),
+ * the table is copied.
+ * <p>
+ * As the table is mutable, all accesses to it are guarded by the table
+ * itself. Sets that share a table may therefore be queried and extended
+ * from different threads (e.g. by concurrent reductions).
+ */
+public final class PersistentLongSet {
+
+    /**
+     * The initial capacity of the table (a power of two).
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The shared table ({@code null} for empty sets).
+     */
+    private final Table table;
+
+    /**
+     * The number of values (the first {@code size} values
+     * of the table belong to this set).
+     */
+    private final int size;
+
+    private PersistentLongSet(Table table, int size) {
+        this.table = table;
+        this.size = size;
+    }
+
+    /**
+     * Returns a new empty set.
+     *
+     * @return an empty set that does not share its table
+     */
+    public static PersistentLongSet empty() {
+        return new PersistentLongSet(null, 0);
+    }
+
+    /**
+     * Checks whether the given value is contained in this set.
+     *
+     * @param value The value
+     * @return {@code true} if the value is contained
+     */
+    public boolean contains(long value) {
+        if (table == null)
+            return false;
+
+        int ordinal;
+        synchronized (table) {
+            ordinal = table.ordinal(value);
+        }
+
+        return ordinal >= 0 && ordinal < size;
+    }
+
+    /**
+     * Returns a set that contains the given value in addition
+     * to the values of this set.
+     *
+     * @param value The value to add
+     * @return a new set or this set if it already contains the value
+     */
+    public PersistentLongSet plus(long value) {
+        if (contains(value))
+            return this;
+
+        if (table == null) {
+            var created = new Table(INITIAL_CAPACITY);
+            created.add(value);
+
+            return new PersistentLongSet(created, 1);
+        }
+
+        synchronized (table) {
+            var shared = table;
+
+            // the table was already extended by another set
+            if (shared.size != size)
+                shared = shared.copy(size);
+
+            shared.add(value);
+
+            return new PersistentLongSet(shared, size + 1);
+        }
+    }
+
+    /**
+     * Returns the number of values.
+     *
+     * @return the size of this set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Hash table with linear probing that maps values onto the order
+     * in which they were added.
+     */
+    private static final class Table {
+
+        /**
+         * The values of the occupied slots.
+         */
+        long[] values;
+
+        /**
+         * The order of the values in the corresponding slots plus one
+         * ({@code 0} marks free slots).
+         */
+        int[] ordinals;
+
+        /**
+         * The values in the order of addition.
+         */
+        long[] order;
+
+        /**
+         * The number of values.
+         */
+        int size;
+
+        Table(int capacity) {
+            this.values = new long[capacity];
+            this.ordinals = new int[capacity];
+            this.order = new long[capacity / 2];
+        }
+
+        /**
+         * Returns the order of the given value.
+         *
+         * @param value The value
+         * @return the index of addition or {@code -1} if the value
+         * is not contained
+         */
+        int ordinal(long value) {
+            var mask = values.length - 1;
+
+            for (int i = slot(value, mask); ; i = (i + 1) & mask) {
+                if (ordinals[i] == 0)
+                    return -1;
+
+                if (values[i] == value)
+                    return ordinals[i] - 1;
+            }
+        }
+
+        /**
+         * Adds the given value (that is not contained yet).
+         *
+         * @param value The value
+         */
+        void add(long value) {
+            // keep the load factor at most 1/2
+            if (size == order.length)
+                rehash(values.length * 2);
+
+            insert(value, size);
+            order[size++] = value;
+        }
+
+        /**
+         * Creates a new table that only contains the first values.
+         *
+         * @param count The number of values to copy
+         * @return the new table
+         */
+        Table copy(int count) {
+            var capacity = INITIAL_CAPACITY;
+            while (capacity / 2 <= count)
+                capacity *= 2;
+
+            var copy = new Table(capacity);
+
+            for (int i = 0; i < count; i++)
+                copy.add(order[i]);
+
+            return copy;
+        }
+
+        private void rehash(int capacity) {
+            values = new long[capacity];
+            ordinals = new int[capacity];
+            order = Arrays.copyOf(order, capacity / 2);
+
+            for (int i = 0; i < size; i++)
+                insert(order[i], i);
+        }
+
+        private void insert(long value, int ordinal) {
+            var mask = values.length - 1;
+            var i    = slot(value, mask);
+
+            while (ordinals[i] != 0)
+                i = (i + 1) & mask;
+
+            values[i] = value;
+            ordinals[i] = ordinal + 1;
+        }
+
+        /**
+         * Mixes the bits of the given value (the finalizer of MurmurHash3),
+         * as encoded values often only differ in a few bits.
+         */
+        private static int slot(long value, int mask) {
+            value ^= value >>> 33;
+            value *= 0xff51afd7ed558ccdL;
+            value ^= value >>> 33;
+            value *= 0xc4ceb9fe1a85ec53L;
+            value ^= value >>> 33;
+
+            return (int) value & mask;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package at.jku.ssw.java.bytecode.reducer.utils;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable set that shares its structure with the sets it was derived from
+ * (a hash array mapped trie).
+ * Adding an element only copies the nodes on the path to the element,
+ * which takes {@code O(log n)} time and space instead of copying
+ * the whole set.
+ *
+ * @param <T> The type of the elements
+ */
+public final class PersistentSet<T> extends AbstractSet<T> {
+
+    /**
+     * The number of hash bits that are consumed per level.
+     */
+    private static final int BITS = 5;
+
+    /**
+     * The mask that selects the hash bits of a level.
+     */
+    private static final int MASK = (1 << BITS) - 1;
+
+    /**
+     * The empty set.
+     */
+    private static final PersistentSet<?> EMPTY =
+            new PersistentSet<>(new BitmapNode(0, new Object[0]), 0);
+
+    /**
+     * The root of the trie.
+     */
+    private final Node root;
+
+    /**
+     * The number of elements.
+     */
+    private final int size;
+
+    private PersistentSet(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty set.
+     *
+     * @param <T> The type of the elements
+     * @return an empty persistent set
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentSet<T> empty() {
+        return (PersistentSet<T>) EMPTY;
+    }
+
+    /**
+     * Returns a set that contains the given element
+     * in addition to the elements of this set.
+     *
+     * @param element The element to add (must not be {@code null})
+     * @return a new set or this set if it already contains the element
+     */
+    public PersistentSet<T> plus(T element) {
+        Objects.requireNonNull(element);
+
+        var updated = root.add(element, hash(element), 0);
+
+        return updated == root
+                ? this
+                : new PersistentSet<>(updated, size + 1);
+    }
+
+    /**
+     * Returns a set that contains the given elements
+     * in addition to the elements of this set.
+     *
+     * @param elements The elements to add (must not contain {@code null})
+     * @return a new set or this set if it already contains all elements
+     */
+    public PersistentSet<T> plusAll(Collection<? extends T> elements) {
+        var set = this;
+
+        for (var element : elements)
+            set = set.plus(element);
+
+        return set;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o != null && root.contains(o, hash(o), 0);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Iterates a copy of the elements (as the trie is not traversed lazily).
+     *
+     * @return an iterator over the elements in no particular order
+     */
+    @Override
+    public Iterator<T> iterator() {
+        List<Object> elements = new ArrayList<>(size);
+        root.collect(elements);
+
+        @SuppressWarnings("unchecked")
+        var iterator = (Iterator<T>) elements.iterator();
+
+        return iterator;
+    }
+
+    /**
+     * Spreads the higher bits of the hash code, as elements
+     * with equal lower bits share the upper levels of the trie.
+     *
+     * @param o The element
+     * @return the spread hash code
+     */
+    private static int hash(Object o) {
+        var h = o.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * A node of the trie.
+     */
+    private static abstract class Node {
+
+        /**
+         * Checks whether the given element is contained in this node.
+         *
+         * @param element The element
+         * @param hash    The hash of the element
+         * @param shift   The number of hash bits consumed by the parents
+         * @return {@code true} if the element is found
+         */
+        abstract boolean contains(Object element, int hash, int shift);
+
+        /**
+         * Adds the given element.
+         *
+         * @param element The element
+         * @param hash    The hash of the element
+         * @param shift   The number of hash bits consumed by the parents
+         * @return a new node or this node if it already contains the element
+         */
+        abstract Node add(Object element, int hash, int shift);
+
+        /**
+         * Adds all elements of this node to the given list.
+         *
+         * @param elements The target list
+         */
+        abstract void collect(List<Object> elements);
+    }
+
+    /**
+     * Node that holds up to 32 entries (elements or child nodes)
+     * and a bitmap that indicates which hash slots are occupied.
+     */
+    private static final class BitmapNode extends Node {
+
+        /**
+         * The occupied slots.
+         */
+        final int bitmap;
+
+        /**
+         * The entries of the occupied slots in ascending order.
+         */
+        final Object[] entries;
+
+        BitmapNode(int bitmap, Object[] entries) {
+            this.bitmap = bitmap;
+            this.entries = entries;
+        }
+
+        @Override
+        boolean contains(Object element, int hash, int shift) {
+            var bit = 1 << ((hash >>> shift) & MASK);
+
+            if ((bitmap & bit) == 0)
+                return false;
+
+            var entry = entries[index(bit)];
+
+            return entry instanceof Node
+                    ? ((Node) entry).contains(element, hash, shift + BITS)
+                    : entry.equals(element);
+        }
+
+        @Override
+        Node add(Object element, int hash, int shift) {
+            var bit   = 1 << ((hash >>> shift) & MASK);
+            var index = index(bit);
+
+            if ((bitmap & bit) == 0) {
+                var copy = new Object[entries.length + 1];
+                System.arraycopy(entries, 0, copy, 0, index);
+                copy[index] = element;
+                System.arraycopy(entries, index, copy, index + 1, entries.length - index);
+
+                return new BitmapNode(bitmap | bit, copy);
+            }
+
+            var entry = entries[index];
+            Node replacement;
+
+            if (entry instanceof Node) {
+                replacement = ((Node) entry).add(element, hash, shift + BITS);
+
+                if (replacement == entry)
+                    return this;
+            } else if (entry.equals(element)) {
+                return this;
+            } else {
+                replacement = merge(entry, hash(entry), element, hash, shift + BITS);
+            }
+
+            var copy = entries.clone();
+            copy[index] = replacement;
+
+            return new BitmapNode(bitmap, copy);
+        }
+
+        @Override
+        void collect(List<Object> elements) {
+            for (var entry : entries)
+                if (entry instanceof Node)
+                    ((Node) entry).collect(elements);
+                else
+                    elements.add(entry);
+        }
+
+        /**
+         * Returns the index of the entry for the given slot.
+         */
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        /**
+         * Creates the node that holds two distinct elements whose hashes
+         * match in the bits that were consumed so far.
+         */
+        private static Node merge(Object a, int hashA, Object b, int hashB, int shift) {
+            // all hash bits are consumed
+            if (shift >= Integer.SIZE)
+                return new CollisionNode(new Object[]{a, b});
+
+            var bitA = 1 << ((hashA >>> shift) & MASK);
+            var bitB = 1 << ((hashB >>> shift) & MASK);
+
+            if (bitA == bitB)
+                return new BitmapNode(bitA, new Object[]{merge(a, hashA, b, hashB, shift + BITS)});
+
+            return Integer.compareUnsigned(bitA, bitB) < 0
+                    ? new BitmapNode(bitA | bitB, new Object[]{a, b})
+                    : new BitmapNode(bitA | bitB, new Object[]{b, a});
+        }
+    }
+
+    /**
+     * Node that holds elements with the same hash.
+     */
+    private static final class CollisionNode extends Node {
+
+        /**
+         * The elements.
+         */
+        final Object[] elements;
+
+        CollisionNode(Object[] elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        boolean contains(Object element, int hash, int shift) {
+            for (var e : elements)
+                if (e.equals(element))
+                    return true;
+
+            return false;
+        }
+
+        @Override
+        Node add(Object element, int hash, int shift) {
+            if (contains(element, hash, shift))
+                return this;
+
+            var copy = new Object[elements.length + 1];
+            System.arraycopy(elements, 0, copy, 0, elements.length);
+            copy[elements.length] = element;
+
+            return new CollisionNode(copy);
+        }
+
+        @Override
+        void collect(List<Object> elements) {
+            elements.addAll(List.of(this.elements));
+        }
+    }
+}
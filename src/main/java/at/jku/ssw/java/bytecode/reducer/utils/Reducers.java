@@ -1,6 +1,7 @@
 package at.jku.ssw.java.bytecode.reducer.utils;
 
 import at.jku.ssw.java.bytecode.reducer.annot.Expensive;
+import at.jku.ssw.java.bytecode.reducer.annot.Sound;
 import at.jku.ssw.java.bytecode.reducer.runtypes.Reducer;
 
 import java.util.Comparator;
@@ -11,9 +12,45 @@ import java.util.stream.Stream;
  * modules.
  */
 public class Reducers {
+
+    /**
+     * The assumed yield of sound modules in bytes per second.
+     */
+    public static final double SOUND_YIELD = 2000;
+
+    /**
+     * The assumed yield of modules that are not known to be sound
+     * in bytes per second.
+     */
+    public static final double UNSOUND_YIELD = 500;
+
+    /**
+     * The factor by which the assumed yield of expensive modules is reduced.
+     */
+    public static final double EXPENSIVE_PENALTY = 10;
+
     private Reducers() {
     }
 
+    /**
+     * Estimates the yield of the given module before it was applied,
+     * based on its annotations. Sound modules (that are likely to produce
+     * interesting results) are preferred, while {@link Expensive} ones
+     * are deferred.
+     *
+     * @param module The module
+     * @return the estimated number of removed bytes per second
+     */
+    public static double seedYield(Class<? extends Reducer> module) {
+        var yield = module.isAnnotationPresent(Sound.class)
+                ? SOUND_YIELD
+                : UNSOUND_YIELD;
+
+        return module.isAnnotationPresent(Expensive.class)
+                ? yield / EXPENSIVE_PENALTY
+                : yield;
+    }
+
     public static <T extends Reducer> Stream<Class<? extends T>> sort(Stream<Class<? extends T>> modules) {
         return modules.sorted(Comparator.comparing(c -> c.isAnnotationPresent(Expensive.class) ? 1 : -1));
     }
@@ -2,19 +2,37 @@ package at.jku.ssw.java.bytecode.reducer.utils.cachetypes;
 
 /**
  * Identifies a code range within a given member.
+ * Code positions are encoded as the interned member identifier and
+ * both indices (see {@link #key(int, int, int)}), such that reducers
+ * can check the attempt log without instantiating positions.
  */
-public class CodePosition implements Comparable<CodePosition> {
+public class CodePosition implements Comparable<CodePosition>, Encodable {
 
     /**
      * The {@link #toString()} format.
      */
     private static final String FMT = "%s[%d:%d]";
 
+    /**
+     * The number of bits per encoded index.
+     */
+    private static final int INDEX_BITS = 20;
+
+    /**
+     * The mask of an encoded index.
+     */
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
     /**
      * Unique name of the corresponding member (e.g. descriptor, name).
      */
     public final String member;
 
+    /**
+     * The interned identifier of the member name (see {@link MemberIds}).
+     */
+    public final int memberId;
+
     /**
      * Start of the code range.
      */
@@ -39,6 +57,7 @@ public class CodePosition implements Comparable<CodePosition> {
         assert end >= 0;
 
         this.member = member;
+        this.memberId = MemberIds.of(member);
         this.begin = begin;
         this.end = end;
     }
@@ -53,6 +72,28 @@ public class CodePosition implements Comparable<CodePosition> {
         this(member, index, index);
     }
 
+    /**
+     * Encodes the given code range.
+     *
+     * @param memberId The interned identifier of the member name
+     * @param begin    The start of the index range
+     * @param end      The end of the index range
+     * @return the key that uniquely identifies the code position
+     */
+    public static long key(int memberId, int begin, int end) {
+        assert begin <= INDEX_MASK && end <= INDEX_MASK;
+
+        return (long) memberId << (2 * INDEX_BITS) | (long) begin << INDEX_BITS | end;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long encode() {
+        return key(memberId, begin, end);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -65,7 +106,7 @@ public class CodePosition implements Comparable<CodePosition> {
 
         if (begin != that.begin) return false;
         if (end != that.end) return false;
-        return member.equals(that.member);
+        return memberId == that.memberId;
     }
 
     /**
@@ -73,7 +114,7 @@ public class CodePosition implements Comparable<CodePosition> {
      */
     @Override
     public int hashCode() {
-        int result = member.hashCode();
+        int result = memberId;
         result = 31 * result + begin;
         result = 31 * result + end;
         return result;
@@ -0,0 +1,17 @@
+package at.jku.ssw.java.bytecode.reducer.utils.cachetypes;
+
+/**
+ * Attempt that can be encoded as a primitive value.
+ * Attempt logs store the encoded values, such that checks do not
+ * have to allocate or hash the attempt objects.
+ */
+public interface Encodable {
+
+    /**
+     * Returns the encoded value, which has to be unique among
+     * all attempts of the same type.
+     *
+     * @return the primitive key of this attempt
+     */
+    long encode();
+}
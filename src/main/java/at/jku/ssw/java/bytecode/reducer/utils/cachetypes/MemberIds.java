@@ -0,0 +1,31 @@
+package at.jku.ssw.java.bytecode.reducer.utils.cachetypes;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Interns member names (e.g. {@link javassist.CtBehavior#getLongName()})
+ * as consecutive integer identifiers, such that attempts that refer
+ * to members can be encoded as primitive values.
+ */
+public final class MemberIds {
+
+    /**
+     * Maps the member names onto their identifiers.
+     */
+    private static final Map<String, Integer> ids = new HashMap<>();
+
+    private MemberIds() {
+    }
+
+    /**
+     * Returns the identifier of the given member name and assigns
+     * a new one if the name was not seen yet.
+     *
+     * @param member The unique name of the member
+     * @return the identifier of the member name
+     */
+    public static synchronized int of(String member) {
+        return ids.computeIfAbsent(member, m -> ids.size());
+    }
+}
@@ -0,0 +1,77 @@
+package at.jku.ssw.java.bytecode.reducer.utils.javassist;
+
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import javassist.CtClass;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of parsed classes that are identified by the content hash of
+ * their bytecode. This allows reducers that modify a class speculatively
+ * to revert the modifications and reuse the parsed class (e.g. if the
+ * candidate is rejected and the next one is derived from the same base)
+ * instead of parsing the same bytecode again.
+ * <p>
+ * A class is owned by the caller between {@link #take(Bytecode)} and
+ * {@link #release(Bytecode, CtClass)}, such that it is never modified
+ * by two reducers at once.
+ */
+public final class ClassCache {
+
+    /**
+     * The maximum number of cached classes.
+     */
+    public static final int CAPACITY = 16;
+
+    /**
+     * Maps the hashes of the bytecodes to the unmodified classes
+     * (in access order).
+     */
+    private static final Map<ByteBuffer, CtClass> classes =
+            new LinkedHashMap<>(CAPACITY, 0.75f, true);
+
+    private ClassCache() {
+    }
+
+    /**
+     * Takes the parsed class of the given bytecode out of the cache
+     * or loads it if it is not cached.
+     *
+     * @param bytecode The bytecode of the class
+     * @return the {@link CtClass} that the caller may modify
+     * @throws IOException if the bytecode is invalid
+     */
+    public static CtClass take(Bytecode bytecode) throws IOException {
+        CtClass clazz;
+
+        synchronized (classes) {
+            clazz = classes.remove(ByteBuffer.wrap(bytecode.hash()));
+        }
+
+        return clazz != null ? clazz : Javassist.loadClass(bytecode);
+    }
+
+    /**
+     * Returns the given class to the cache. The class must not be
+     * modified afterwards and has to correspond to the given bytecode
+     * (i.e. all modifications must have been reverted).
+     *
+     * @param bytecode The bytecode that the class was taken for
+     * @param clazz    The unmodified class
+     */
+    public static void release(Bytecode bytecode, CtClass clazz) {
+        synchronized (classes) {
+            classes.put(ByteBuffer.wrap(bytecode.hash()), clazz);
+
+            Iterator<CtClass> it = classes.values().iterator();
+            while (classes.size() > CAPACITY) {
+                it.next();
+                it.remove();
+            }
+        }
+    }
+}
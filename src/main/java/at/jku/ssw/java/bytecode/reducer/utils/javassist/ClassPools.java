@@ -0,0 +1,117 @@
+package at.jku.ssw.java.bytecode.reducer.utils.javassist;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.LoaderClassPath;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Provides the class pools that classes are loaded into.
+ * Instead of the default pool (which keeps every class that was ever
+ * created), each loaded class gets its own scoped pool that is discarded
+ * together with the class. Scoped pools only share a bounded pool that
+ * provides the platform classes (e.g. for the stack map computation).
+ * Therefore, concurrent reductions do not share any mutable pool state
+ * except for this cache.
+ */
+public final class ClassPools {
+
+    /**
+     * The maximum number of platform classes that are kept in the shared pool.
+     */
+    public static final int MAX_SHARED = 4096;
+
+    /**
+     * The pool of the platform classes.
+     */
+    private static final ClassPool shared = new BoundedClassPool(MAX_SHARED);
+
+    private ClassPools() {
+    }
+
+    /**
+     * Returns the shared pool that only contains the platform classes.
+     * Classes must not be created in this pool.
+     *
+     * @return the shared class pool
+     */
+    public static ClassPool shared() {
+        return shared;
+    }
+
+    /**
+     * Creates a new pool for loading a class. The pool (and all classes
+     * created in it) can be garbage collected as soon as the class
+     * is no longer used.
+     *
+     * @return a new class pool that delegates to the shared pool
+     */
+    public static ClassPool scoped() {
+        return new ClassPool(shared);
+    }
+
+    /**
+     * Class pool that evicts the least recently used classes
+     * if it contains more than the given number of classes.
+     */
+    private static class BoundedClassPool extends ClassPool {
+
+        /**
+         * The maximum number of cached classes.
+         */
+        private final int capacity;
+
+        /**
+         * The names of the cached classes in access order
+         * (excluding the primitive types, which are never evicted).
+         */
+        private final Map<String, Boolean> recent;
+
+        BoundedClassPool(int capacity) {
+            // only the platform classes, as the classes of the reduction
+            // may also be found on the application class path
+            // (but would be outdated)
+            appendClassPath(new LoaderClassPath(ClassLoader.getPlatformClassLoader()));
+
+            this.capacity = capacity;
+            this.recent = new LinkedHashMap<>(16, 0.75f, true);
+        }
+
+        @Override
+        protected synchronized CtClass getCached(String classname) {
+            var clazz = super.getCached(classname);
+
+            // the primitive types are cached by the super constructor
+            if (clazz != null && recent != null)
+                recent.get(classname);
+
+            return clazz;
+        }
+
+        @Override
+        protected synchronized void cacheCtClass(String classname, CtClass c, boolean dynamic) {
+            super.cacheCtClass(classname, c, dynamic);
+
+            if (recent == null || c.isPrimitive())
+                return;
+
+            recent.put(classname, Boolean.TRUE);
+
+            var it = recent.keySet().iterator();
+            while (recent.size() > capacity) {
+                super.removeCached(it.next());
+                it.remove();
+            }
+        }
+
+        @Override
+        protected synchronized CtClass removeCached(String classname) {
+            if (recent != null)
+                recent.remove(classname);
+
+            return super.removeCached(classname);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package at.jku.ssw.java.bytecode.reducer.utils.javassist;
 
-import javassist.ClassPool;
 import javassist.CtBehavior;
 import javassist.CtClass;
 import javassist.NotFoundException;
@@ -492,7 +491,7 @@ public final class Code {
      *                           class pool
      */
     public static boolean isVoid(String desc) throws NotFoundException {
-        var returnType = Descriptor.getReturnType(desc, ClassPool.getDefault());
+        var returnType = Descriptor.getReturnType(desc, ClassPools.shared());
 
         return returnType == CtClass.voidType;
     }
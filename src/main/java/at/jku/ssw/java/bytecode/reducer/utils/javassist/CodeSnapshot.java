@@ -0,0 +1,97 @@
+package at.jku.ssw.java.bytecode.reducer.utils.javassist;
+
+import javassist.bytecode.AttributeInfo;
+import javassist.bytecode.CodeAttribute;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Snapshot of a code attribute that allows reverting modifications
+ * that do not change the length of the code (e.g. replacing instructions
+ * with NOPs and rebuilding the stack map).
+ */
+public final class CodeSnapshot {
+
+    /**
+     * The code attribute.
+     */
+    private final CodeAttribute attribute;
+
+    /**
+     * A copy of the original instructions.
+     */
+    private final byte[] code;
+
+    /**
+     * The original attributes of the code attribute
+     * (e.g. the stack map table).
+     */
+    private final List<AttributeInfo> attributes;
+
+    private final int maxStack;
+
+    private final int maxLocals;
+
+    private CodeSnapshot(CodeAttribute attribute) {
+        this.attribute = attribute;
+        this.code = attribute.getCode().clone();
+        this.attributes = new ArrayList<>(attributeList(attribute));
+        this.maxStack = attribute.getMaxStack();
+        this.maxLocals = attribute.getMaxLocals();
+    }
+
+    /**
+     * Records the current state of the given code attribute.
+     *
+     * @param attribute The code attribute
+     * @return a new snapshot
+     */
+    public static CodeSnapshot of(CodeAttribute attribute) {
+        return new CodeSnapshot(attribute);
+    }
+
+    /**
+     * Checks whether the instructions differ from the snapshot.
+     *
+     * @return {@code true} if the instructions were modified
+     */
+    public boolean isModified() {
+        return !Arrays.equals(code, attribute.getCode());
+    }
+
+    /**
+     * Reverts the code attribute to the recorded state.
+     *
+     * @return {@code true} if the state was restored; {@code false} if the
+     * length of the code changed in the meantime, such that the
+     * code attribute cannot be restored
+     */
+    public boolean restore() {
+        var current = attribute.getCode();
+
+        if (current.length != code.length)
+            return false;
+
+        System.arraycopy(code, 0, current, 0, code.length);
+
+        var list = attributeList(attribute);
+        list.clear();
+        list.addAll(attributes);
+
+        attribute.setMaxStack(maxStack);
+        attribute.setMaxLocals(maxLocals);
+
+        return true;
+    }
+
+    /**
+     * Returns the (modifiable) list of the attributes
+     * of the given code attribute.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<AttributeInfo> attributeList(CodeAttribute attribute) {
+        return attribute.getAttributes();
+    }
+}
@@ -0,0 +1,134 @@
+package at.jku.ssw.java.bytecode.reducer.utils.javassist;
+
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import javassist.CtBehavior;
+import javassist.bytecode.BadBytecode;
+import javassist.bytecode.analysis.Analyzer;
+import javassist.bytecode.analysis.Frame;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The execution frames of a behaviour (see {@link Analyzer}),
+ * which are only computed on the first access.
+ * As the analysis is expensive, the frames are also cached by the hash
+ * of the bytecode that the class was parsed from and the behaviour's
+ * name and descriptor, such that behaviours of classes that did not
+ * change since the last analysis (e.g. because the candidate that
+ * modified them was rejected) are not analyzed again.
+ * Therefore, the frames have to be retrieved before the behaviour
+ * is modified.
+ */
+public final class Frames {
+
+    /**
+     * The maximum number of cached analyses.
+     * Is kept small, as the frames refer to the types (and thereby
+     * to the class pool) of the analyzed class.
+     */
+    public static final int CAPACITY = 32;
+
+    /**
+     * Maps the keys of the analyzed behaviours to their frames
+     * (in access order).
+     */
+    private static final Map<ByteBuffer, Frame[]> cache =
+            new LinkedHashMap<>(CAPACITY, 0.75f, true);
+
+    /**
+     * The behaviour.
+     */
+    private final CtBehavior method;
+
+    /**
+     * The bytecode that the declaring class was parsed from.
+     */
+    private final Bytecode origin;
+
+    /**
+     * The frames ({@code null} if they were not analyzed yet).
+     */
+    private Frame[] frames;
+
+    /**
+     * Creates the (not yet analyzed) frames of the given behaviour.
+     *
+     * @param method The behaviour
+     * @param origin The bytecode that the declaring class was parsed from
+     */
+    public Frames(CtBehavior method, Bytecode origin) {
+        this.method = method;
+        this.origin = origin;
+    }
+
+    /**
+     * Returns the frames of the behaviour and analyzes them if
+     * this is the first access. The frames must not be modified.
+     *
+     * @return the frames for each bytecode index ({@code null}
+     * for unreachable instructions)
+     * @throws BadBytecode if the code cannot be analyzed
+     */
+    public Frame[] get() throws BadBytecode {
+        if (frames == null)
+            frames = analyze(method, origin);
+
+        return frames;
+    }
+
+    /**
+     * Analyzes the given behaviour or retrieves the frames of the
+     * same behaviour that was already analyzed.
+     * The behaviour must not have been modified since its class was
+     * parsed from the given bytecode and the frames must not be modified.
+     *
+     * @param method The behaviour
+     * @param origin The bytecode that the declaring class was parsed from
+     * @return the frames for each bytecode index ({@code null}
+     * for unreachable instructions)
+     * @throws BadBytecode if the code cannot be analyzed
+     */
+    public static Frame[] analyze(CtBehavior method, Bytecode origin) throws BadBytecode {
+        var key = key(method, origin);
+
+        synchronized (cache) {
+            var frames = cache.get(key);
+
+            if (frames != null)
+                return frames;
+        }
+
+        var frames = new Analyzer().analyze(method.getDeclaringClass(), method.getMethodInfo());
+
+        synchronized (cache) {
+            cache.put(key, frames);
+
+            Iterator<Frame[]> it = cache.values().iterator();
+            while (cache.size() > CAPACITY) {
+                it.next();
+                it.remove();
+            }
+        }
+
+        return frames;
+    }
+
+    /**
+     * Identifies the given behaviour by the hash of the bytecode
+     * of its class and its name and descriptor.
+     */
+    private static ByteBuffer key(CtBehavior method, Bytecode origin) {
+        var hash = origin.hash();
+        var info = method.getMethodInfo();
+        var name = (info.getName() + info.getDescriptor()).getBytes(StandardCharsets.UTF_8);
+
+        return ByteBuffer.allocate(hash.length + name.length)
+                .put(hash)
+                .put(name)
+                .flip();
+    }
+}
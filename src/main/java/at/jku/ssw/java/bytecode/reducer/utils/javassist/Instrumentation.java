@@ -1,6 +1,5 @@
 package at.jku.ssw.java.bytecode.reducer.utils.javassist;
 
-import at.jku.ssw.java.bytecode.reducer.utils.functional.Catch;
 import javassist.CannotCompileException;
 import javassist.CtClass;
 import javassist.CtField;
@@ -8,7 +7,7 @@ import javassist.CtMethod;
 import javassist.expr.*;
 
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -113,6 +112,10 @@ public final class Instrumentation {
     /**
      * Retrieves the unused fields of the given class.
      * Includes those that match a filter criteria.
+     * Only accesses of fields of the class itself are considered
+     * and matched by name and type (instead of resolving the accessed
+     * field), as the other classes of the reduction are not available
+     * in the class pool.
      *
      * @param clazz   The containing class
      * @param include A filter to include used fields under certain conditions
@@ -122,12 +125,15 @@ public final class Instrumentation {
     public static Stream<CtField> unusedFields(CtClass clazz, Predicate<FieldAccess> include)
             throws CannotCompileException {
 
-        Set<CtField> fields = new HashSet<>(Arrays.asList(clazz.getDeclaredFields()));
+        Set<CtField> fields = new LinkedHashSet<>(Arrays.asList(clazz.getDeclaredFields()));
 
         forFieldAccesses(
                 clazz,
                 include.negate(),
-                Catch.consumer(fa -> fields.remove(fa.getField()))
+                fa -> fields.removeIf(f ->
+                        fa.getClassName().equals(clazz.getName()) &&
+                                f.getName().equals(fa.getFieldName()) &&
+                                f.getFieldInfo2().getDescriptor().equals(fa.getSignature()))
         );
 
         return fields.stream();
@@ -136,6 +142,10 @@ public final class Instrumentation {
     /**
      * Retrieves the unused methods of the given class.
      * Includes those that match a filter criteria.
+     * Only calls of methods of the class itself are considered
+     * and matched by name and descriptor (instead of resolving the
+     * called method), as the other classes of the reduction are not
+     * available in the class pool.
      *
      * @param clazz   The containing class
      * @param include A filter to include called methods under certain conditions
@@ -145,12 +155,15 @@ public final class Instrumentation {
     public static Stream<CtMethod> unusedMethods(CtClass clazz, Predicate<MethodCall> include)
             throws CannotCompileException {
 
-        Set<CtMethod> methods = new HashSet<>(Arrays.asList(clazz.getDeclaredMethods()));
+        Set<CtMethod> methods = new LinkedHashSet<>(Arrays.asList(clazz.getDeclaredMethods()));
 
         forMethodCalls(
                 clazz,
                 include.negate(),
-                Catch.consumer(mc -> methods.remove(mc.getMethod())));
+                mc -> methods.removeIf(m ->
+                        mc.getClassName().equals(clazz.getName()) &&
+                                m.getName().equals(mc.getMethodName()) &&
+                                m.getSignature().equals(mc.getSignature())));
 
         return methods.stream();
     }
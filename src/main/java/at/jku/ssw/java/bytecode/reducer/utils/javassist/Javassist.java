@@ -1,6 +1,6 @@
 package at.jku.ssw.java.bytecode.reducer.utils.javassist;
 
-import javassist.ClassPool;
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
 import javassist.CtClass;
 
 import java.io.*;
@@ -14,7 +14,8 @@ public class Javassist {
     }
 
     /**
-     * Loads the class from the given bytes (that should contain a class file).
+     * Loads the class from the given bytes (that should contain a class file)
+     * into a new scoped class pool (see {@link ClassPools#scoped()}).
      *
      * @param bytecode A byte array that describes the bytecode of a class
      * @return the {@link CtClass} corresponding to the bytecode
@@ -22,7 +23,20 @@ public class Javassist {
      */
     public static CtClass loadClass(byte[] bytecode) throws IOException {
         try (InputStream is = new ByteArrayInputStream(bytecode)) {
-            return ClassPool.getDefault().makeClass(is);
+            return ClassPools.scoped().makeClass(is);
+        }
+    }
+
+    /**
+     * Loads the class from the given bytecode handle without copying it.
+     *
+     * @param bytecode The bytecode of a class
+     * @return the {@link CtClass} corresponding to the bytecode
+     * @throws IOException if the bytecode is invalid
+     */
+    public static CtClass loadClass(Bytecode bytecode) throws IOException {
+        try (InputStream is = bytecode.stream()) {
+            return ClassPools.scoped().makeClass(is);
         }
     }
 
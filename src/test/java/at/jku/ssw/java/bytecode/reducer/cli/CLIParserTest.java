@@ -90,6 +90,97 @@ public class CLIParserTest {
         assertThrows(UnrecognizedOptionException.class, () -> parse("-notanoption"));
     }
 
+    @Test
+    void testJobsArgument() throws ParseException {
+        assertEquals(emptyContextFactory(), parse("-j", "1"));
+        assertEquals(emptyContextFactory().withJobs(4), parse("-j", "4"));
+        assertEquals(emptyContextFactory().withJobs(4), parse("--jobs", "4"));
+        assertNotEquals(emptyContextFactory(), parse("-j", "2"));
+
+        assertThrows(ParseException.class, () -> parse("-j", "0"));
+        assertThrows(ParseException.class, () -> parse("-j", "notanumber"));
+    }
+
+    @Test
+    void testInProcessArguments() throws ParseException {
+        assertEquals(
+                emptyContextFactory().withMainClass("Main").withOutputPattern("HASH: \\d+"),
+                parse("-main", "Main", "-m", "HASH: \\d+")
+        );
+        assertEquals(
+                emptyContextFactory().withMainClass("Main").withExpectedOutput("expected.txt"),
+                parse("--main-class", "Main", "--expect", "expected.txt")
+        );
+        assertNotEquals(emptyContextFactory(), parse("-main", "Main", "-m", "x"));
+
+        assertThrows(ParseException.class, () -> parse("-main", "Main"));
+        assertThrows(ParseException.class, () -> parse("-main", "Main", "-m", "x", "-e", "file"));
+    }
+
+    @Test
+    void testForkArguments() throws ParseException {
+        assertEquals(
+                emptyContextFactory().withMainClass("Main").withOutputPattern("x").withFork(true),
+                parse("-main", "Main", "-m", "x", "--fork")
+        );
+        assertEquals(
+                emptyContextFactory().withMainClass("Main").withOutputPattern("x").withFork(true).withForkRuns(10),
+                parse("-main", "Main", "-m", "x", "--fork", "--fork-runs", "10")
+        );
+
+        assertThrows(ParseException.class, () -> parse("--fork"));
+        assertThrows(ParseException.class, () -> parse("-main", "Main", "-m", "x", "--fork", "--fork-runs", "0"));
+    }
+
+    @Test
+    void testRamTempArgument() throws ParseException {
+        assertEquals(emptyContextFactory().withMemoryTemp(true), parse("-ram"));
+        assertEquals(emptyContextFactory().withMemoryTemp(true), parse("--ram-temp"));
+        assertNotEquals(emptyContextFactory(), parse("-ram"));
+    }
+
+    @Test
+    void testParallelTestsArgument() throws ParseException {
+        assertEquals(emptyContextFactory().withConcurrentTests(true), parse("-p"));
+        assertEquals(emptyContextFactory().withConcurrentTests(true), parse("--parallel-tests"));
+        assertNotEquals(emptyContextFactory(), parse("-p"));
+    }
+
+    @Test
+    void testVerifyArgument() throws ParseException {
+        assertEquals(emptyContextFactory().withVerification(true), parse("-vf"));
+        assertEquals(emptyContextFactory().withVerification(true), parse("--verify"));
+        assertNotEquals(emptyContextFactory(), parse("-vf"));
+    }
+
+    @Test
+    void testTimeoutArguments() throws ParseException {
+        assertEquals(emptyContextFactory(), parse("-t", "10"));
+        assertEquals(emptyContextFactory(), parse("-t", "10s"));
+        assertEquals(emptyContextFactory(), parse("-t", "10000ms"));
+        assertEquals(emptyContextFactory().withTimeoutMillis(500), parse("--timeout", "500ms"));
+        assertNotEquals(emptyContextFactory(), parse("-t", "500ms"));
+
+        assertEquals(emptyContextFactory().withAdaptiveTimeout(3), parse("-at", "3"));
+        assertEquals(emptyContextFactory().withAdaptiveTimeout(2.5), parse("--adaptive-timeout", "2.5"));
+
+        assertThrows(ParseException.class, () -> parse("-t", "0ms"));
+        assertThrows(ParseException.class, () -> parse("-t", "5min"));
+        assertThrows(ParseException.class, () -> parse("-at", "0.5"));
+    }
+
+    @Test
+    void testOutputMatchingArguments() throws ParseException {
+        assertEquals(emptyContextFactory().withOutputPattern("HASH"), parse("-m", "HASH"));
+        assertEquals(
+                emptyContextFactory().withOutputPattern("HASH").withForbiddenPattern("Exception"),
+                parse("-m", "HASH", "--forbid", "Exception")
+        );
+
+        assertThrows(ParseException.class, () -> parse("-x", "Exception"));
+        assertThrows(ParseException.class, () -> parse("-m", "HASH", "-p"));
+    }
+
     @Test
     void testOnlyClassFileArgs() throws ParseException {
         final String[] args = {"file1", "file2", "file3", "1", ""};
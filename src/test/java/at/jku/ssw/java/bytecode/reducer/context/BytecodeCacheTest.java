@@ -0,0 +1,152 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import at.jku.ssw.java.bytecode.reducer.utils.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BytecodeCacheTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    private Path dir;
+
+    private static BytecodeCache cache() throws Exception {
+        return TestCaches.of(Map.of(
+                "A.class", bytes("a"),
+                "B.class", bytes("b"),
+                "C.class", bytes("c")
+        ));
+    }
+
+    private static byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String content(String file) throws IOException {
+        return new String(Files.readAllBytes(dir.resolve(file)), StandardCharsets.UTF_8);
+    }
+
+    private Set<String> files() throws IOException {
+        try (var files = Files.list(dir)) {
+            return files.map(f -> f.getFileName().toString()).collect(Collectors.toSet());
+        }
+    }
+
+    /**
+     * Overwrites all files in the directory with a marker, such that
+     * the files that are not written again can be detected.
+     */
+    private void mark() throws IOException {
+        for (var file : files())
+            Files.write(dir.resolve(file), bytes("marker"));
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("jreduce-cache").resolve("classes");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        FileUtils.delete(dir.getParent());
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testFirstWriteWritesAllFiles() throws Exception {
+        cache().write(dir);
+
+        assertEquals(Set.of("A.class", "B.class", "C.class"), files());
+        assertEquals("a", content("A.class"));
+        assertEquals("b", content("B.class"));
+        assertEquals("c", content("C.class"));
+    }
+
+    @Test
+    void testOnlyChangedFilesAreWritten() throws Exception {
+        var cache = cache().write(dir);
+        mark();
+
+        var classes = new HashMap<>(cache.snapshot());
+        classes.put("B.class", Bytecode.of(bytes("x")));
+
+        cache.write(dir, classes);
+
+        assertEquals("marker", content("A.class"));
+        assertEquals("x", content("B.class"));
+        assertEquals("marker", content("C.class"));
+    }
+
+    @Test
+    void testRemovedFilesAreDeleted() throws Exception {
+        var cache = cache().write(dir);
+        mark();
+
+        var classes = new HashMap<>(cache.snapshot());
+        classes.remove("B.class");
+
+        cache.write(dir, classes);
+
+        assertEquals(Set.of("A.class", "C.class"), files());
+        assertEquals("marker", content("A.class"));
+
+        // the cached configuration is restored on the next write
+        cache.write(dir);
+
+        assertEquals(Set.of("A.class", "B.class", "C.class"), files());
+        assertEquals("b", content("B.class"));
+        assertEquals("marker", content("A.class"));
+    }
+
+    @Test
+    void testRemovedClassesAreDeleted() throws Exception {
+        var cache = cache().write(dir);
+
+        cache.remove("C.class").write(dir);
+
+        assertEquals(Set.of("A.class", "B.class"), files());
+    }
+
+    @Test
+    void testUpdatedClassesAreWritten() throws Exception {
+        var cache = cache().write(dir);
+        mark();
+
+        cache.update("A.class", Bytecode.of(bytes("y"))).write(dir);
+
+        assertEquals("y", content("A.class"));
+        assertEquals("marker", content("B.class"));
+    }
+
+    @Test
+    void testDiscardedDirectoriesAreWrittenAgain() throws Exception {
+        var cache = cache().write(dir);
+        mark();
+
+        cache.discard(dir);
+        cache.write(dir);
+
+        assertEquals("a", content("A.class"));
+        assertEquals("b", content("B.class"));
+        assertEquals("c", content("C.class"));
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
@@ -0,0 +1,159 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutcomeCacheTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    /**
+     * Oracle that is only identified by the given name.
+     */
+    private static Oracle oracle(String name) {
+        return new Oracle() {
+            @Override
+            public boolean test(Path testDir, Map<String, Bytecode> classes) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public byte[] digest() {
+                return name.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public void setTimeout(long timeout) {
+            }
+        };
+    }
+
+    private static byte[] configuration(String... classes) {
+        var bytecodes = new HashMap<String, Bytecode>();
+        for (var c : classes)
+            bytecodes.put(c, Bytecode.of(c.getBytes(StandardCharsets.UTF_8)));
+
+        return BytecodeCache.digest(bytecodes);
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testHitsAndMisses() {
+        var cache = new OutcomeCache(oracle("a"));
+        var runs  = new AtomicInteger();
+
+        assertTrue(cache.test(configuration("A"), () -> runs.incrementAndGet() > 0));
+        assertTrue(cache.test(configuration("A"), () -> runs.incrementAndGet() > 0));
+        assertFalse(cache.test(configuration("B"), () -> runs.incrementAndGet() < 0));
+        assertFalse(cache.test(configuration("B"), () -> runs.incrementAndGet() > 0));
+
+        assertEquals(2, runs.get());
+        assertEquals(2, cache.hits());
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    void testConfigurationsAreSeparated() {
+        var cache = new OutcomeCache(oracle("a"));
+
+        assertTrue(cache.test(configuration("A", "B"), () -> true));
+        assertFalse(cache.test(configuration("A"), () -> false));
+        assertFalse(cache.test(configuration("A", "C"), () -> false));
+        assertTrue(cache.test(configuration("B", "A"), () -> false));
+
+        assertEquals(1, cache.hits());
+        assertEquals(3, cache.misses());
+    }
+
+    @Test
+    void testOraclesAreSeparated() {
+        var config = configuration("A");
+        var a      = new OutcomeCache(oracle("a"));
+        var b      = new OutcomeCache(oracle("b"));
+
+        assertTrue(a.test(config, () -> true));
+        assertFalse(b.test(config, () -> false));
+
+        assertEquals(0, a.hits() + b.hits());
+    }
+
+    @Test
+    void testCancelledOutcomeIsNotCached() {
+        var cache = new OutcomeCache(oracle("a"));
+
+        assertFalse(cache.test(configuration("A"), () -> {
+            Thread.currentThread().interrupt();
+            return false;
+        }));
+
+        // clear the interrupt flag
+        assertTrue(Thread.interrupted());
+
+        assertTrue(cache.test(configuration("A"), () -> true));
+        assertEquals(0, cache.hits());
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    void testTighteningTheTimeoutInvalidatesOutcomes() throws Exception {
+        var calls = new AtomicInteger();
+        var timed = new Oracle() {
+            @Override
+            public boolean test(Path testDir, Map<String, Bytecode> classes) {
+                // the original classes are not interesting,
+                // such that the configured timeout is kept
+                return calls.incrementAndGet() > 1;
+            }
+
+            @Override
+            public byte[] digest() {
+                return "timed".getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public boolean requiresTestDirectory() {
+                return false;
+            }
+
+            @Override
+            public void setTimeout(long timeout) {
+            }
+        };
+
+        var classes  = TestCaches.of(Map.of("A.class", new byte[]{1}));
+        var adaptive = AdaptiveTimeout.calibrate(timed, 2.0, 60_000, null, classes);
+        var cache    = new OutcomeCache(adaptive);
+
+        assertEquals(60_000, adaptive.timeout());
+        assertTrue(cache.test(configuration("A"), () -> adaptive.test(null, Map.of())));
+        assertTrue(cache.test(configuration("A"), () -> fail("Outcome should be cached")));
+
+        // the fast runs tighten the timeout
+        for (int i = 0; i < AdaptiveTimeout.BASELINE_RUNS; i++) {
+            var config = "B" + i;
+            cache.test(configuration(config), () -> adaptive.test(null, Map.of()));
+        }
+
+        assertTrue(adaptive.timeout() < 60_000);
+
+        // outcomes that were decided under the looser timeout are not reused
+        var misses = cache.misses();
+
+        assertTrue(cache.test(configuration("A"), () -> adaptive.test(null, Map.of())));
+        assertEquals(misses + 1, cache.misses());
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
@@ -0,0 +1,178 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+public class ReferenceIndexTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    /**
+     * Generates a class that declares the method {@code m()V} and the
+     * field {@code f:I} and that calls {@code Other.call()V} and
+     * reads {@code Other.read:I}.
+     */
+    private static Bytecode caller(String name) {
+        var cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC, name, null, "java/lang/Object", null);
+
+        cw.visitField(ACC_PUBLIC | ACC_STATIC, "f", "I", null, null).visitEnd();
+
+        var mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "m", "()V", null, null);
+        mv.visitCode();
+        mv.visitMethodInsn(INVOKESTATIC, "Other", "call", "()V", false);
+        mv.visitFieldInsn(GETSTATIC, "Other", "read", "I");
+        mv.visitInsn(POP);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(1, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+
+        return Bytecode.of(cw.toByteArray());
+    }
+
+    /**
+     * Generates a class that declares the method {@code m()V} and the
+     * field {@code f:I}.
+     */
+    private static Bytecode declaring(String name, String superName) {
+        var cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC, name, null, superName, null);
+
+        cw.visitField(ACC_PUBLIC, "f", "I", null, null).visitEnd();
+
+        var mv = cw.visitMethod(ACC_PUBLIC, "m", "()V", null, null);
+        mv.visitCode();
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 1);
+        mv.visitEnd();
+
+        cw.visitEnd();
+
+        return Bytecode.of(cw.toByteArray());
+    }
+
+    /**
+     * Generates a class that calls {@code m()V} and reads {@code f:I}
+     * of the given owner.
+     */
+    private static Bytecode user(String name, String owner) {
+        var cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC, name, null, "java/lang/Object", null);
+
+        var mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "use", "(L" + owner + ";)V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKEVIRTUAL, owner, "m", "()V", false);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, owner, "f", "I");
+        mv.visitInsn(POP);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(1, 1);
+        mv.visitEnd();
+
+        cw.visitEnd();
+
+        return Bytecode.of(cw.toByteArray());
+    }
+
+    private static final Bytecode MALFORMED = Bytecode.of(new byte[]{(byte) 0xCA, (byte) 0xFE});
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testReferences() {
+        var index = ReferenceIndex.of(Map.of("A.class", caller("A")));
+
+        assertEquals("A", index.className("A.class"));
+        assertEquals(Set.of("Other", "java/lang/Object"), index.dependencies("A.class"));
+
+        assertTrue(index.isMethodReferenced("B", "call", "()V"));
+        assertTrue(index.isFieldReferenced("B", "read", "I"));
+        assertFalse(index.isMethodReferenced("B", "m", "()V"));
+        assertFalse(index.isFieldReferenced("B", "f", "I"));
+
+        // the references of the class itself are excluded
+        assertFalse(index.isMethodReferenced("A", "call", "()V"));
+        assertTrue(index.isMethodReferenced("Other", "call", "()V"));
+    }
+
+    @Test
+    void testIncrementalUpdates() {
+        var index = new ReferenceIndex();
+
+        index.update("A.class", caller("A"));
+        assertTrue(index.isMethodReferenced("Other", "call", "()V"));
+
+        index.remove("A.class");
+        assertFalse(index.isMethodReferenced("Other", "call", "()V"));
+        assertNull(index.className("A.class"));
+    }
+
+    @Test
+    void testReferencesDependOnTheOwner() {
+        var index = ReferenceIndex.of(Map.of(
+                "A.class", declaring("A", "java/lang/Object"),
+                "B.class", declaring("B", "java/lang/Object"),
+                "Main.class", user("Main", "A")
+        ));
+
+        assertTrue(index.isMethodReferenced("A", "m", "()V"));
+        assertTrue(index.isFieldReferenced("A", "f", "I"));
+        assertFalse(index.isMethodReferenced("B", "m", "()V"));
+        assertFalse(index.isFieldReferenced("B", "f", "I"));
+    }
+
+    @Test
+    void testReferencesViaTheHierarchy() {
+        var index = ReferenceIndex.of(Map.of(
+                "A.class", declaring("A", "java/lang/Object"),
+                "B.class", declaring("B", "A"),
+                "C.class", declaring("C", "java/lang/Object"),
+                "Main.class", user("Main", "A")
+        ));
+
+        // the call on A may dispatch to the overriding method in B
+        assertTrue(index.isMethodReferenced("B", "m", "()V"));
+        assertFalse(index.isMethodReferenced("C", "m", "()V"));
+
+        // once the references change, the hierarchy is considered again
+        index.update("Main.class", user("Main", "B"));
+
+        assertTrue(index.isMethodReferenced("A", "m", "()V"));
+        assertFalse(index.isMethodReferenced("C", "m", "()V"));
+    }
+
+    @Test
+    void testMalformedClassReferencesEverything() {
+        var index = ReferenceIndex.of(Map.of(
+                "A.class", caller("A"),
+                "B.class", MALFORMED
+        ));
+
+        assertNull(index.className("B.class"));
+        assertTrue(index.isMethodReferenced("A", "m", "()V"));
+        assertTrue(index.isFieldReferenced("A", "f", "I"));
+        assertTrue(index.isMethodReferenced("A", "unknown", "()V"));
+        assertEquals(Set.of("A"), index.dependencies("B.class"));
+
+        // once the class can be analyzed again, the references are precise
+        index.update("B.class", caller("B"));
+
+        assertFalse(index.isMethodReferenced("A", "m", "()V"));
+        assertFalse(index.isFieldReferenced("A", "f", "I"));
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
@@ -0,0 +1,374 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.annot.Expensive;
+import at.jku.ssw.java.bytecode.reducer.annot.Sound;
+import at.jku.ssw.java.bytecode.reducer.modules.methods.RemoveUnusedMethods;
+import at.jku.ssw.java.bytecode.reducer.runtypes.Reducer;
+import at.jku.ssw.java.bytecode.reducer.runtypes.ReferenceAware;
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+public class SchedulerTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    /**
+     * Rewrites the bytes without reducing them.
+     */
+    public static class Upper implements Reducer {
+        @Override
+        public byte[] apply(byte[] bytecode) {
+            return new String(bytecode, StandardCharsets.UTF_8).toUpperCase().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Reverts the rewriting of {@link Upper}.
+     */
+    public static class Lower implements Reducer {
+        @Override
+        public byte[] apply(byte[] bytecode) {
+            return new String(bytecode, StandardCharsets.UTF_8).toLowerCase().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Removes the vowels.
+     */
+    public static class RemoveVowels implements Reducer {
+        @Override
+        public byte[] apply(byte[] bytecode) {
+            return new String(bytecode, StandardCharsets.UTF_8).replaceAll("[aeiouAEIOU]", "").getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Removes the first byte (unless it is the last one).
+     */
+    public static class RemoveFirst implements Reducer {
+        @Override
+        public byte[] apply(byte[] bytecode) {
+            return bytecode.length > 1
+                    ? Arrays.copyOfRange(bytecode, 1, bytecode.length)
+                    : bytecode;
+        }
+    }
+
+    /**
+     * Removes the last byte (unless it is the only one).
+     */
+    public static class RemoveLast implements Reducer {
+        @Override
+        public byte[] apply(byte[] bytecode) {
+            return bytecode.length > 1
+                    ? Arrays.copyOf(bytecode, bytecode.length - 1)
+                    : bytecode;
+        }
+    }
+
+    /**
+     * Same as {@link Lower}, but deferred by its annotation.
+     */
+    @Expensive
+    public static class ExpensiveLower extends Lower {
+    }
+
+    /**
+     * Rotates the bytes by one position without reducing them
+     * (assumed to be productive by its annotation).
+     */
+    @Sound
+    public static class Rotate implements Reducer {
+        @Override
+        public byte[] apply(byte[] bytecode) {
+            var rotated = Arrays.copyOfRange(bytecode, 1, bytecode.length + 1);
+            rotated[bytecode.length - 1] = bytecode[0];
+
+            return rotated;
+        }
+    }
+
+    /**
+     * Another rotation that re-enables {@link Rotate} (and vice versa).
+     */
+    @Sound
+    public static class RotateAgain extends Rotate {
+    }
+
+    /**
+     * Removes the vowels, but depends on the references of all classes.
+     */
+    public static class RemoveVowelsEverywhere extends RemoveVowels implements ReferenceAware {
+        ReferenceIndex references;
+
+        @Override
+        public void setReferences(ReferenceIndex references) {
+            this.references = references;
+        }
+    }
+
+    private static BytecodeCache cache(String... classes) throws Exception {
+        var bytecodes = new HashMap<String, byte[]>();
+
+        for (int i = 0; i < classes.length; i++)
+            bytecodes.put("C" + i + ".class", classes[i].getBytes(StandardCharsets.UTF_8));
+
+        return TestCaches.of(bytecodes);
+    }
+
+    /**
+     * Generates a class with the static methods {@code main} (that
+     * calls the given methods of class {@code A}) and {@code m}.
+     */
+    private static Bytecode classFile(String name, String... calls) {
+        var cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC, name, null, "java/lang/Object", null);
+
+        var mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "main", "([Ljava/lang/String;)V", null, null);
+        mv.visitCode();
+        for (var call : calls)
+            mv.visitMethodInsn(INVOKESTATIC, "A", call, "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 1);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "m", "()V", null, null);
+        mv.visitCode();
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+
+        return Bytecode.of(cw.toByteArray());
+    }
+
+    private static Set<String> methods(byte[] bytecode) {
+        var methods = new HashSet<String>();
+
+        new ClassReader(bytecode).accept(new ClassVisitor(ASM6) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                methods.add(name);
+                return null;
+            }
+        }, 0);
+
+        return methods;
+    }
+
+    private static String content(BytecodeCache cache, String fileName) {
+        return new String(cache.bytecode(fileName), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Runs the given modules and collects the applications.
+     */
+    private static List<String> run(BytecodeCache cache, List<Class<? extends Reducer>> modules)
+            throws Exception {
+
+        var applications = new ArrayList<String>();
+
+        new Scheduler(modules).run(cache, (reducer, fileName) -> {
+            applications.add(reducer.getClass().getSimpleName() + ":" + fileName);
+
+            cache.update(fileName, Bytecode.of(reducer.apply(cache.bytecode(fileName))));
+        });
+
+        return applications;
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testFixpoint() throws Exception {
+        var cache        = cache("hello", "world");
+        var applications = run(cache, List.of(RemoveVowels.class));
+
+        assertEquals("hll", content(cache, "C0.class"));
+        assertEquals("wrld", content(cache, "C1.class"));
+        assertEquals(2, applications.size());
+    }
+
+    @Test
+    void testRewritingModulesReachFixpoint() throws Exception {
+        var cache        = cache("hello", "world");
+        var applications = run(cache, List.of(Upper.class, Lower.class, RemoveVowels.class));
+
+        assertEquals("hll", content(cache, "C0.class").toLowerCase());
+        assertEquals("wrld", content(cache, "C1.class").toLowerCase());
+
+        // each module is applied at most once to each of the four
+        // states of a class (lower or upper case, with or without vowels)
+        var counts = new HashMap<String, Integer>();
+        applications.forEach(a -> counts.merge(a, 1, Integer::sum));
+
+        assertTrue(counts.values().stream().allMatch(c -> c <= 4), counts::toString);
+    }
+
+    @Test
+    void testOtherClassesDoNotReenableModules() throws Exception {
+        var cache     = cache("hello", "world");
+        var scheduler = new Scheduler(List.of(RemoveVowels.class));
+        var applied   = new ArrayList<String>();
+
+        Scheduler.Step step = (reducer, fileName) -> {
+            applied.add(fileName);
+
+            cache.update(fileName, Bytecode.of(reducer.apply(cache.bytecode(fileName))));
+        };
+
+        scheduler.run(cache, step);
+        assertEquals(List.of("C0.class", "C1.class"), applied);
+
+        // changes of C1 do not require another application to C0
+        cache.update("C1.class", Bytecode.of("again".getBytes(StandardCharsets.UTF_8)));
+        applied.clear();
+
+        scheduler.run(cache, step);
+        assertEquals(List.of("C1.class"), applied);
+        assertEquals("gn", content(cache, "C1.class"));
+    }
+
+    @Test
+    void testOtherClassesReenableReferenceAwareModules() throws Exception {
+        var cache     = cache("hello", "world");
+        var scheduler = new Scheduler(List.of(RemoveVowels.class, RemoveVowelsEverywhere.class));
+        var applied   = new ArrayList<String>();
+
+        Scheduler.Step step = (reducer, fileName) -> {
+            applied.add(reducer.getClass().getSimpleName() + ":" + fileName);
+
+            if (reducer instanceof RemoveVowelsEverywhere)
+                assertSame(cache.references(), ((RemoveVowelsEverywhere) reducer).references);
+
+            cache.update(fileName, Bytecode.of(reducer.apply(cache.bytecode(fileName))));
+        };
+
+        scheduler.run(cache, step);
+        applied.clear();
+
+        // only the module that depends on the other classes is
+        // applied to C0 again, as the precondition of C0 is unchanged
+        cache.update("C1.class", Bytecode.of("again".getBytes(StandardCharsets.UTF_8)));
+
+        scheduler.run(cache, step);
+
+        assertTrue(applied.contains("RemoveVowelsEverywhere:C0.class"), applied::toString);
+        assertFalse(applied.contains("RemoveVowels:C0.class"), applied::toString);
+        assertTrue(applied.contains("RemoveVowels:C1.class") ||
+                applied.contains("RemoveVowelsEverywhere:C1.class"), applied::toString);
+        assertEquals("hll", content(cache, "C0.class"));
+        assertEquals("gn", content(cache, "C1.class"));
+
+        // without further changes, no module is applied again
+        applied.clear();
+        scheduler.run(cache, step);
+
+        assertEquals(List.of(), applied);
+    }
+
+    @Test
+    void testRemovedReferencesReenableReferenceAwareModules() throws Exception {
+        var cache = TestCaches.of(Map.of(
+                "A.class", classFile("A").toArray(),
+                "Main.class", classFile("Main", "m").toArray()
+        ));
+        var scheduler = new Scheduler(List.of(RemoveUnusedMethods.class));
+        var applied   = new ArrayList<String>();
+
+        Scheduler.Step step = (reducer, fileName) -> {
+            applied.add(fileName);
+
+            cache.update(fileName, Bytecode.of(reducer.apply(cache.bytecode(fileName), b -> true)));
+        };
+
+        // A.m is called by Main, while Main.m is not called at all
+        scheduler.run(cache, step);
+
+        assertTrue(cache.references().isMethodReferenced("A", "m", "()V"));
+        assertFalse(cache.references().isMethodReferenced("Main", "m", "()V"));
+        assertEquals(Set.of("main", "m"), methods(cache.bytecode("A.class")));
+        assertEquals(Set.of("main"), methods(cache.bytecode("Main.class")));
+
+        // once the call is removed, the unchanged class A is reduced again
+        cache.update("Main.class", classFile("Main"));
+        applied.clear();
+
+        scheduler.run(cache, step);
+
+        assertTrue(applied.contains("A.class"), applied::toString);
+        assertEquals(Set.of("main"), methods(cache.bytecode("A.class")));
+    }
+
+    @Test
+    void testFruitlessModulesDoNotStarveOthers() throws Exception {
+        var cache        = cache("the quick brown fox jumps over the lazy dog");
+        var applications = run(cache, List.of(Rotate.class, RotateAgain.class, RemoveVowels.class));
+
+        // the rotations visit a new state with every application,
+        // but their yield decays as they never remove anything
+        assertTrue(applications.indexOf("RemoveVowels:C0.class") < 4, applications::toString);
+        assertFalse(content(cache, "C0.class").matches(".*[aeiou].*"));
+    }
+
+    @Test
+    void testRewritingModulesDecayBelowProductiveOnes() throws Exception {
+        var cache        = cache("abcdefghijklmnop");
+        var applications = run(cache, List.of(RemoveFirst.class, Rotate.class, RotateAgain.class));
+
+        assertEquals(1, content(cache, "C0.class").length());
+
+        // the rotations re-enable each other and are initially preferred
+        // (as they are assumed to be sound), until their yields decay
+        // below the one of the productive module
+        assertEquals(
+                List.of("Rotate:C0.class", "RotateAgain:C0.class", "Rotate:C0.class"),
+                applications.subList(0, 3)
+        );
+
+        // afterwards the productive module is applied whenever a rotation
+        // re-enabled it, while without the decay the rotations would only
+        // leave every fourth selection (for exploration) to it
+        var removals  = applications.stream().filter(a -> a.startsWith("RemoveFirst")).count();
+        var rotations = applications.size() - removals;
+
+        assertEquals(15, removals);
+        assertTrue(rotations < 2 * removals, applications::toString);
+    }
+
+    @Test
+    void testStarvedModulesAreExplored() throws Exception {
+        var cache        = cache("ABCDEFGHIJKLMNOP");
+        var applications = run(cache, List.of(RemoveFirst.class, RemoveLast.class, ExpensiveLower.class));
+
+        // the productive modules re-enable each other and always have
+        // the higher yield, but the other one is still applied within
+        // the exploration interval
+        var first = applications.indexOf("ExpensiveLower:C0.class");
+
+        assertTrue(first >= 0 && first < 4, applications::toString);
+        assertEquals(1, content(cache, "C0.class").length());
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
@@ -0,0 +1,44 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Creates bytecode caches for tests.
+ */
+final class TestCaches {
+
+    private TestCaches() {
+    }
+
+    /**
+     * Creates a cache that holds the given classes.
+     * The class files are only written temporarily, as the cache
+     * reads them once on initialization.
+     *
+     * @param classes Maps the file names to the bytecodes
+     * @return the cache
+     * @throws Exception if the files cannot be written or read
+     */
+    static BytecodeCache of(Map<String, byte[]> classes) throws Exception {
+        var dir   = Files.createTempDirectory("jreduce-cache");
+        var files = new ArrayList<Path>();
+
+        try {
+            for (var entry : new TreeMap<>(classes).entrySet()) {
+                var file = dir.resolve(entry.getKey());
+                Files.write(file, entry.getValue());
+                files.add(file);
+            }
+
+            return new BytecodeCache(files);
+        } finally {
+            for (var file : files)
+                Files.deleteIfExists(file);
+            Files.delete(dir);
+        }
+    }
+}
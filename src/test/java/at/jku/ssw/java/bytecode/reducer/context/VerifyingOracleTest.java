@@ -0,0 +1,153 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+public class VerifyingOracleTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    /**
+     * Oracle that counts its invocations and accepts every configuration.
+     */
+    private static class CountingOracle implements Oracle {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public boolean test(Path testDir, Map<String, Bytecode> classes) {
+            calls.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public byte[] digest() {
+            return new byte[0];
+        }
+
+        @Override
+        public boolean requiresTestDirectory() {
+            return false;
+        }
+
+        @Override
+        public void setTimeout(long timeout) {
+        }
+    }
+
+    /**
+     * Generates a class whose method {@code m} returns a string.
+     * If the class is broken, the stack heights of the branches
+     * that join before the return differ.
+     */
+    private static Bytecode clazz(boolean broken) {
+        var cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC, "C", null, "java/lang/Object", null);
+
+        var mv   = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "m", "(I)Ljava/lang/Object;", null, null);
+        var join = new Label();
+        mv.visitCode();
+        mv.visitLdcInsn("s");
+        mv.visitVarInsn(ILOAD, 0);
+        mv.visitJumpInsn(IFEQ, join);
+        if (broken)
+            mv.visitInsn(ICONST_1);
+        mv.visitLabel(join);
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(3, 1);
+        mv.visitEnd();
+
+        cw.visitEnd();
+
+        return Bytecode.of(cw.toByteArray());
+    }
+
+    /**
+     * Generates a class that declares a field of the given type
+     * and a method that assigns a new instance of the given class to it.
+     */
+    private static Bytecode assigning(String fieldType, String instance) {
+        var cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC, "D", null, "java/lang/Object", null);
+
+        cw.visitField(ACC_PUBLIC | ACC_STATIC, "f", "L" + fieldType + ";", null, null).visitEnd();
+
+        var mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "m", "()V", null, null);
+        mv.visitCode();
+        mv.visitTypeInsn(NEW, instance);
+        mv.visitInsn(DUP);
+        mv.visitMethodInsn(INVOKESPECIAL, instance, "<init>", "()V", false);
+        mv.visitFieldInsn(PUTSTATIC, "D", "f", "L" + fieldType + ";");
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(2, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+
+        return Bytecode.of(cw.toByteArray());
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testVerifier() {
+        assertFalse(ClassVerifier.of(List.of(clazz(false))).verify(clazz(false)).isPresent());
+        assertTrue(ClassVerifier.of(List.of(clazz(true))).verify(clazz(true)).isPresent());
+
+        var malformed = Bytecode.of(new byte[]{(byte) 0xCA, (byte) 0xFE});
+        assertTrue(ClassVerifier.of(List.of(malformed)).verify(malformed).isPresent());
+    }
+
+    @Test
+    void testVerifierResolvesThePlatformHierarchy() {
+        var valid   = assigning("java/util/List", "java/util/ArrayList");
+        var invalid = assigning("java/lang/Number", "java/lang/StringBuilder");
+
+        assertFalse(ClassVerifier.of(List.of(valid)).verify(valid).isPresent());
+        assertTrue(ClassVerifier.of(List.of(invalid)).verify(invalid).isPresent());
+    }
+
+    @Test
+    void testBrokenClassIsRejected() throws Exception {
+        var wrapped = new CountingOracle();
+        var oracle  = VerifyingOracle.of(wrapped, TestCaches.of(Map.of("C.class", clazz(false).toArray())));
+
+        assertFalse(oracle.test(null, Map.of("C.class", clazz(true))));
+        assertEquals(0, wrapped.calls.get());
+        assertEquals(1, oracle.rejected());
+    }
+
+    @Test
+    void testValidClassIsPassedThrough() throws Exception {
+        var wrapped = new CountingOracle();
+        var oracle  = VerifyingOracle.of(wrapped, TestCaches.of(Map.of("C.class", clazz(false).toArray())));
+
+        assertTrue(oracle.test(null, Map.of("C.class", clazz(false))));
+        assertEquals(1, wrapped.calls.get());
+        assertEquals(0, oracle.rejected());
+    }
+
+    @Test
+    void testClassesThatFailOriginallyAreExempt() throws Exception {
+        var wrapped = new CountingOracle();
+        var oracle  = VerifyingOracle.of(wrapped, TestCaches.of(Map.of("C.class", clazz(true).toArray())));
+
+        assertTrue(oracle.test(null, Map.of("C.class", clazz(true))));
+        assertEquals(1, wrapped.calls.get());
+        assertEquals(0, oracle.rejected());
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
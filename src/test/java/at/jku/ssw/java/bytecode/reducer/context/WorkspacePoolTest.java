@@ -0,0 +1,144 @@
+package at.jku.ssw.java.bytecode.reducer.context;
+
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import at.jku.ssw.java.bytecode.reducer.utils.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkspacePoolTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    private static final String SCRIPT = "test.sh";
+
+    private Path root;
+
+    /**
+     * Oracle that only places a test script in the workspaces.
+     */
+    private static final Oracle ORACLE = new Oracle() {
+        @Override
+        public boolean test(Path testDir, Map<String, Bytecode> classes) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public byte[] digest() {
+            return new byte[0];
+        }
+
+        @Override
+        public void setTimeout(long timeout) {
+        }
+
+        @Override
+        public void provision(Path testDir) throws IOException {
+            Files.write(testDir.resolve(SCRIPT), new byte[0]);
+        }
+    };
+
+    private static BytecodeCache cache() throws Exception {
+        return TestCaches.of(Map.of(
+                "A.class", "a".getBytes(StandardCharsets.UTF_8),
+                "B.class", "b".getBytes(StandardCharsets.UTF_8)
+        ));
+    }
+
+    private static String content(Path workspace, String file) throws IOException {
+        return new String(Files.readAllBytes(workspace.resolve(file)), StandardCharsets.UTF_8);
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("jreduce-pool").resolve("workspaces");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        FileUtils.delete(root.getParent());
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testProvisioning() throws Exception {
+        var cache = cache();
+        WorkspacePool.provision(root, 3, cache, ORACLE).close(true);
+
+        try (var workspaces = Files.list(root)) {
+            var paths = workspaces.toArray(Path[]::new);
+
+            assertEquals(3, paths.length);
+
+            for (var workspace : paths) {
+                assertTrue(Files.exists(workspace.resolve(SCRIPT)));
+                assertEquals("a", content(workspace, "A.class"));
+                assertEquals("b", content(workspace, "B.class"));
+            }
+        }
+    }
+
+    @Test
+    void testLeasing() throws Exception {
+        var cache = cache();
+        var pool  = WorkspacePool.provision(root, 2, cache, ORACLE);
+
+        var first  = pool.lease();
+        var second = pool.lease();
+
+        assertNotEquals(first, second);
+
+        try (var workspaces = Files.list(root)) {
+            assertEquals(Set.of(first, second), workspaces.collect(Collectors.toSet()));
+        }
+
+        // the leased workspace keeps the classes that the caller wrote
+        cache.write(first, cache.with("A.class", Bytecode.of("x".getBytes(StandardCharsets.UTF_8))));
+        pool.release(first);
+
+        var again = pool.lease();
+
+        assertEquals(first, again);
+        assertEquals("x", content(again, "A.class"));
+
+        pool.release(again);
+        pool.release(second);
+        pool.close(true);
+    }
+
+    @Test
+    void testClosing() throws Exception {
+        WorkspacePool.provision(root, 2, cache(), ORACLE).close(false);
+
+        // the workspaces are deleted in the background
+        for (int i = 0; i < 100 && Files.exists(root); i++)
+            Thread.sleep(50);
+
+        assertFalse(Files.exists(root));
+    }
+
+    @Test
+    void testKeeping() throws Exception {
+        WorkspacePool.provision(root, 2, cache(), ORACLE).close(true);
+
+        try (var workspaces = Files.list(root)) {
+            assertEquals(2, workspaces.count());
+        }
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
@@ -0,0 +1,106 @@
+package at.jku.ssw.java.bytecode.reducer.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static at.jku.ssw.java.bytecode.reducer.io.TestPrograms.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InProcessRunnerTest {
+
+    @Test
+    void testSuccessfulRun() throws Exception {
+        var runner = new InProcessRunner(60_000);
+        var result = runner.run("Hello", program("Hello", mv -> print(mv, "Hello")));
+
+        assertEquals(ScriptRunner.EXIT_SUCCESS, result.exitCode);
+        assertEquals("Hello\n", result.output);
+    }
+
+    @Test
+    void testExitIsTrapped() throws Exception {
+        var runner = new InProcessRunner(60_000);
+        var result = runner.run("Exit", program("Exit", mv -> {
+            print(mv, "before");
+            exit(mv, 3);
+            print(mv, "after");
+        }));
+
+        // the test JVM is still alive and the run reports the status
+        assertEquals(3, result.exitCode);
+        assertEquals("before\n", result.output);
+    }
+
+    @Test
+    void testUncaughtException() throws Exception {
+        var runner = new InProcessRunner(60_000);
+        var result = runner.run("Fail", program("Fail", mv -> fail(mv, "broken")));
+
+        assertEquals(InProcessRunner.EXIT_FAILURE, result.exitCode);
+        assertTrue(result.output.startsWith("Exception in thread \"main\" java.lang.IllegalStateException: broken"), result.output);
+    }
+
+    @Test
+    void testMissingClass() throws Exception {
+        var runner = new InProcessRunner(60_000);
+        var result = runner.run("Missing", program("Present", mv -> print(mv, "Present")));
+
+        assertEquals(InProcessRunner.EXIT_FAILURE, result.exitCode);
+        assertTrue(result.output.contains("ClassNotFoundException: Missing"), result.output);
+    }
+
+    @Test
+    void testOutputIsRoutedPerRun() throws Exception {
+        var runner   = new InProcessRunner(60_000);
+        var executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // both runs print while the other one is active
+            var a = executor.submit(() -> runner.run("A", program("A", mv -> {
+                print(mv, "a");
+                sleep(mv, 200);
+                print(mv, "a");
+            })));
+            var b = executor.submit(() -> runner.run("B", program("B", mv -> {
+                print(mv, "b");
+                sleep(mv, 200);
+                print(mv, "b");
+            })));
+
+            assertEquals("a\na\n", a.get().output);
+            assertEquals("b\nb\n", b.get().output);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testTimeout() throws Exception {
+        var runner = new InProcessRunner(500);
+
+        var start   = System.nanoTime();
+        var result  = runner.run("Sleep", program("Sleep", mv -> {
+            print(mv, "sleeping");
+            sleep(mv, 60_000);
+        }));
+        var elapsed = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+
+        assertEquals(ScriptRunner.EXIT_TIMEOUT, result.exitCode);
+        assertTrue(result.output.startsWith("sleeping\n"), result.output);
+        assertTrue(elapsed < 30, "Took " + elapsed + " s");
+    }
+
+    @Test
+    void testRunsDoNotShareStaticState() throws Exception {
+        var runner = new InProcessRunner(60_000);
+
+        // the same class is defined again by each run's class loader
+        var first  = runner.run("Hello", program("Hello", mv -> print(mv, "first")));
+        var second = runner.run("Hello", program("Hello", mv -> print(mv, "second")));
+
+        assertEquals("first\n", first.output);
+        assertEquals("second\n", second.output);
+    }
+}
@@ -0,0 +1,58 @@
+package at.jku.ssw.java.bytecode.reducer.io;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutputMatcherTest {
+
+    @Test
+    void testMatching() {
+        var matcher = OutputMatcher.matching("^Exception in .*$");
+
+        assertTrue(matcher.test("start\nException in thread main\nend\n"));
+        assertFalse(matcher.test("start\nNo Exception in thread main\n"));
+        assertFalse(matcher.test(""));
+    }
+
+    @Test
+    void testExpectedOutput() {
+        var matcher = OutputMatcher.expecting("a.b\n");
+
+        assertTrue(matcher.test("a.b\n"));
+        assertFalse(matcher.test("axb\n"));
+        assertFalse(matcher.test("a.b\nc\n"));
+        assertFalse(matcher.test("a.b"));
+
+        // the exact output is only known once the program terminated
+        assertNull(matcher.decide("a.b\n", 0));
+    }
+
+    @Test
+    void testForbiddenPatterns() {
+        var matcher = OutputMatcher.matching("result").forbidding("Error");
+
+        assertTrue(matcher.test("result\n"));
+        assertFalse(matcher.test("result\nError\n"));
+        assertFalse(matcher.test("Error\n"));
+
+        assertSame(matcher, matcher.forbidding(null));
+        assertFalse(OutputMatcher.expecting("Error\n").forbidding("Error").test("Error\n"));
+    }
+
+    @Test
+    void testEarlyDecisions() {
+        var matcher = OutputMatcher.matching("^result$").forbidding("Error");
+        var output  = new StringBuilder("start\n");
+
+        assertNull(matcher.decide(output, 0));
+
+        // the part before the index was already checked
+        output.append("result\n");
+        assertTrue(matcher.decide(output, 6));
+        assertNull(matcher.decide(output, 13));
+
+        output.append("Error\n");
+        assertFalse(matcher.decide(output, 13));
+    }
+}
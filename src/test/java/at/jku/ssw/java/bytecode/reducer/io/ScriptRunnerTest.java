@@ -0,0 +1,147 @@
+package at.jku.ssw.java.bytecode.reducer.io;
+
+import at.jku.ssw.java.bytecode.reducer.utils.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScriptRunnerTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    private Path dir;
+
+    /**
+     * Writes an executable shell script with the given content
+     * to its own subdirectory.
+     */
+    private Path script(String name, String content) throws IOException {
+        var script = Files.createDirectories(dir.resolve(name + ".dir")).resolve(name);
+
+        Files.write(script, ("#!/bin/sh\n" + content + "\n").getBytes(StandardCharsets.UTF_8));
+        Files.setPosixFilePermissions(script, PosixFilePermissions.fromString("rwx------"));
+
+        return script;
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("jreduce-scripts");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        FileUtils.delete(dir);
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testExecAllBlockingSucceeds() throws Exception {
+        var runner = new ScriptRunner(60_000);
+
+        assertEquals(ScriptRunner.EXIT_SUCCESS, runner.execAllBlocking(List.of(
+                script("a.sh", "exit 0"),
+                script("b.sh", "exit 0")
+        )));
+    }
+
+    @Test
+    void testExecAllBlockingFailsFast() throws Exception {
+        var runner   = new ScriptRunner(60_000);
+        var sleeping = script("sleep.sh", "echo $$ > pid\nsleep 60");
+        var failing  = script("fail.sh", "while [ ! -f ../sleep.sh.dir/pid ]; do sleep 0.1; done\nexit 3");
+
+        var start    = System.nanoTime();
+        var exitCode = runner.execAllBlocking(List.of(sleeping, failing));
+        var elapsed  = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+
+        // the failing script decides the result without waiting
+        // for the sleeping one, which is killed
+        assertEquals(3, exitCode);
+        assertTrue(elapsed < 30, "Took " + elapsed + " s");
+
+        var pid = Long.parseLong(new String(
+                Files.readAllBytes(sleeping.resolveSibling("pid")),
+                StandardCharsets.UTF_8
+        ).trim());
+
+        // the children are killed, but not necessarily reaped yet
+        var process = ProcessHandle.of(pid);
+        for (int i = 0; i < 100 && process.map(ProcessHandle::isAlive).orElse(false); i++)
+            Thread.sleep(50);
+
+        assertFalse(process.map(ProcessHandle::isAlive).orElse(false));
+    }
+
+    @Test
+    void testExecAllBlockingTimesOut() throws Exception {
+        var runner = new ScriptRunner(500);
+
+        assertEquals(ScriptRunner.EXIT_TIMEOUT, runner.execAllBlocking(List.of(
+                script("a.sh", "exit 0"),
+                script("sleep.sh", "sleep 60")
+        )));
+    }
+
+    @Test
+    void testExecMatchingStopsOnMatch() throws Exception {
+        var runner = new ScriptRunner(60_000);
+        var script = script("match.sh", "echo start\necho result\nsleep 60");
+
+        var start    = System.nanoTime();
+        var exitCode = runner.execMatching(script, OutputMatcher.matching("^result$"));
+        var elapsed  = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+
+        assertEquals(ScriptRunner.EXIT_SUCCESS, exitCode);
+        assertTrue(elapsed < 30, "Took " + elapsed + " s");
+    }
+
+    @Test
+    void testExecMatchingStopsOnForbiddenOutput() throws Exception {
+        var runner = new ScriptRunner(60_000);
+        var script = script("error.sh", "echo Error\nsleep 60\necho result");
+
+        var exitCode = runner.execMatching(script, OutputMatcher.matching("result").forbidding("Error"));
+
+        assertEquals(ScriptRunner.EXIT_MISMATCH, exitCode);
+    }
+
+    @Test
+    void testExecMatchingExpectedOutput() throws Exception {
+        var runner = new ScriptRunner(60_000);
+
+        assertEquals(ScriptRunner.EXIT_SUCCESS,
+                runner.execMatching(script("a.sh", "echo a; echo b"), OutputMatcher.expecting("a\nb\n")));
+        assertEquals(ScriptRunner.EXIT_MISMATCH,
+                runner.execMatching(script("b.sh", "echo a; echo c"), OutputMatcher.expecting("a\nb\n")));
+    }
+
+    @Test
+    void testExecMatchingDoesNotWaitForInput() throws Exception {
+        var runner = new ScriptRunner(60_000);
+        var script = script("read.sh", "cat\necho done");
+
+        var start    = System.nanoTime();
+        var exitCode = runner.execMatching(script, OutputMatcher.expecting("done\n"));
+        var elapsed  = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+
+        assertEquals(ScriptRunner.EXIT_SUCCESS, exitCode);
+        assertTrue(elapsed < 30, "Took " + elapsed + " s");
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
@@ -0,0 +1,85 @@
+package at.jku.ssw.java.bytecode.reducer.io;
+
+import at.jku.ssw.java.bytecode.reducer.utils.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+public class TempDirTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    private static final Path SHM = Paths.get("/dev/shm");
+
+    private Path fallback;
+
+    private static boolean isMemory(Path path) throws IOException {
+        return Files.isDirectory(path) &&
+                Files.isWritable(path) &&
+                Files.getFileStore(path).type().equals("tmpfs");
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        fallback = Files.createTempDirectory("jreduce-temp");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        FileUtils.delete(fallback);
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testFallbackWithoutMemoryLocations() throws IOException {
+        var missing = fallback.resolve("missing").toString();
+        var file    = Files.createFile(fallback.resolve("file")).toString();
+
+        assertEquals(fallback, TempDir.inMemory(fallback, List.of("", missing, file)));
+    }
+
+    @Test
+    void testFallbackOnDiskFileSystems() throws IOException {
+        assumeFalse(isMemory(fallback));
+
+        var disk = Files.createDirectory(fallback.resolve("disk"));
+
+        assertEquals(fallback, TempDir.inMemory(fallback, List.of(disk.toString())));
+        assertTrue(FileUtils.isEmpty(disk));
+    }
+
+    @Test
+    void testUniqueDirectoriesInMemory() throws IOException {
+        assumeTrue(isMemory(SHM));
+
+        var first  = TempDir.inMemory(fallback, List.of(SHM.toString()));
+        var second = TempDir.inMemory(fallback, List.of(SHM.toString()));
+
+        try {
+            // concurrent runs do not share their directories
+            assertNotEquals(first, second);
+            assertEquals(SHM, first.getParent());
+            assertEquals(SHM, second.getParent());
+            assertTrue(FileUtils.isEmpty(first));
+            assertTrue(FileUtils.isEmpty(second));
+        } finally {
+            FileUtils.delete(first);
+            FileUtils.delete(second);
+        }
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
@@ -0,0 +1,100 @@
+package at.jku.ssw.java.bytecode.reducer.io;
+
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Generates programs that are run by the class runners in tests.
+ */
+final class TestPrograms {
+
+    private TestPrograms() {
+    }
+
+    /**
+     * Generates a program that consists of a single class whose
+     * {@code main} method executes the given instructions.
+     *
+     * @param name The name of the class
+     * @param body Visits the instructions of the main method
+     *             (excluding the final return)
+     * @return the classes of the program
+     */
+    static Map<String, Bytecode> program(String name, Consumer<MethodVisitor> body) {
+        var cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        cw.visit(V10, ACC_PUBLIC, name, null, "java/lang/Object", null);
+
+        var mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "main", "([Ljava/lang/String;)V", null, null);
+        mv.visitCode();
+        body.accept(mv);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+
+        return Map.of(name + ".class", Bytecode.wrap(cw.toByteArray()));
+    }
+
+    /**
+     * Prints the given message.
+     */
+    static void print(MethodVisitor mv, String message) {
+        mv.visitFieldInsn(GETSTATIC, "java/lang/System", "out", "Ljava/io/PrintStream;");
+        mv.visitLdcInsn(message);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/io/PrintStream", "println", "(Ljava/lang/String;)V", false);
+    }
+
+    /**
+     * Prints the process ID of the JVM that runs the program.
+     */
+    static void printPid(MethodVisitor mv) {
+        mv.visitFieldInsn(GETSTATIC, "java/lang/System", "out", "Ljava/io/PrintStream;");
+        mv.visitMethodInsn(INVOKESTATIC, "java/lang/ProcessHandle", "current", "()Ljava/lang/ProcessHandle;", true);
+        mv.visitMethodInsn(INVOKEINTERFACE, "java/lang/ProcessHandle", "pid", "()J", true);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/io/PrintStream", "println", "(J)V", false);
+    }
+
+    /**
+     * Sleeps for the given time in milliseconds.
+     */
+    static void sleep(MethodVisitor mv, long millis) {
+        mv.visitLdcInsn(millis);
+        mv.visitMethodInsn(INVOKESTATIC, "java/lang/Thread", "sleep", "(J)V", false);
+    }
+
+    /**
+     * Calls {@link System#exit(int)} with the given status.
+     */
+    static void exit(MethodVisitor mv, int status) {
+        mv.visitLdcInsn(status);
+        mv.visitMethodInsn(INVOKESTATIC, "java/lang/System", "exit", "(I)V", false);
+    }
+
+    /**
+     * Throws an exception with the given message.
+     */
+    static void fail(MethodVisitor mv, String message) {
+        mv.visitTypeInsn(NEW, "java/lang/IllegalStateException");
+        mv.visitInsn(DUP);
+        mv.visitLdcInsn(message);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IllegalStateException", "<init>", "(Ljava/lang/String;)V", false);
+        mv.visitInsn(ATHROW);
+    }
+
+    /**
+     * Loops forever without ever checking for interrupts.
+     */
+    static void spin(MethodVisitor mv) {
+        var loop = new Label();
+        mv.visitLabel(loop);
+        mv.visitJumpInsn(GOTO, loop);
+    }
+}
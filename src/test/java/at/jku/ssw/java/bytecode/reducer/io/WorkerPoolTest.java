@@ -0,0 +1,135 @@
+package at.jku.ssw.java.bytecode.reducer.io;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static at.jku.ssw.java.bytecode.reducer.io.TestPrograms.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkerPoolTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    private WorkerPool pool;
+
+    /**
+     * Runs a program that prints the process ID of the worker.
+     */
+    private long pid() throws InterruptedException {
+        var result = pool.run("Pid", program("Pid", TestPrograms::printPid));
+
+        assertEquals(ScriptRunner.EXIT_SUCCESS, result.exitCode, result.output);
+
+        return Long.parseLong(result.output.trim());
+    }
+
+    /**
+     * Waits until the given process terminated.
+     */
+    private static boolean terminated(long pid) throws InterruptedException {
+        // the worker is killed, but not necessarily reaped yet
+        var process = ProcessHandle.of(pid);
+        for (int i = 0; i < 100 && process.map(ProcessHandle::isAlive).orElse(false); i++)
+            Thread.sleep(50);
+
+        return !process.map(ProcessHandle::isAlive).orElse(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null)
+            pool.close();
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testWorkerIsReused() throws Exception {
+        pool = new WorkerPool(60_000, WorkerPool.DEFAULT_RUNS);
+
+        var pid = pid();
+
+        assertNotEquals(ProcessHandle.current().pid(), pid);
+        assertEquals(pid, pid());
+        assertEquals(pid, pid());
+    }
+
+    @Test
+    void testWorkerIsReplacedAfterMaxRuns() throws Exception {
+        pool = new WorkerPool(60_000, 2);
+
+        var first = pid();
+        assertEquals(first, pid());
+
+        var second = pid();
+        assertNotEquals(first, second);
+        assertEquals(second, pid());
+
+        assertTrue(terminated(first));
+    }
+
+    @Test
+    void testExitIsTrapped() throws Exception {
+        pool = new WorkerPool(60_000, WorkerPool.DEFAULT_RUNS);
+
+        var pid    = pid();
+        var result = pool.run("Exit", program("Exit", mv -> {
+            print(mv, "before");
+            exit(mv, 3);
+        }));
+
+        assertEquals(3, result.exitCode);
+        assertEquals("before\n", result.output);
+
+        // the worker survived the call to System.exit
+        assertEquals(pid, pid());
+    }
+
+    @Test
+    void testOutputIsRoutedPerRun() throws Exception {
+        pool = new WorkerPool(60_000, WorkerPool.DEFAULT_RUNS);
+
+        var first  = pool.run("A", program("A", mv -> print(mv, "a")));
+        var second = pool.run("B", program("B", mv -> fail(mv, "b")));
+
+        assertEquals(ScriptRunner.EXIT_SUCCESS, first.exitCode);
+        assertEquals("a\n", first.output);
+        assertEquals(InProcessRunner.EXIT_FAILURE, second.exitCode);
+        assertTrue(second.output.startsWith("Exception in thread \"main\" java.lang.IllegalStateException: b"), second.output);
+    }
+
+    @Test
+    void testTimeoutKillsTheWorker() throws Exception {
+        pool = new WorkerPool(1_000, WorkerPool.DEFAULT_RUNS);
+
+        var pid = pid();
+
+        // the program ignores interrupts
+        var start   = System.nanoTime();
+        var result  = pool.run("Spin", program("Spin", TestPrograms::spin));
+        var elapsed = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+
+        assertEquals(ScriptRunner.EXIT_TIMEOUT, result.exitCode);
+        assertTrue(elapsed < 30, "Took " + elapsed + " s");
+
+        assertTrue(terminated(pid));
+        assertNotEquals(pid, pid());
+    }
+
+    @Test
+    void testClosingKillsTheWorkers() throws Exception {
+        pool = new WorkerPool(60_000, WorkerPool.DEFAULT_RUNS);
+
+        var pid = pid();
+        pool.close();
+
+        assertTrue(terminated(pid));
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
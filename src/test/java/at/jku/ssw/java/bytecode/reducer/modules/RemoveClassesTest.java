@@ -0,0 +1,100 @@
+package at.jku.ssw.java.bytecode.reducer.modules;
+
+import at.jku.ssw.java.bytecode.reducer.context.ReferenceIndex;
+import at.jku.ssw.java.bytecode.reducer.modules.classes.RemoveClasses;
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+public class RemoveClassesTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    /**
+     * Generates a class whose method {@code run} calls {@code run}
+     * of each of the given classes.
+     */
+    private static Bytecode clazz(String name, String... callees) {
+        var cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC, name, null, "java/lang/Object", null);
+
+        var mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "run", "()V", null, null);
+        mv.visitCode();
+        for (var callee : callees)
+            mv.visitMethodInsn(INVOKESTATIC, callee, "run", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+
+        return Bytecode.of(cw.toByteArray());
+    }
+
+    /**
+     * Reduces a program where {@code Main} requires {@code Helper}
+     * and {@code Unused} is not referenced at all.
+     */
+    private static Map<String, Bytecode> reduce(Predicate<Map<String, Bytecode>> test) throws Exception {
+        var classes = Map.of(
+                "Main.class", clazz("Main", "Helper"),
+                "Helper.class", clazz("Helper"),
+                "Unused.class", clazz("Unused")
+        );
+
+        return new RemoveClasses().reduce(
+                classes,
+                ReferenceIndex.of(classes),
+                test,
+                null,
+                1
+        );
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testRequiredClassesAreKept() throws Exception {
+        // the program only works if Main can resolve Helper
+        var result = reduce(c -> c.containsKey("Main.class") && c.containsKey("Helper.class"));
+
+        assertEquals(Set.of("Main.class", "Helper.class"), result.keySet());
+    }
+
+    @Test
+    void testReferencedClassesAreRemovedWithTheirReferrers() throws Exception {
+        var result = reduce(c -> c.containsKey("Helper.class"));
+
+        assertEquals(Set.of("Helper.class"), result.keySet());
+    }
+
+    @Test
+    void testUninterestingRemovals() throws Exception {
+        var classes = Map.of(
+                "Main.class", clazz("Main", "Helper"),
+                "Helper.class", clazz("Helper")
+        );
+
+        var result = new RemoveClasses().reduce(
+                classes,
+                ReferenceIndex.of(classes),
+                c -> c.equals(classes),
+                null,
+                1
+        );
+
+        assertEquals(classes, result);
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
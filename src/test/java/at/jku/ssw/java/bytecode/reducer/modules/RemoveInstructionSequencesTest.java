@@ -0,0 +1,257 @@
+package at.jku.ssw.java.bytecode.reducer.modules;
+
+import at.jku.ssw.java.bytecode.reducer.modules.flow.RemoveInstructionSequences;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+public class RemoveInstructionSequencesTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    /**
+     * Generates a class whose method {@code sequences} prints the given
+     * messages (each print is a stack-neutral sequence).
+     */
+    private static byte[] sequences(String... messages) {
+        var cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+        cw.visit(V1_8, ACC_PUBLIC, "Sequences", null, "java/lang/Object", null);
+
+        var mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "sequences", "()V", null, null);
+        mv.visitCode();
+        for (var message : messages)
+            print(mv, message);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+    /**
+     * Generates a class whose method {@code loops} prints a message
+     * before, within and after two nested loops.
+     */
+    private static byte[] loops() {
+        var cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_8, ACC_PUBLIC, "Loops", null, "java/lang/Object", null);
+
+        var mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "loops", "()V", null, null);
+        mv.visitCode();
+
+        print(mv, "before");
+
+        // for (int i = 0; i < 3; i++)
+        var outer    = new Label();
+        var outerEnd = new Label();
+        mv.visitInsn(ICONST_0);
+        mv.visitVarInsn(ISTORE, 0);
+        mv.visitLabel(outer);
+        mv.visitVarInsn(ILOAD, 0);
+        mv.visitInsn(ICONST_3);
+        mv.visitJumpInsn(IF_ICMPGE, outerEnd);
+
+        print(mv, "outer");
+
+        // for (int j = 0; j < 3; j++)
+        var inner    = new Label();
+        var innerEnd = new Label();
+        mv.visitInsn(ICONST_0);
+        mv.visitVarInsn(ISTORE, 1);
+        mv.visitLabel(inner);
+        mv.visitVarInsn(ILOAD, 1);
+        mv.visitInsn(ICONST_3);
+        mv.visitJumpInsn(IF_ICMPGE, innerEnd);
+
+        print(mv, "inner");
+
+        mv.visitIincInsn(1, 1);
+        mv.visitJumpInsn(GOTO, inner);
+        mv.visitLabel(innerEnd);
+
+        mv.visitIincInsn(0, 1);
+        mv.visitJumpInsn(GOTO, outer);
+        mv.visitLabel(outerEnd);
+
+        print(mv, "after");
+
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+    private static void print(MethodVisitor mv, String message) {
+        mv.visitFieldInsn(GETSTATIC, "java/lang/System", "out", "Ljava/io/PrintStream;");
+        mv.visitLdcInsn(message);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/io/PrintStream", "println", "(Ljava/lang/String;)V", false);
+    }
+
+    /**
+     * Collects the printed messages in the order of the code.
+     */
+    private static List<String> messages(byte[] bytecode) {
+        var messages = new ArrayList<String>();
+
+        new ClassReader(bytecode).accept(new ClassVisitor(ASM6) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                return new MethodVisitor(ASM6) {
+                    @Override
+                    public void visitLdcInsn(Object value) {
+                        messages.add((String) value);
+                    }
+                };
+            }
+        }, 0);
+
+        return messages;
+    }
+
+    /**
+     * Counts the instructions that are not NOPs.
+     */
+    private static int instructions(byte[] bytecode) {
+        var count = new AtomicInteger();
+
+        new ClassReader(bytecode).accept(new ClassVisitor(ASM6) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                return new MethodVisitor(ASM6) {
+                    @Override
+                    public void visitInsn(int opcode) {
+                        if (opcode != NOP)
+                            count.incrementAndGet();
+                    }
+
+                    @Override
+                    public void visitVarInsn(int opcode, int var) {
+                        count.incrementAndGet();
+                    }
+
+                    @Override
+                    public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+                        count.incrementAndGet();
+                    }
+
+                    @Override
+                    public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+                        count.incrementAndGet();
+                    }
+
+                    @Override
+                    public void visitJumpInsn(int opcode, Label label) {
+                        count.incrementAndGet();
+                    }
+
+                    @Override
+                    public void visitLdcInsn(Object value) {
+                        count.incrementAndGet();
+                    }
+
+                    @Override
+                    public void visitIincInsn(int var, int increment) {
+                        count.incrementAndGet();
+                    }
+                };
+            }
+        }, 0);
+
+        return count.get();
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testRemoveAllRegionsAtOnce() throws Exception {
+        var tests  = new AtomicInteger();
+        var result = new RemoveInstructionSequences().apply(sequences("a", "b", "c"), c -> tests.incrementAndGet() > 0);
+
+        // only the return instruction remains
+        assertEquals(List.of(), messages(result));
+        assertEquals(1, instructions(result));
+        assertEquals(1, tests.get());
+    }
+
+    @Test
+    void testForcedResult() throws Exception {
+        var result = new RemoveInstructionSequences().apply(sequences("a", "b", "c"));
+
+        assertEquals(1, instructions(result));
+    }
+
+    @Test
+    void testFailingRegionIsKept() throws Exception {
+        var result = new RemoveInstructionSequences().apply(
+                sequences("a", "b", "keep", "c", "d"),
+                c -> messages(c).contains("keep")
+        );
+
+        assertEquals(List.of("keep"), messages(result));
+        assertEquals(4, instructions(result));
+    }
+
+    @Test
+    void testFailingRegionIsKeptConcurrently() throws Exception {
+        var executor = Executors.newFixedThreadPool(3);
+
+        try {
+            var result = new RemoveInstructionSequences().apply(
+                    sequences("a", "keep", "b", "c", "d", "e"),
+                    c -> messages(c).contains("keep"),
+                    executor,
+                    3
+            );
+
+            assertEquals(List.of("keep"), messages(result));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testNestedLoops() throws Exception {
+        var original = loops();
+
+        assertEquals(List.of("before", "outer", "inner", "after"), messages(original));
+
+        // the inner loop body is required
+        var result = new RemoveInstructionSequences().apply(
+                original,
+                c -> messages(c).contains("inner")
+        );
+
+        assertEquals(List.of("inner"), messages(result));
+        assertTrue(instructions(result) < instructions(original));
+    }
+
+    @Test
+    void testNothingRemovable() throws Exception {
+        var original = loops();
+        var result   = new RemoveInstructionSequences().apply(original, c -> false);
+
+        // the rejected candidates do not leak into the result
+        assertArrayEquals(original, result);
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
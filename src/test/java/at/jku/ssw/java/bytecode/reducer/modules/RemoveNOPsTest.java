@@ -0,0 +1,128 @@
+package at.jku.ssw.java.bytecode.reducer.modules;
+
+import at.jku.ssw.java.bytecode.reducer.modules.cleanup.RemoveNOPs;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+public class RemoveNOPsTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    private static final String[] METHODS = {"a", "b", "c", "d"};
+
+    /**
+     * Generates a class whose methods each contain two NOPs.
+     */
+    private static byte[] clazz() {
+        var cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC, "NOPs", null, "java/lang/Object", null);
+
+        for (var name : METHODS) {
+            var mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, name, "()I", null, null);
+            mv.visitCode();
+            mv.visitInsn(NOP);
+            mv.visitInsn(ICONST_1);
+            mv.visitInsn(NOP);
+            mv.visitInsn(IRETURN);
+            mv.visitMaxs(1, 0);
+            mv.visitEnd();
+        }
+
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+    /**
+     * Counts the NOPs of each method.
+     */
+    private static Map<String, Integer> nops(byte[] bytecode) {
+        var nops = new HashMap<String, Integer>();
+
+        new ClassReader(bytecode).accept(new ClassVisitor(ASM6) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                nops.put(name, 0);
+
+                return new MethodVisitor(ASM6) {
+                    @Override
+                    public void visitInsn(int opcode) {
+                        if (opcode == NOP)
+                            nops.merge(name, 1, Integer::sum);
+                    }
+                };
+            }
+        }, 0);
+
+        return nops;
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testAllNOPsAtOnce() throws Exception {
+        var tests = new AtomicInteger();
+
+        var result = new RemoveNOPs().apply(clazz(), c -> tests.incrementAndGet() > 0);
+
+        assertEquals(Map.of("a", 0, "b", 0, "c", 0, "d", 0), nops(result));
+        assertEquals(1, tests.get());
+    }
+
+    @Test
+    void testBisectOnFailure() throws Exception {
+        var tests = new AtomicInteger();
+
+        // removing all NOPs at once fails, as one method has to keep a NOP
+        var result = new RemoveNOPs().apply(clazz(), c -> {
+            tests.incrementAndGet();
+            return nops(c).get("c") >= 1;
+        });
+
+        assertEquals(Map.of("a", 0, "b", 0, "c", 1, "d", 0), nops(result));
+        assertTrue(tests.get() > 1);
+    }
+
+    @Test
+    void testBisectOnFailureConcurrently() throws Exception {
+        var executor = Executors.newFixedThreadPool(3);
+
+        try {
+            var result = new RemoveNOPs().apply(
+                    clazz(),
+                    c -> nops(c).get("a") >= 1 && nops(c).get("d") >= 1,
+                    executor,
+                    3
+            );
+
+            assertEquals(Map.of("a", 1, "b", 0, "c", 0, "d", 1), nops(result));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testNoNOPs() throws Exception {
+        var bytecode = new RemoveNOPs().apply(clazz(), c -> true);
+
+        var result = new RemoveNOPs().apply(bytecode, c -> fail("No candidate expected"));
+
+        assertSame(bytecode, result);
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
@@ -0,0 +1,252 @@
+package at.jku.ssw.java.bytecode.reducer.modules;
+
+import at.jku.ssw.java.bytecode.reducer.context.ReferenceIndex;
+import at.jku.ssw.java.bytecode.reducer.modules.classes.RemoveUnreferencedMembers;
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+public class RemoveUnreferencedMembersTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    /**
+     * Generates a class with the fields {@code used} (read by {@code Main})
+     * and {@code unused} and the methods {@code called} (called by
+     * {@code Main}), {@code chained} (only called by {@code caller})
+     * and {@code caller}.
+     */
+    private static Bytecode library() {
+        var cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC, "Library", null, "java/lang/Object", null);
+
+        cw.visitField(ACC_PUBLIC | ACC_STATIC, "used", "I", null, null).visitEnd();
+        cw.visitField(ACC_PUBLIC | ACC_STATIC, "unused", "I", null, null).visitEnd();
+
+        method(cw, "called", null);
+        method(cw, "chained", null);
+        method(cw, "caller", "chained");
+
+        cw.visitEnd();
+
+        return Bytecode.of(cw.toByteArray());
+    }
+
+    private static Bytecode main() {
+        var cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC, "Main", null, "java/lang/Object", null);
+
+        var mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "main", "([Ljava/lang/String;)V", null, null);
+        mv.visitCode();
+        mv.visitMethodInsn(INVOKESTATIC, "Library", "called", "()V", false);
+        mv.visitFieldInsn(GETSTATIC, "Library", "used", "I");
+        mv.visitInsn(POP);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(1, 1);
+        mv.visitEnd();
+
+        cw.visitEnd();
+
+        return Bytecode.of(cw.toByteArray());
+    }
+
+    /**
+     * Generates a class with the field {@code value} and the methods
+     * {@code get} and {@code helper} (that calls {@code Library.called}).
+     */
+    private static Bytecode holder(String name) {
+        var cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC, name, null, "java/lang/Object", null);
+
+        cw.visitField(ACC_PUBLIC | ACC_STATIC, "value", "I", null, null).visitEnd();
+
+        method(cw, "get", null);
+        method(cw, "helper", "Library", "called");
+
+        cw.visitEnd();
+
+        return Bytecode.of(cw.toByteArray());
+    }
+
+    /**
+     * Generates a main class that calls {@code get} and reads {@code value}
+     * of the given class.
+     */
+    private static Bytecode user(String owner) {
+        var cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC, "Main", null, "java/lang/Object", null);
+
+        var mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "main", "([Ljava/lang/String;)V", null, null);
+        mv.visitCode();
+        mv.visitMethodInsn(INVOKESTATIC, owner, "get", "()V", false);
+        mv.visitFieldInsn(GETSTATIC, owner, "value", "I");
+        mv.visitInsn(POP);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(1, 1);
+        mv.visitEnd();
+
+        cw.visitEnd();
+
+        return Bytecode.of(cw.toByteArray());
+    }
+
+    private static void method(ClassWriter cw, String name, String callee) {
+        method(cw, name, "Library", callee);
+    }
+
+    private static void method(ClassWriter cw, String name, String owner, String callee) {
+        var mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, name, "()V", null, null);
+        mv.visitCode();
+        if (callee != null)
+            mv.visitMethodInsn(INVOKESTATIC, owner, callee, "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * Collects the names of the fields and methods of the given class.
+     */
+    private static Set<String> members(Bytecode bytecode) {
+        var members = new TreeSet<String>();
+
+        new ClassReader(bytecode.toArray()).accept(new ClassVisitor(ASM6) {
+            @Override
+            public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+                members.add(name);
+                return null;
+            }
+
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                members.add(name);
+                return null;
+            }
+        }, 0);
+
+        return members;
+    }
+
+    private static Map<String, Bytecode> reduce(Predicate<Map<String, Bytecode>> test) throws Exception {
+        var classes = Map.of("Library.class", library(), "Main.class", main());
+
+        return new RemoveUnreferencedMembers().reduce(
+                classes,
+                ReferenceIndex.of(classes),
+                test,
+                null,
+                1
+        );
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testRemoveUnreferencedMembers() throws Exception {
+        var tests  = new AtomicInteger();
+        var result = reduce(c -> tests.incrementAndGet() > 0);
+
+        // the chained method is only unreferenced once its caller is removed
+        assertEquals(Set.of("used", "called"), members(result.get("Library.class")));
+        assertEquals(Set.of("main"), members(result.get("Main.class")));
+        assertEquals(2, tests.get());
+    }
+
+    @Test
+    void testRequiredMembersAreKept() throws Exception {
+        var result = reduce(c -> members(c.get("Library.class")).contains("unused"));
+
+        assertEquals(Set.of("used", "unused", "called"), members(result.get("Library.class")));
+    }
+
+    @Test
+    void testSameNamedMembersOfOtherClasses() throws Exception {
+        var classes = Map.of(
+                "Left.class", holder("Left"),
+                "Right.class", holder("Right"),
+                "Main.class", user("Left")
+        );
+
+        var result = new RemoveUnreferencedMembers().reduce(
+                classes,
+                ReferenceIndex.of(classes),
+                c -> true,
+                null,
+                1
+        );
+
+        // only the members of the referenced class are kept
+        assertEquals(Set.of("value", "get"), members(result.get("Left.class")));
+        assertEquals(Set.of(), members(result.get("Right.class")));
+    }
+
+    @Test
+    void testReferencesOfRemovedMembersAreUpdated() throws Exception {
+        var classes = Map.of(
+                "Library.class", library(),
+                "Left.class", holder("Left"),
+                "Main.class", user("Left")
+        );
+        var index = ReferenceIndex.of(classes);
+
+        var result = new RemoveUnreferencedMembers().reduce(
+                classes,
+                index,
+                c -> true,
+                null,
+                1
+        );
+
+        // Library.called is only unreferenced once Left.helper is removed
+        assertEquals(Set.of(), members(result.get("Library.class")));
+        assertFalse(index.isMethodReferenced("Library", "called", "()V"));
+    }
+
+    @Test
+    void testNothingRemovable() throws Exception {
+        var classes = Map.of("Main.class", main());
+
+        var result = new RemoveUnreferencedMembers().reduce(
+                classes,
+                ReferenceIndex.of(classes),
+                c -> fail("No candidate expected"),
+                null,
+                1
+        );
+
+        assertSame(classes, result);
+    }
+
+    @Test
+    void testUninterestingRemovals() throws Exception {
+        var classes = Map.of("Library.class", library(), "Main.class", main());
+
+        var result = new RemoveUnreferencedMembers().reduce(
+                classes,
+                ReferenceIndex.of(classes),
+                c -> false,
+                null,
+                1
+        );
+
+        assertSame(classes, result);
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
@@ -0,0 +1,161 @@
+package at.jku.ssw.java.bytecode.reducer.runtypes;
+
+import at.jku.ssw.java.bytecode.reducer.states.State;
+import at.jku.ssw.java.bytecode.reducer.utils.cachetypes.CodePosition;
+import at.jku.ssw.java.bytecode.reducer.utils.cachetypes.MemberIds;
+import at.jku.ssw.java.bytecode.reducer.utils.javassist.ClassCache;
+import at.jku.ssw.java.bytecode.reducer.utils.javassist.Frames;
+import at.jku.ssw.java.bytecode.reducer.utils.javassist.Javassist;
+import javassist.CtBehavior;
+import javassist.bytecode.BadBytecode;
+import javassist.bytecode.CodeIterator;
+import javassist.bytecode.Opcode;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+public class InstructionReducerTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    /**
+     * Replaces pairs of {@code iconst_0} and {@code pop} with NOPs
+     * and records the behaviours and indices at which the search starts.
+     */
+    private static final class RemovePops implements InstructionReducer {
+        final List<String> visits = new ArrayList<>();
+
+        @Override
+        public Optional<CodePosition> reduceNext(State.Stable<CodePosition> stable,
+                                                 CtBehavior method,
+                                                 CodeIterator it,
+                                                 Frames frames) throws BadBytecode {
+            var id = MemberIds.of(method.getLongName());
+
+            visits.add(method.getName() + ":" + it.lookAhead());
+
+            while (it.hasNext()) {
+                var index = it.next();
+
+                if (it.byteAt(index) != Opcode.ICONST_0 || it.byteAt(index + 1) != Opcode.POP)
+                    continue;
+
+                if (stable.isKeyNotCached(CodePosition.key(id, index, index + 2))) {
+                    it.writeByte(Opcode.NOP, index);
+                    it.writeByte(Opcode.NOP, index + 1);
+
+                    return Optional.of(new CodePosition(method.getLongName(), index, index + 2));
+                }
+            }
+
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Generates a class with the methods {@code a}, {@code b} and
+     * {@code c} that each contain two pairs of {@code iconst_0} and
+     * {@code pop} (at the indices 0 and 2).
+     */
+    private static byte[] clazz() {
+        var cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC, "Pops", null, "java/lang/Object", null);
+
+        for (var name : List.of("a", "b", "c")) {
+            var mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, name, "()V", null, null);
+            mv.visitCode();
+            mv.visitInsn(ICONST_0);
+            mv.visitInsn(POP);
+            mv.visitInsn(ICONST_0);
+            mv.visitInsn(POP);
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(1, 0);
+            mv.visitEnd();
+        }
+
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testRejectedCandidateRestoresTheClass() throws Exception {
+        var reducer = new RemovePops();
+        var base    = State.Stable.<CodePosition>of(clazz());
+        var parsed  = Javassist.bytecode(Javassist.loadClass(base.bytecode()));
+
+        var candidate = reducer.apply(base);
+        var rejected  = candidate.reject();
+
+        assertFalse(candidate.isMinimal());
+        assertSame(base.code(), rejected.code());
+
+        // the parsed class that is reused for the next candidate
+        // corresponds to the base again
+        var clazz = ClassCache.take(rejected.code());
+
+        try {
+            assertArrayEquals(parsed, Javassist.bytecode(clazz));
+        } finally {
+            ClassCache.release(rejected.code(), clazz);
+        }
+    }
+
+    @Test
+    void testResumeAtTheCursor() throws Exception {
+        var reducer = new RemovePops();
+
+        // a.0 and a.2 are rejected and b.0 is accepted
+        var stable = reducer.apply(State.Stable.of(clazz())).reject();
+        stable = reducer.apply(stable).reject();
+
+        reducer.visits.clear();
+        var accepted = reducer.apply(stable);
+        assertEquals(List.of("a:2", "b:0"), reducer.visits);
+
+        stable = accepted.accept();
+
+        // the search continues at b.0 (which is now a NOP) instead of a.0
+        reducer.visits.clear();
+        var next = reducer.apply(stable);
+
+        assertEquals(List.of("b:0"), reducer.visits);
+        assertFalse(next.isMinimal());
+    }
+
+    @Test
+    void testWrapAroundOnce() throws Exception {
+        var reducer = new RemovePops();
+        var stable  = State.Stable.<CodePosition>of(clazz());
+        var tried   = 0;
+
+        // reject all candidates (the cursor ends at the last one)
+        for (var res = reducer.apply(stable); !res.isMinimal(); res = reducer.apply(stable)) {
+            stable = res.reject();
+            tried++;
+        }
+
+        assertEquals(6, tried);
+
+        // the minimal result starts at the cursor and
+        // checks every behaviour once more
+        reducer.visits.clear();
+        var result = reducer.apply(stable);
+
+        assertTrue(result.isMinimal());
+        assertEquals(List.of("c:2", "a:0", "b:0", "c:0"), reducer.visits);
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
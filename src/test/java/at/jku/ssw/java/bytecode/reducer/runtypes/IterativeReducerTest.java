@@ -0,0 +1,138 @@
+package at.jku.ssw.java.bytecode.reducer.runtypes;
+
+import at.jku.ssw.java.bytecode.reducer.states.State;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IterativeReducerTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    /**
+     * Reducer whose "classes" are comma-separated lists of names
+     * and that removes one name per candidate.
+     */
+    private static final class RemoveName implements IterativeReducer<String> {
+
+        @Override
+        public State.Experimental<String> apply(State.Stable<String> stable) {
+            var names = new ArrayList<>(Arrays.asList(names(stable.bytecode()).split(",")));
+
+            for (var name : names) {
+                if (stable.isCached(name))
+                    continue;
+
+                var candidate = new ArrayList<>(names);
+                candidate.remove(name);
+
+                return stable.toResult(names(candidate), name);
+            }
+
+            return stable.toMinimalResult();
+        }
+    }
+
+    private ExecutorService executor;
+
+    private static byte[] names(List<String> names) {
+        return String.join(",", names).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String names(byte[] bytecode) {
+        return new String(bytecode, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Makes the given test wait before it reports interesting candidates,
+     * such that later candidates of a batch finish first.
+     */
+    private static Predicate<byte[]> slow(Predicate<byte[]> test) {
+        return c -> {
+            var result = test.test(c);
+
+            if (result) {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            return result;
+        };
+    }
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testFirstInterestingCandidateOfABatchIsAccepted() throws Exception {
+        var bytecode = names(List.of("a", "b", "c", "d"));
+        var tested   = ConcurrentHashMap.<String>newKeySet();
+
+        // removing b or d is interesting, but both cannot be removed,
+        // and the candidate without b finishes last
+        Predicate<byte[]> test = c -> {
+            tested.add(names(c));
+            return names(c).equals("a,c,d") || names(c).equals("a,b,c");
+        };
+
+        var sequential = new RemoveName().apply(bytecode, test);
+
+        tested.clear();
+
+        var concurrent = new RemoveName().apply(bytecode, c -> {
+            if (names(c).equals("a,c,d"))
+                return slow(test).test(c);
+            return test.test(c);
+        }, executor, 4);
+
+        assertEquals("a,c,d", names(sequential));
+        assertEquals("a,c,d", names(concurrent));
+
+        // all four candidates were tested in the same batch
+        assertTrue(tested.containsAll(Set.of("b,c,d", "a,c,d", "a,b,d", "a,b,c")), tested.toString());
+    }
+
+    @Test
+    void testConcurrentResultIsDeterministic() throws Exception {
+        var bytecode = names(List.of("a", "b", "c", "d", "e", "f", "g", "h"));
+
+        // every candidate that keeps c and g is interesting
+        Predicate<byte[]> test = c -> names(c).contains("c") && names(c).contains("g");
+
+        var expected = names(new RemoveName().apply(bytecode, test));
+
+        for (int run = 0; run < 5; run++)
+            assertEquals(expected, names(new RemoveName().apply(bytecode, slow(test), executor, 4)));
+
+        assertEquals("c,g", expected);
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
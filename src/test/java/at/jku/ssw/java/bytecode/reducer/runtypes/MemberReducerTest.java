@@ -0,0 +1,203 @@
+package at.jku.ssw.java.bytecode.reducer.runtypes;
+
+import at.jku.ssw.java.bytecode.reducer.modules.methods.RemoveMethodAttributes;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+public class MemberReducerTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    /**
+     * Reducer whose "classes" are comma-separated lists of member names
+     * and that removes individual members.
+     */
+    private static final class RemoveNames
+            implements MemberReducer<List<String>, String, String> {
+
+        @Override
+        public List<String> classFrom(byte[] bytecode) {
+            var names = new String(bytecode, StandardCharsets.UTF_8);
+
+            return names.isEmpty()
+                    ? new ArrayList<>()
+                    : new ArrayList<>(Arrays.asList(names.split(",")));
+        }
+
+        @Override
+        public byte[] bytecodeFrom(List<String> clazz) {
+            return String.join(",", clazz).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Stream<String> getMembers(List<String> clazz) {
+            return new ArrayList<>(clazz).stream();
+        }
+
+        @Override
+        public List<String> process(List<String> clazz, String member) {
+            clazz.remove(member);
+            return clazz;
+        }
+
+        @Override
+        public String keyFromMember(String member) {
+            return member;
+        }
+    }
+
+    private static byte[] names(String... names) {
+        return String.join(",", names).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String names(byte[] bytecode) {
+        return new String(bytecode, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Generates a class with public static final methods.
+     */
+    private static byte[] clazz(String... methods) {
+        var cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC, "Members", null, "java/lang/Object", null);
+
+        for (var name : methods) {
+            var mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC | ACC_FINAL, name, "()V", null, null);
+            mv.visitCode();
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+    /**
+     * Collects the access flags of all methods.
+     */
+    private static Map<String, Integer> access(byte[] bytecode) {
+        var access = new HashMap<String, Integer>();
+
+        new ClassReader(bytecode).accept(new ClassVisitor(ASM6) {
+            @Override
+            public MethodVisitor visitMethod(int flags, String name, String descriptor, String signature, String[] exceptions) {
+                access.put(name, flags);
+                return null;
+            }
+        }, 0);
+
+        return access;
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testForcedResult() throws Exception {
+        var tests = new AtomicInteger();
+
+        var result = new RemoveNames().apply(names("a", "b", "c"), c -> tests.incrementAndGet() > 0);
+
+        assertEquals("", names(result));
+        assertEquals(1, tests.get());
+    }
+
+    @Test
+    void testRequiredMembersAreKept() throws Exception {
+        var result = new RemoveNames().apply(
+                names("a", "b", "c", "d", "e", "f", "g", "h"),
+                c -> names(c).contains("c") && names(c).contains("g")
+        );
+
+        assertEquals("c,g", names(result));
+    }
+
+    @Test
+    void testMembersThatBecomeRemovable() throws Exception {
+        // "b" can only be removed once "a" is gone, and "a" is only
+        // removable together with "c"
+        var result = new RemoveNames().apply(
+                names("a", "b", "c", "d"),
+                c -> {
+                    var kept = List.of(names(c).split(","));
+                    return kept.contains("d")
+                            && (kept.contains("b") || !kept.contains("a"))
+                            && (kept.contains("a") || !kept.contains("c"));
+                }
+        );
+
+        assertEquals("d", names(result));
+    }
+
+    @Test
+    void testConcurrentResultMatchesSequential() throws Exception {
+        var bytecode = names("a", "b", "c", "d", "e", "f", "g", "h", "i", "j");
+        var executor = Executors.newFixedThreadPool(4);
+
+        try {
+            var sequential = new RemoveNames().apply(bytecode, c -> names(c).contains("e"));
+            var concurrent = new RemoveNames().apply(bytecode, c -> names(c).contains("e"), executor, 4);
+
+            assertEquals("e", names(sequential));
+            assertArrayEquals(sequential, concurrent);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testAttributesAreMinimizedDeterministically() throws Exception {
+        var bytecode = clazz("a", "b", "c", "d");
+        var mask     = ACC_PUBLIC | ACC_STATIC | ACC_FINAL;
+
+        List<List<Map<String, Integer>>> histories = new ArrayList<>();
+
+        // only the static modifier of method b is required
+        for (int run = 0; run < 5; run++) {
+            var tested = new ArrayList<Map<String, Integer>>();
+
+            var result = new RemoveMethodAttributes().apply(
+                    bytecode,
+                    c -> {
+                        tested.add(access(c));
+                        return (access(c).get("b") & ACC_STATIC) != 0;
+                    }
+            );
+
+            var access = access(result);
+
+            assertEquals(0, access.get("a") & mask);
+            assertEquals(ACC_STATIC, access.get("b") & mask);
+            assertEquals(0, access.get("c") & mask);
+            assertEquals(0, access.get("d") & mask);
+
+            histories.add(tested);
+        }
+
+        // the same candidates are tested in every run
+        for (var history : histories)
+            assertEquals(histories.get(0), history);
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
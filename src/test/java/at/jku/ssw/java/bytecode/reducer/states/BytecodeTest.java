@@ -0,0 +1,117 @@
+package at.jku.ssw.java.bytecode.reducer.states;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+public class BytecodeTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    /**
+     * Generates a class whose constant pool contains long and double
+     * constants (that occupy two entries) before the class name.
+     */
+    private static byte[] clazz(String name) {
+        var cw = new ClassWriter(0);
+
+        cw.newConst(42L);
+        cw.newConst(4.2);
+        cw.newConst("constant");
+
+        cw.visit(V1_8, ACC_PUBLIC, name, null, "java/lang/Object", null);
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testOfCopiesTheBytes() {
+        var bytes    = clazz("A");
+        var bytecode = Bytecode.of(bytes);
+
+        bytes[bytes.length - 1]++;
+
+        assertFalse(bytecode.contentEquals(bytes));
+        assertEquals(Bytecode.of(clazz("A")), bytecode);
+    }
+
+    @Test
+    void testToArrayReturnsACopy() {
+        var bytecode = Bytecode.wrap(clazz("A"));
+        var bytes    = bytecode.toArray();
+
+        bytes[bytes.length - 1]++;
+
+        assertFalse(bytecode.contentEquals(bytes));
+        assertArrayEquals(clazz("A"), bytecode.toArray());
+    }
+
+    @Test
+    void testBufferIsReadOnly() {
+        var bytecode = Bytecode.wrap(clazz("A"));
+        var buffer   = bytecode.buffer();
+
+        assertEquals(0, buffer.position());
+        assertEquals(bytecode.length(), buffer.remaining());
+        assertThrows(ReadOnlyBufferException.class, () -> buffer.put(0, (byte) 0));
+
+        // each buffer has its own position
+        buffer.position(buffer.limit());
+        assertEquals(bytecode.length(), bytecode.buffer().remaining());
+    }
+
+    @Test
+    void testHashReturnsACopy() {
+        var bytecode = Bytecode.wrap(clazz("A"));
+        var hash     = bytecode.hash();
+
+        hash[0]++;
+
+        assertFalse(Arrays.equals(hash, bytecode.hash()));
+    }
+
+    @Test
+    void testEquality() {
+        var a = Bytecode.wrap(clazz("A"));
+        var b = Bytecode.of(clazz("A"));
+        var c = Bytecode.wrap(clazz("C"));
+
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, c);
+
+        // the hashes are compared once both are known
+        a.hash();
+        assertEquals(a, b);
+        b.hash();
+        c.hash();
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, c);
+    }
+
+    @Test
+    void testClassName() {
+        assertEquals("at/jku/Clazz", Bytecode.wrap(clazz("at/jku/Clazz")).className());
+    }
+
+    @Test
+    void testMalformedClassName() {
+        var bytecode = Bytecode.wrap(new byte[]{(byte) 0xCA, (byte) 0xFE});
+
+        assertThrows(IllegalArgumentException.class, bytecode::className);
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
@@ -0,0 +1,102 @@
+package at.jku.ssw.java.bytecode.reducer.states;
+
+import at.jku.ssw.java.bytecode.reducer.utils.cachetypes.Encodable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StateTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    /**
+     * Attempt that is stored by its key.
+     */
+    private static final class Key implements Encodable {
+        final long key;
+
+        Key(long key) {
+            this.key = key;
+        }
+
+        @Override
+        public long encode() {
+            return key;
+        }
+    }
+
+    private static final byte[] ORIGINAL = {1, 2, 3};
+
+    private static final byte[] REDUCED = {1, 2};
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testRejectKeepsAttempts() {
+        State.Stable<Object> base = State.of(ORIGINAL);
+
+        var first  = base.toResult(REDUCED, "a", new Key(1)).reject();
+        var second = first.toResult(REDUCED, "b", new Key(2)).reject();
+
+        assertArrayEquals(ORIGINAL, second.bytecode());
+        assertTrue(second.isCached("a"));
+        assertTrue(second.isCached("b"));
+        assertTrue(second.isCached(new Key(1)));
+        assertTrue(second.isKeyCached(2));
+
+        // the previous bases do not know about later attempts
+        assertTrue(first.isCached("a"));
+        assertTrue(first.isNotCached("b"));
+        assertTrue(first.isKeyNotCached(2));
+        assertTrue(base.isNotCached("a"));
+        assertTrue(base.isKeyNotCached(1));
+    }
+
+    @Test
+    void testRejectAfterBranching() {
+        State.Stable<Object> base = State.of(ORIGINAL);
+
+        var rejected = base.toResult(REDUCED, new Key(1)).reject();
+
+        // the newer result extends the shared attempt log first
+        var newer = rejected.toResult(REDUCED, new Key(2)).reject();
+        var older = rejected.toResult(REDUCED, new Key(3)).reject();
+
+        assertTrue(newer.isKeyCached(1));
+        assertTrue(newer.isKeyCached(2));
+        assertTrue(newer.isKeyNotCached(3));
+
+        assertTrue(older.isKeyCached(1));
+        assertTrue(older.isKeyCached(3));
+        assertTrue(older.isKeyNotCached(2));
+    }
+
+    @Test
+    void testAcceptResetsAttempts() {
+        State.Stable<Object> base = State.of(ORIGINAL);
+
+        var accepted = base.toResult(REDUCED, "a", new Key(1)).accept();
+
+        assertArrayEquals(REDUCED, accepted.bytecode());
+        assertTrue(accepted.isNotCached("a"));
+        assertTrue(accepted.isKeyNotCached(1));
+    }
+
+    @Test
+    void testBoxedAttempts() {
+        State.Stable<Integer> base = State.of(ORIGINAL);
+
+        var rejected = base.toResult(REDUCED, 5).reject();
+
+        assertTrue(rejected.isCached(5));
+        assertTrue(rejected.isNotCached(6));
+
+        // boxed attempts are not stored as keys
+        assertTrue(rejected.isKeyNotCached(5));
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
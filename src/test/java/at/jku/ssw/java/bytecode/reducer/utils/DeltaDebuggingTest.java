@@ -0,0 +1,124 @@
+package at.jku.ssw.java.bytecode.reducer.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeltaDebuggingTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    private static List<Integer> items(int count) {
+        return IntStream.range(0, count).boxed().collect(Collectors.toList());
+    }
+
+    private static List<Integer> minimize(List<Integer> items,
+                                          Predicate<List<Integer>> test) throws Exception {
+        return DeltaDebugging.minimize(items, items, ArrayList::new, test);
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testAllItemsRemovable() throws Exception {
+        var tests = new AtomicInteger();
+
+        var result = minimize(items(64), c -> tests.incrementAndGet() > 0);
+
+        assertEquals(List.of(), result);
+        // a logarithmic number of tests instead of one test per item
+        assertTrue(tests.get() <= 2 * 7, () -> tests.get() + " tests");
+    }
+
+    @Test
+    void testNoItemRemovable() throws Exception {
+        var items = items(8);
+        var tests = new AtomicInteger();
+
+        var result = DeltaDebugging.minimize(
+                items,
+                items,
+                ArrayList::new,
+                c -> tests.incrementAndGet() < 0
+        );
+
+        assertSame(items, result);
+        assertTrue(tests.get() > 0);
+    }
+
+    @Test
+    void testEmptyConfiguration() throws Exception {
+        List<Integer> items = List.of();
+
+        assertSame(items, DeltaDebugging.minimize(items, items, ArrayList::new, c -> fail("No test expected")));
+    }
+
+    @Test
+    void testRequiredItemsAreKept() throws Exception {
+        var result = minimize(items(16), c -> c.contains(3) && c.contains(11));
+
+        assertEquals(List.of(3, 11), result);
+    }
+
+    @Test
+    void testResultIsOneMinimal() throws Exception {
+        Predicate<List<Integer>> test = c ->
+                c.contains(2) && (c.contains(5) || c.contains(13)) && c.size() % 2 == 0;
+
+        var result = minimize(items(20), test);
+
+        assertTrue(test.test(result));
+
+        // no single item can be removed
+        for (var item : result) {
+            var smaller = new ArrayList<>(result);
+            smaller.remove(item);
+            assertFalse(test.test(smaller), () -> "Item " + item + " can be removed");
+        }
+    }
+
+    @Test
+    void testCandidatesAreBuiltFromConfigurations() throws Exception {
+        var items = List.of("a", "b", "c", "d");
+
+        var result = DeltaDebugging.minimize(
+                items,
+                "abcd",
+                c -> String.join("", c),
+                s -> s.contains("b")
+        );
+
+        assertEquals("b", result);
+    }
+
+    @Test
+    void testConcurrentResultMatchesSequential() throws Exception {
+        Predicate<List<Integer>> test = c -> c.contains(1) && c.contains(17) && c.contains(30);
+
+        var items      = items(32);
+        var sequential = minimize(items, test);
+        var executor   = Executors.newFixedThreadPool(4);
+
+        try {
+            var concurrent = DeltaDebugging.minimize(items, items, ArrayList::new, test, executor, 4);
+
+            assertEquals(List.of(1, 17, 30), sequential);
+            assertEquals(sequential, concurrent);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
@@ -0,0 +1,162 @@
+package at.jku.ssw.java.bytecode.reducer.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistentLongSetTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    private static PersistentLongSet of(long... values) {
+        var set = PersistentLongSet.empty();
+
+        for (var value : values)
+            set = set.plus(value);
+
+        return set;
+    }
+
+    private static void assertContainsExactly(PersistentLongSet set, long[] contained, long[] missing) {
+        assertEquals(contained.length, set.size());
+
+        for (var value : contained)
+            assertTrue(set.contains(value), () -> "missing " + value);
+
+        for (var value : missing)
+            assertFalse(set.contains(value), () -> "unexpected " + value);
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testEmpty() {
+        var set = PersistentLongSet.empty();
+
+        assertEquals(0, set.size());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(-1));
+    }
+
+    @Test
+    void testInsertion() {
+        var set = PersistentLongSet.empty();
+
+        // grows the table several times
+        for (long i = 0; i < 10_000; i++)
+            set = set.plus(i << 32 | i);
+
+        assertEquals(10_000, set.size());
+
+        for (long i = 0; i < 10_000; i++) {
+            assertTrue(set.contains(i << 32 | i));
+            assertFalse(set.contains(i << 32 | (i + 1)));
+        }
+    }
+
+    @Test
+    void testDuplicateReturnsSameSet() {
+        var set = of(1, 2, 3);
+
+        assertSame(set, set.plus(2));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    void testCollisions() {
+        // more values than slots in the initial table, which only
+        // differ in a few bits (like encoded attempts)
+        var values = new long[64];
+        for (int i = 0; i < values.length; i++)
+            values[i] = (long) i << 40 | Long.MIN_VALUE;
+
+        var set = of(values);
+
+        assertContainsExactly(set, values, new long[]{0, Long.MIN_VALUE | 1, 64L << 40 | Long.MIN_VALUE});
+    }
+
+    @Test
+    void testOlderVersionsAreUnchanged() {
+        var first  = of(1, 2);
+        var second = first.plus(3);
+        var third  = second.plus(4);
+
+        assertContainsExactly(first, new long[]{1, 2}, new long[]{3, 4});
+        assertContainsExactly(second, new long[]{1, 2, 3}, new long[]{4});
+        assertContainsExactly(third, new long[]{1, 2, 3, 4}, new long[0]);
+    }
+
+    @Test
+    void testBranchingHistories() {
+        var base  = of(1, 2);
+        var newer = base.plus(3).plus(4);
+
+        // extend the base after a newer set already extended the table
+        var branch = base.plus(5);
+
+        assertContainsExactly(base, new long[]{1, 2}, new long[]{3, 4, 5});
+        assertContainsExactly(newer, new long[]{1, 2, 3, 4}, new long[]{5});
+        assertContainsExactly(branch, new long[]{1, 2, 5}, new long[]{3, 4});
+
+        // both histories can be extended further
+        var newerChild  = newer.plus(6);
+        var branchChild = branch.plus(6).plus(3);
+
+        assertContainsExactly(newerChild, new long[]{1, 2, 3, 4, 6}, new long[]{5});
+        assertContainsExactly(branchChild, new long[]{1, 2, 3, 5, 6}, new long[]{4});
+        assertContainsExactly(newer, new long[]{1, 2, 3, 4}, new long[]{5, 6});
+        assertContainsExactly(branch, new long[]{1, 2, 5}, new long[]{3, 4, 6});
+    }
+
+    @Test
+    void testConcurrentBranches() throws Exception {
+        var base = of(1, 2, 3);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<PersistentLongSet>> branches = new ArrayList<>();
+
+            for (long b = 0; b < 8; b++) {
+                final var offset = (b + 1) * 1000;
+
+                branches.add(executor.submit(() -> {
+                    var set = base;
+                    for (long i = 0; i < 500; i++)
+                        set = set.plus(offset + i);
+                    return set;
+                }));
+            }
+
+            for (int b = 0; b < branches.size(); b++) {
+                var set    = branches.get(b).get();
+                var offset = (b + 1) * 1000L;
+
+                assertEquals(503, set.size());
+                assertTrue(set.contains(1));
+
+                for (long i = 0; i < 500; i++)
+                    assertTrue(set.contains(offset + i));
+
+                // values of the other branches are not contained
+                var other = (b + 1) % branches.size();
+                assertFalse(set.contains((other + 1) * 1000L));
+            }
+
+            assertEquals(3, base.size());
+            assertFalse(base.contains(1000));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
@@ -0,0 +1,141 @@
+package at.jku.ssw.java.bytecode.reducer.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistentSetTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    /**
+     * Element whose hash code is fixed, such that different
+     * elements collide.
+     */
+    private static final class Colliding {
+        final int id;
+        final int hash;
+
+        Colliding(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Colliding && ((Colliding) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testEmpty() {
+        PersistentSet<String> set = PersistentSet.empty();
+
+        assertEquals(0, set.size());
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains("a"));
+        assertFalse(set.contains(null));
+        assertFalse(set.iterator().hasNext());
+    }
+
+    @Test
+    void testInsertion() {
+        PersistentSet<Integer> set = PersistentSet.empty();
+        var expected = new HashSet<Integer>();
+
+        // enough elements to require several levels of the trie
+        for (int i = 0; i < 5000; i++) {
+            set = set.plus(i * 31);
+            expected.add(i * 31);
+        }
+
+        assertEquals(expected.size(), set.size());
+        assertEquals(expected, set);
+        assertEquals(expected, new HashSet<>(set));
+
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(set.contains(i * 31));
+            assertFalse(set.contains(i * 31 + 1));
+        }
+    }
+
+    @Test
+    void testDuplicateReturnsSameSet() {
+        var set = PersistentSet.<String>empty().plus("a").plus("b");
+
+        assertSame(set, set.plus("a"));
+        assertSame(set, set.plusAll(List.of("b", "a")));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    void testNullIsRejected() {
+        assertThrows(NullPointerException.class, () -> PersistentSet.empty().plus(null));
+    }
+
+    @Test
+    void testCollisions() {
+        PersistentSet<Colliding> set = PersistentSet.empty();
+
+        // identical hash codes as well as hash codes that only differ
+        // in the bits of deeper levels
+        var elements = IntStream.range(0, 100)
+                .mapToObj(i -> new Colliding(i, i % 2 == 0 ? 42 : 42 | (i << 25)))
+                .collect(Collectors.toList());
+
+        for (var element : elements)
+            set = set.plus(element);
+
+        assertEquals(elements.size(), set.size());
+        assertEquals(Set.copyOf(elements), set);
+
+        for (var element : elements) {
+            assertTrue(set.contains(new Colliding(element.id, element.hash)));
+            assertSame(set, set.plus(new Colliding(element.id, element.hash)));
+        }
+
+        assertFalse(set.contains(new Colliding(100, 42)));
+        assertFalse(set.contains(new Colliding(101, 42 | (101 << 25))));
+    }
+
+    @Test
+    void testBranchingHistories() {
+        var base = PersistentSet.<String>empty().plus("a").plus("b");
+
+        // extend the base after a newer set was derived from it
+        var first  = base.plus("c");
+        var second = base.plus("d");
+
+        assertEquals(Set.of("a", "b"), base);
+        assertEquals(Set.of("a", "b", "c"), first);
+        assertEquals(Set.of("a", "b", "d"), second);
+
+        var firstChild  = first.plus("e");
+        var secondChild = second.plus("e");
+
+        assertEquals(Set.of("a", "b", "c", "e"), firstChild);
+        assertEquals(Set.of("a", "b", "d", "e"), secondChild);
+        assertFalse(first.contains("e"));
+        assertFalse(second.contains("e"));
+        assertFalse(base.contains("c"));
+        assertFalse(base.contains("d"));
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
@@ -0,0 +1,72 @@
+package at.jku.ssw.java.bytecode.reducer.utils.javassist;
+
+import javassist.ClassPool;
+import javassist.CtField;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+public class ClassPoolsTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    private static final String NAME = "at.jku.ssw.java.bytecode.reducer.utils.javassist.Scoped";
+
+    /**
+     * Generates an empty class with the given name.
+     */
+    private static byte[] clazz(String name) {
+        var cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC, name.replace('.', '/'), null, "java/lang/Object", null);
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testLoadedClassesAreScoped() throws Exception {
+        var first  = Javassist.loadClass(clazz(NAME));
+        var second = Javassist.loadClass(clazz(NAME));
+
+        // the same class can be loaded again without conflicts
+        assertNotSame(first.getClassPool(), second.getClassPool());
+
+        first.addField(CtField.make("int x;", first));
+
+        assertEquals(1, first.getDeclaredFields().length);
+        assertEquals(0, second.getDeclaredFields().length);
+
+        // neither the shared nor the default pool contain the class
+        assertNull(ClassPools.shared().getOrNull(NAME));
+        assertNull(ClassPool.getDefault().getOrNull(NAME));
+    }
+
+    @Test
+    void testPlatformClassesAreShared() throws Exception {
+        var first  = Javassist.loadClass(clazz(NAME));
+        var second = Javassist.loadClass(clazz(NAME));
+
+        var string = first.getClassPool().get("java.lang.String");
+
+        assertSame(string, second.getClassPool().get("java.lang.String"));
+        assertSame(string, ClassPools.shared().get("java.lang.String"));
+        assertSame(ClassPools.shared().get("java.lang.Object"), first.getSuperclass());
+    }
+
+    @Test
+    void testApplicationClassesAreNotShared() {
+        // outdated versions of the reduced classes may be
+        // on the application class path
+        assertNull(ClassPools.shared().getOrNull(ClassPools.class.getName()));
+        assertNull(ClassPools.scoped().getOrNull(ClassPools.class.getName()));
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
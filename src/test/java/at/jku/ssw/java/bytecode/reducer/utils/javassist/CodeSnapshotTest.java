@@ -0,0 +1,86 @@
+package at.jku.ssw.java.bytecode.reducer.utils.javassist;
+
+import javassist.bytecode.Opcode;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+public class CodeSnapshotTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    /**
+     * Generates a class whose method {@code m} branches
+     * (such that it has a stack map table).
+     */
+    private static byte[] clazz() {
+        var cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+        cw.visit(V1_8, ACC_PUBLIC, "Snapshot", null, "java/lang/Object", null);
+
+        var mv  = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "m", "(I)I", null, null);
+        var end = new Label();
+        mv.visitCode();
+        mv.visitVarInsn(ILOAD, 0);
+        mv.visitJumpInsn(IFEQ, end);
+        mv.visitIincInsn(0, 1);
+        mv.visitInsn(ICONST_0);
+        mv.visitInsn(POP);
+        mv.visitLabel(end);
+        mv.visitVarInsn(ILOAD, 0);
+        mv.visitInsn(IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testRestoreAfterRejectedCandidate() throws Exception {
+        var clazz    = Javassist.loadClass(clazz());
+        var info     = clazz.getDeclaredMethod("m").getMethodInfo();
+        var ca       = info.getCodeAttribute();
+        var original = Javassist.bytecode(clazz);
+
+        var snapshot = CodeSnapshot.of(ca);
+        assertFalse(snapshot.isModified());
+
+        // a candidate replaces the branch with NOPs
+        // and thereby invalidates the stack map
+        for (int i = 0; i < 4; i++)
+            ca.iterator().writeByte(Opcode.NOP, i);
+        info.rebuildStackMap(clazz.getClassPool());
+
+        assertTrue(snapshot.isModified());
+        assertFalse(Arrays.equals(original, Javassist.bytecode(clazz)));
+
+        assertTrue(snapshot.restore());
+        assertFalse(snapshot.isModified());
+        assertArrayEquals(original, Javassist.bytecode(clazz));
+    }
+
+    @Test
+    void testRestoreFailsIfTheLengthChanged() throws Exception {
+        var clazz = Javassist.loadClass(clazz());
+        var ca    = clazz.getDeclaredMethod("m").getMethodInfo().getCodeAttribute();
+
+        var snapshot = CodeSnapshot.of(ca);
+        ca.iterator().insertGap(0, 2);
+
+        assertTrue(snapshot.isModified());
+        assertFalse(snapshot.restore());
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}
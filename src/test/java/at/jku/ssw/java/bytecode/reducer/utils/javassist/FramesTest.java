@@ -0,0 +1,91 @@
+package at.jku.ssw.java.bytecode.reducer.utils.javassist;
+
+import at.jku.ssw.java.bytecode.reducer.states.Bytecode;
+import javassist.CtBehavior;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.objectweb.asm.Opcodes.*;
+
+public class FramesTest {
+    //-------------------------------------------------------------------------
+    // region Test utilities
+
+    /**
+     * Generates a class with the methods {@code a} (that pushes the given
+     * number of constants and discards them) and {@code b}.
+     */
+    private static Bytecode clazz(int constants) {
+        var cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_8, ACC_PUBLIC, "Frames", null, "java/lang/Object", null);
+
+        var mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "a", "()V", null, null);
+        mv.visitCode();
+        for (int i = 0; i < constants; i++) {
+            mv.visitInsn(ICONST_0);
+            mv.visitInsn(POP);
+        }
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "b", "()I", null, null);
+        mv.visitCode();
+        mv.visitInsn(ICONST_1);
+        mv.visitInsn(IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+
+        return Bytecode.of(cw.toByteArray());
+    }
+
+    private static CtBehavior method(Bytecode bytecode, String name) throws Exception {
+        return Javassist.loadClass(bytecode).getDeclaredMethod(name);
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+    // region Tests
+
+    @Test
+    void testUnchangedMethodHitsTheCache() throws Exception {
+        var bytecode = clazz(1);
+
+        // the class is parsed again (e.g. after a rejected candidate)
+        var first  = Frames.analyze(method(bytecode, "a"), bytecode);
+        var second = Frames.analyze(method(Bytecode.of(bytecode.toArray()), "a"), bytecode);
+
+        assertSame(first, second);
+
+        // other methods of the same class are separated
+        assertNotSame(first, Frames.analyze(method(bytecode, "b"), bytecode));
+    }
+
+    @Test
+    void testModifiedMethodMissesTheCache() throws Exception {
+        var original = clazz(1);
+        var modified = clazz(2);
+
+        var before = Frames.analyze(method(original, "a"), original);
+        var after  = Frames.analyze(method(modified, "a"), modified);
+
+        assertNotSame(before, after);
+        assertEquals(3, before.length);
+        assertEquals(5, after.length);
+    }
+
+    @Test
+    void testLazyAnalysis() throws Exception {
+        var bytecode = clazz(1);
+        var frames   = new Frames(method(bytecode, "b"), bytecode);
+
+        assertSame(frames.get(), frames.get());
+        assertSame(frames.get(), Frames.analyze(method(bytecode, "b"), bytecode));
+    }
+
+    // endregion
+    //-------------------------------------------------------------------------
+}